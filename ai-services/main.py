@@ -4,6 +4,8 @@ from pydantic import BaseModel
 import shutil
 import os
 import uuid
+from concurrent.futures import ThreadPoolExecutor
+from typing import List
 
 # Import services
 from speech_to_text import transcribe_audio
@@ -28,6 +30,9 @@ class TranslationRequest(BaseModel):
     target_lang: str
     source_lang: str = None
 
+class BatchTranslationRequest(BaseModel):
+    items: List[TranslationRequest]
+
 class TTSRequest(BaseModel):
     text: str
     lang: str
@@ -80,6 +85,23 @@ def translate(request: TranslationRequest):
     except Exception as e:
         raise HTTPException(status_code=500, detail=str(e))
 
+# Shared pool for batch translation; each item is an outbound HTTP call
+batch_pool = ThreadPoolExecutor(max_workers=8)
+
+@app.post("/translate/batch")
+def translate_batch(request: BatchTranslationRequest):
+    """
+    Translate many (text, source, target) items in one request.
+    Results come back in request order; a failed item carries an error instead of failing the batch.
+    """
+    def run(item):
+        try:
+            return {"translated_text": translate_text(item.text, item.target_lang, item.source_lang)}
+        except Exception as e:
+            return {"translated_text": None, "error": str(e)}
+
+    return {"results": list(batch_pool.map(run, request.items))}
+
 @app.post("/tts")
 async def text_to_speech(request: TTSRequest):
     try:
@@ -0,0 +1,61 @@
+package com.bhasharakshak.benchmarks;
+
+import com.bhasharakshak.service.ProfanityFilter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moderation cost per call on mixed-script text, from a language name up to
+ * a long transcript. Uses the bundled lexicons only (no MongoDB).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ProfanityFilterBenchmark {
+
+    @Param({ "32", "1024", "32768" })
+    public int textLength;
+
+    // One word in profaneEvery is profane; 0 = clean text, the common case
+    @Param({ "0", "50" })
+    public int profaneEvery;
+
+    private ProfanityFilter filter;
+    private String text;
+
+    @Setup
+    public void setUp() {
+        filter = new ProfanityFilter(null, "");
+        text = SyntheticData.mixedScriptText(textLength, profaneEvery, 42);
+    }
+
+    @Benchmark
+    public boolean containsProfanity() {
+        return filter.containsProfanity(text);
+    }
+
+    @Benchmark
+    public List<String> findProfanity() {
+        return filter.findProfanity(text);
+    }
+
+    @Benchmark
+    public String censorText() {
+        return filter.censorText(text);
+    }
+}
@@ -0,0 +1,95 @@
+package com.bhasharakshak.benchmarks;
+
+import com.bhasharakshak.service.search.InvertedIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The full-text index behind /api/v1/search/text at different corpus
+ * sizes. /stats and /map-stats no longer aggregate in memory (they read the
+ * asset_stats, city_stats and geo_tiles rollups), so this index is the one
+ * in-memory structure whose cost grows with the number of assets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx6g" })
+public class SearchIndexBenchmark {
+
+    private static final int VOCABULARY = 50_000;
+    private static final int TERMS_PER_ASSET = 40;
+
+    @Param({ "10000", "100000", "1000000" })
+    public int corpusSize;
+
+    private InvertedIndex index;
+    private List<String> commonTerm;
+    private List<String> rareTerms;
+    private List<String> mixedQuery;
+    private Random random;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        random = new Random(7);
+        index = new InvertedIndex();
+        for (int i = 0; i < corpusSize; i++) {
+            index.put("asset-" + i, assetTerms(random));
+        }
+        commonTerm = List.of(term(0));
+        rareTerms = List.of(term(VOCABULARY - 1), term(VOCABULARY - 2));
+        mixedQuery = List.of(term(3), term(500), term(20_000));
+    }
+
+    @Benchmark
+    public Object searchCommonTerm() {
+        return index.search(commonTerm, 20);
+    }
+
+    @Benchmark
+    public Object searchRareTerms() {
+        return index.search(rareTerms, 20);
+    }
+
+    @Benchmark
+    public Object searchMixedQuery() {
+        return index.search(mixedQuery, 20);
+    }
+
+    /**
+     * Re-index one asset, as when a transcript is verified.
+     */
+    @Benchmark
+    public void reindexAsset() {
+        index.put("asset-" + random.nextInt(corpusSize), assetTerms(random));
+    }
+
+    // Zipf-like: low term numbers are far more frequent, like real text
+    private static List<String> assetTerms(Random random) {
+        List<String> terms = new ArrayList<>(TERMS_PER_ASSET);
+        for (int t = 0; t < TERMS_PER_ASSET; t++) {
+            terms.add(term((int) (Math.pow(random.nextDouble(), 3) * VOCABULARY)));
+        }
+        return terms;
+    }
+
+    private static String term(int n) {
+        return "t" + n;
+    }
+}
@@ -0,0 +1,94 @@
+package com.bhasharakshak.benchmarks;
+
+import com.bhasharakshak.model.LanguageAsset;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Deterministic test data shaped like what contributors upload: mixed-script
+ * text and LanguageAsset records.
+ */
+final class SyntheticData {
+
+    static final String[] LANGUAGES = {
+            "Hindi", "Tamil", "Telugu", "Kannada", "Malayalam", "Bengali", "Gujarati", "Marathi", "Khasi", "English" };
+
+    private static final String[] CITIES = {
+            "New Delhi", "Chennai", "Hyderabad", "Bengaluru", "Kochi", "Kolkata", "Ahmedabad", "Pune", "Shillong", "Mumbai" };
+
+    private static final String[] REGIONS = {
+            "Delhi", "Tamil Nadu", "Telangana", "Karnataka", "Kerala", "West Bengal", "Gujarat", "Maharashtra", "Meghalaya", "Maharashtra" };
+
+    private static final String[] WORDS = {
+            // English
+            "the", "river", "song", "grandmother", "village", "harvest", "festival", "story", "morning", "rain",
+            // Hindi
+            "नदी", "गाना", "दादी", "गाँव", "फसल", "त्योहार", "कहानी", "सुबह", "बारिश", "पानी",
+            // Tamil
+            "ஆறு", "பாடல்", "பாட்டி", "கிராமம்", "அறுவடை", "திருவிழா", "கதை", "காலை", "மழை", "தண்ணீர்",
+            // Telugu
+            "నది", "పాట", "అమ్మమ్మ", "గ్రామం", "పంట", "పండుగ", "కథ", "ఉదయం", "వర్షం", "నీరు",
+            // Bengali
+            "নদী", "গান", "দিদিমা", "গ্রাম", "ফসল", "উৎসব", "গল্প", "সকাল", "বৃষ্টি", "জল",
+            // Malayalam
+            "പുഴ", "പാട്ട്", "മുത്തശ്ശി", "ഗ്രാമം", "വിളവെടുപ്പ്", "ഉത്സവം", "കഥ", "രാവിലെ", "മഴ", "വെള്ളം" };
+
+    // A few entries from the bundled lexicons, mixed in at a low rate
+    private static final String[] PROFANE = { "bullshit", "गधा", "முட்டாள்", "కుక్క", "গাধা", "പട്ടി" };
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Roughly {@code length} chars of mixed-script text; about one word in
+     * {@code profaneEvery} is from a profanity lexicon (0 for none).
+     */
+    static String mixedScriptText(int length, int profaneEvery, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder(length + 32);
+        int words = 0;
+        while (text.length() < length) {
+            if (text.length() > 0) {
+                text.append(random.nextInt(12) == 0 ? ", " : " ");
+            }
+            words++;
+            if (profaneEvery > 0 && words % profaneEvery == 0) {
+                text.append(PROFANE[random.nextInt(PROFANE.length)]);
+            } else {
+                text.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+        }
+        return text.toString();
+    }
+
+    static List<LanguageAsset> assets(int count, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime start = LocalDateTime.of(2025, 1, 1, 0, 0);
+        List<LanguageAsset> assets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int place = random.nextInt(CITIES.length);
+            LanguageAsset asset = new LanguageAsset();
+            asset.setAssetId(new UUID(random.nextLong(), random.nextLong()).toString());
+            asset.setContributorId("ANON-" + Integer.toHexString(random.nextInt()));
+            asset.setLanguageName(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+            asset.setDialect("Standard");
+            asset.setTargetLanguage("English");
+            asset.setTranscript(mixedScriptText(200, 0, random.nextLong()));
+            asset.setEnglishTranslation(mixedScriptText(150, 0, random.nextLong()));
+            asset.setAudioUrl("http://localhost:8080/api/v1/preservation/files/" + Long.toHexString(random.nextLong()));
+            asset.setConsentGiven(true);
+            asset.setConsentTimestamp(start.plusMinutes(i));
+            asset.setRegion(REGIONS[place]);
+            asset.setCity(CITIES[place]);
+            asset.setStatus(random.nextInt(4) == 0 ? "pending" : "verified");
+            asset.setCreatedAt(start.plusMinutes(i));
+            asset.setUpdatedAt(start.plusMinutes(i));
+            assets.add(asset);
+        }
+        return assets;
+    }
+}
@@ -0,0 +1,110 @@
+package com.bhasharakshak.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-endpoint outcome counts and latencies. Latencies are kept in full (a
+ * long per request) so percentiles are exact; a run at a few hundred RPS for a
+ * few minutes stays in the low megabytes.
+ */
+final class LatencyRecorder {
+
+    private final Map<Workload.Endpoint, Series> series = new EnumMap<>(Workload.Endpoint.class);
+
+    LatencyRecorder() {
+        for (Workload.Endpoint endpoint : Workload.Endpoint.values()) {
+            series.put(endpoint, new Series());
+        }
+    }
+
+    void success(Workload.Endpoint endpoint, long latencyNanos) {
+        Series s = series.get(endpoint);
+        synchronized (s) {
+            s.add(latencyNanos);
+        }
+    }
+
+    void error(Workload.Endpoint endpoint, long latencyNanos) {
+        Series s = series.get(endpoint);
+        synchronized (s) {
+            s.add(latencyNanos);
+            s.errors++;
+        }
+    }
+
+    void dropped(Workload.Endpoint endpoint) {
+        Series s = series.get(endpoint);
+        synchronized (s) {
+            s.dropped++;
+        }
+    }
+
+    /**
+     * Summary rows per endpoint plus an "ALL" row, in a shape that serializes
+     * straight to the JSON report.
+     */
+    List<Map<String, Object>> summarize(double elapsedSeconds) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        Series all = new Series();
+        for (Map.Entry<Workload.Endpoint, Series> entry : series.entrySet()) {
+            Series s = entry.getValue();
+            synchronized (s) {
+                if (s.count == 0 && s.dropped == 0) {
+                    continue;
+                }
+                rows.add(row(entry.getKey().key, s, elapsedSeconds));
+                for (int i = 0; i < s.count; i++) {
+                    all.add(s.latencies[i]);
+                }
+                all.errors += s.errors;
+                all.dropped += s.dropped;
+            }
+        }
+        rows.add(row("ALL", all, elapsedSeconds));
+        return rows;
+    }
+
+    private static Map<String, Object> row(String name, Series s, double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(s.latencies, s.count);
+        Arrays.sort(sorted);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("endpoint", name);
+        row.put("requests", s.count);
+        row.put("errors", s.errors);
+        row.put("dropped", s.dropped);
+        row.put("errorRate", s.count > 0 ? (double) s.errors / s.count : 0.0);
+        row.put("throughputRps", elapsedSeconds > 0 ? s.count / elapsedSeconds : 0.0);
+        row.put("p50Ms", percentileMs(sorted, 0.50));
+        row.put("p90Ms", percentileMs(sorted, 0.90));
+        row.put("p99Ms", percentileMs(sorted, 0.99));
+        row.put("maxMs", sorted.length > 0 ? sorted[sorted.length - 1] / 1e6 : 0.0);
+        return row;
+    }
+
+    private static double percentileMs(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    private static final class Series {
+        long[] latencies = new long[1024];
+        int count;
+        long errors;
+        long dropped;
+
+        void add(long latencyNanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.bhasharakshak.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests are started on a fixed schedule at the
+ * target rate whether or not earlier ones have finished, the way independent
+ * users arrive. Latency is measured from when a request was due to be sent,
+ * not when it actually went out, so a stalled backend shows up in the
+ * percentiles instead of just slowing the generator down (coordinated
+ * omission).
+ */
+final class LoadRunner {
+
+    private final HttpClient client;
+    private final Workload workload;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Random random = new Random(7);
+
+    LoadRunner(Workload workload, int maxInFlight) {
+        this.workload = workload;
+        this.maxInFlight = maxInFlight;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "loadtest-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+    }
+
+    /**
+     * Sends at {@code rps} for {@code seconds}, then waits for in-flight
+     * requests to finish. Requests that would push the number in flight past
+     * the limit are not sent and are counted as dropped.
+     *
+     * @return the length of the sending window in seconds
+     */
+    double run(int rps, int seconds, LatencyRecorder recorder) throws InterruptedException {
+        long period = TimeUnit.SECONDS.toNanos(1) / Math.max(rps, 1);
+        long total = (long) rps * seconds;
+        long start = System.nanoTime();
+
+        for (long i = 0; i < total; i++) {
+            long intended = start + i * period;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+
+            Workload.Endpoint endpoint = workload.pick(random);
+            if (inFlight.get() >= maxInFlight) {
+                recorder.dropped(endpoint);
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.sendAsync(workload.request(endpoint, random), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        long latency = System.nanoTime() - intended;
+                        if (error != null || response.statusCode() >= 400) {
+                            recorder.error(endpoint, latency);
+                        } else {
+                            recorder.success(endpoint, latency);
+                        }
+                        inFlight.decrementAndGet();
+                    });
+        }
+        double elapsed = (System.nanoTime() - start) / 1e9;
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        if (inFlight.get() > 0) {
+            System.err.println(inFlight.get() + " requests still in flight after 60s, reporting without them");
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,78 @@
+package com.bhasharakshak.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Load test settings, given as {@code key=value} arguments, e.g.
+ * {@code rps=100 duration=120 mix=upload=5,search=40,stats=20,mapStats=20,tts=15}.
+ * {@code failLanguages=Tamil,Dogri} and {@code batchStatus=503} make the stub's
+ * translations fail for those targets, or its batch endpoint fail as a whole
+ * (404: no batch endpoint), to exercise partial results and fallbacks.
+ */
+record LoadTestConfig(
+        int rps,
+        int durationSeconds,
+        int warmupSeconds,
+        int maxInFlight,
+        Map<Workload.Endpoint, Integer> mix,
+        String mongoUri,
+        String targetUrl,
+        int seedAssets,
+        Map<String, Integer> aiLatencyMs,
+        double aiJitter,
+        double aiErrorRate,
+        Set<String> failLanguages,
+        int batchStatus,
+        String reportFile) {
+
+    static LoadTestConfig parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (String arg : args) {
+            for (String part : arg.trim().split("\\s+")) {
+                int eq = part.indexOf('=');
+                if (eq > 0) {
+                    values.put(part.substring(0, eq), part.substring(eq + 1));
+                } else if (!part.isEmpty()) {
+                    throw new IllegalArgumentException("Expected key=value, got: " + part);
+                }
+            }
+        }
+
+        Map<String, Integer> latency = new LinkedHashMap<>();
+        latency.put("/stt", intValue(values, "sttLatency", 800));
+        latency.put("/translate", intValue(values, "translateLatency", 150));
+        latency.put("/translate/batch", intValue(values, "translateLatency", 150));
+        latency.put("/tts", intValue(values, "ttsLatency", 300));
+        latency.put("/describe-image", intValue(values, "describeLatency", 500));
+
+        return new LoadTestConfig(
+                intValue(values, "rps", 50),
+                intValue(values, "duration", 60),
+                intValue(values, "warmup", 10),
+                intValue(values, "maxInFlight", 2000),
+                Workload.parseMix(values.getOrDefault("mix", Workload.DEFAULT_MIX)),
+                values.getOrDefault("mongoUri", ""),
+                values.getOrDefault("targetUrl", ""),
+                intValue(values, "seedAssets", 10_000),
+                latency,
+                Double.parseDouble(values.getOrDefault("aiJitter", "0.2")),
+                Double.parseDouble(values.getOrDefault("aiErrorRate", "0")),
+                Arrays.stream(values.getOrDefault("failLanguages", "").split(","))
+                        .map(String::strip)
+                        .filter(language -> !language.isEmpty())
+                        .map(language -> language.toLowerCase(Locale.ROOT))
+                        .collect(Collectors.toSet()),
+                intValue(values, "batchStatus", 200),
+                values.getOrDefault("report", "loadtest-report.json"));
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        String value = values.get(key);
+        return value != null ? Integer.parseInt(value) : defaultValue;
+    }
+}
@@ -0,0 +1,127 @@
+package com.bhasharakshak.loadtest;
+
+import com.bhasharakshak.BhasharakshakApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * End-to-end load test: starts a stub AI service and a local MongoDB, seeds
+ * it, boots the backend in this JVM against both, then drives the request mix
+ * at a fixed rate and reports latency percentiles and error rates per
+ * endpoint.
+ *
+ * <pre>
+ * mvn -Pload-test verify -Dloadtest.args="rps=100 duration=120"
+ * </pre>
+ *
+ * With {@code targetUrl=http://host:8080} an already running backend is
+ * tested instead and nothing is started or seeded.
+ */
+public final class LoadTestMain {
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestConfig config = LoadTestConfig.parse(args);
+        Path workDir = Files.createTempDirectory("bhasharakshak-loadtest");
+
+        ConfigurableApplicationContext app = null;
+        try (StubAiServer stub = StubAiServer.start(config);
+             LocalMongo mongo = config.targetUrl().isBlank() ? LocalMongo.start(config.mongoUri()) : null) {
+
+            String baseUrl = config.targetUrl();
+            if (baseUrl.isBlank()) {
+                SeedData.seed(mongo.uri(), config.seedAssets());
+                app = startBackend(mongo.uri(), stub.url(), workDir);
+                int port = ((WebServerApplicationContext) app).getWebServer().getPort();
+                baseUrl = "http://127.0.0.1:" + port;
+            }
+            System.out.println("Target: " + baseUrl + ", AI stub: " + stub.url());
+
+            LoadRunner runner = new LoadRunner(new Workload(baseUrl, config.mix()), config.maxInFlight());
+            if (config.warmupSeconds() > 0) {
+                System.out.println("Warming up for " + config.warmupSeconds() + "s");
+                runner.run(config.rps(), config.warmupSeconds(), new LatencyRecorder());
+            }
+
+            System.out.println("Running at " + config.rps() + " rps for " + config.durationSeconds() + "s");
+            LatencyRecorder recorder = new LatencyRecorder();
+            double elapsed = runner.run(config.rps(), config.durationSeconds(), recorder);
+            List<Map<String, Object>> rows = recorder.summarize(elapsed);
+
+            print(rows);
+            writeReport(config, baseUrl, rows);
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+        // Embedded Mongo and HTTP client threads are gone by now; don't wait on stragglers
+        System.exit(0);
+    }
+
+    private static ConfigurableApplicationContext startBackend(String mongoUri, String aiUrl, Path workDir) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("server.port", 0);
+        properties.put("spring.data.mongodb.uri", mongoUri);
+        properties.put("ai-service.url", aiUrl);
+        properties.put("app.tts-cache.dir", workDir.resolve("tts-cache").toString());
+        properties.put("app.search.fts.snapshot-path", workDir.resolve("search-index.bin").toString());
+        // Build the rollups from the seeded data straight away
+        properties.put("app.stats.reconcile-initial-delay-ms", 0);
+        properties.put("app.geo.reconcile-initial-delay-ms", 0);
+        // Request-level DEBUG logging would dominate the measurements
+        properties.put("logging.level.root", "WARN");
+        properties.put("logging.level.org.springframework.web", "WARN");
+        properties.put("logging.level.org.springframework.security", "WARN");
+        properties.put("logging.level.org.springframework.data.mongodb.core.MongoTemplate", "WARN");
+        properties.put("spring.devtools.restart.enabled", false);
+        properties.put("spring.main.banner-mode", "off");
+
+        // Command-line style, so these win over the backend's application.properties
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(BhasharakshakApplication.class).run(args);
+    }
+
+    private static void print(List<Map<String, Object>> rows) {
+        System.out.printf("%n%-12s %9s %8s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "dropped", "rps", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map<String, Object> row : rows) {
+            System.out.printf("%-12s %9d %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    row.get("endpoint"), row.get("requests"), row.get("errors"), row.get("dropped"),
+                    row.get("throughputRps"), row.get("p50Ms"), row.get("p90Ms"), row.get("p99Ms"), row.get("maxMs"));
+        }
+    }
+
+    private static void writeReport(LoadTestConfig config, String baseUrl, List<Map<String, Object>> rows) throws Exception {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("finishedAt", Instant.now().toString());
+        report.put("target", baseUrl);
+        report.put("rps", config.rps());
+        report.put("durationSeconds", config.durationSeconds());
+        report.put("mix", config.mix());
+        report.put("aiLatencyMs", config.aiLatencyMs());
+        report.put("aiErrorRate", config.aiErrorRate());
+        report.put("failLanguages", config.failLanguages());
+        report.put("batchStatus", config.batchStatus());
+        report.put("endpoints", rows);
+
+        File file = new File(config.reportFile());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, report);
+        System.out.println("\nReport written to " + file.getAbsolutePath());
+    }
+}
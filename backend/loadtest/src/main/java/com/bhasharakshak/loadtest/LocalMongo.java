@@ -0,0 +1,42 @@
+package com.bhasharakshak.loadtest;
+
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.mongo.transitions.Mongod;
+import de.flapdoodle.embed.mongo.transitions.RunningMongodProcess;
+import de.flapdoodle.reverse.TransitionWalker;
+
+/**
+ * The MongoDB the backend runs against: the one given by {@code mongoUri},
+ * or a throwaway embedded mongod (downloaded on first use) so a run never
+ * touches shared data.
+ */
+final class LocalMongo implements AutoCloseable {
+
+    private final TransitionWalker.ReachedState<RunningMongodProcess> running;
+    private final String uri;
+
+    private LocalMongo(TransitionWalker.ReachedState<RunningMongodProcess> running, String uri) {
+        this.running = running;
+        this.uri = uri;
+    }
+
+    static LocalMongo start(String mongoUri) {
+        if (mongoUri != null && !mongoUri.isBlank()) {
+            return new LocalMongo(null, mongoUri);
+        }
+        TransitionWalker.ReachedState<RunningMongodProcess> running = Mongod.instance().start(Version.Main.V6_0);
+        var address = running.current().getServerAddress();
+        return new LocalMongo(running, "mongodb://" + address.getHost() + ":" + address.getPort() + "/bhasharakshak");
+    }
+
+    String uri() {
+        return uri;
+    }
+
+    @Override
+    public void close() {
+        if (running != null) {
+            running.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bhasharakshak.loadtest;
+
+import com.bhasharakshak.model.LanguageAsset;
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.springframework.data.mongodb.core.MongoTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds the assets collection before the backend starts, so searches and the
+ * dashboard rollups run against a realistically sized archive.
+ */
+final class SeedData {
+
+    static final String[] LANGUAGES = {
+            "Hindi", "Tamil", "Telugu", "Kannada", "Malayalam", "Bengali", "Gujarati", "Marathi", "Khasi", "English" };
+
+    static final String[] CITIES = {
+            "New Delhi", "Chennai", "Hyderabad", "Bengaluru", "Kochi", "Kolkata", "Ahmedabad", "Pune", "Shillong", "Mumbai" };
+
+    static final String[] REGIONS = {
+            "Delhi", "Tamil Nadu", "Telangana", "Karnataka", "Kerala", "West Bengal", "Gujarat", "Maharashtra", "Meghalaya", "Maharashtra" };
+
+    private static final double[][] COORDINATES = {
+            { 28.61, 77.21 }, { 13.08, 80.27 }, { 17.39, 78.49 }, { 12.97, 77.59 }, { 9.93, 76.27 },
+            { 22.57, 88.36 }, { 23.02, 72.57 }, { 18.52, 73.86 }, { 25.58, 91.89 }, { 19.08, 72.88 } };
+
+    private static final String[] WORDS = {
+            "river", "song", "grandmother", "village", "harvest", "festival", "story", "morning", "rain", "water",
+            "नदी", "गाना", "दादी", "गाँव", "फसल", "त्योहार", "कहानी", "सुबह", "बारिश", "पानी",
+            "ஆறு", "பாடல்", "பாட்டி", "கிராமம்", "அறுவடை", "திருவிழா", "கதை", "காலை", "மழை", "தண்ணீர்",
+            "నది", "పాట", "అమ్మమ్మ", "గ్రామం", "పంట", "పండుగ", "కథ", "ఉదయం", "వర్షం", "నీరు" };
+
+    private static final int BATCH_SIZE = 1000;
+
+    private SeedData() {
+    }
+
+    static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    static void seed(String mongoUri, int count) {
+        if (count <= 0) {
+            return;
+        }
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        try (MongoClient client = MongoClients.create(mongoUri)) {
+            MongoTemplate mongoTemplate = new MongoTemplate(client, "bhasharakshak");
+            List<LanguageAsset> batch = new ArrayList<>(BATCH_SIZE);
+            for (int i = 0; i < count; i++) {
+                batch.add(asset(random, now.minusMinutes(random.nextInt(60 * 24 * 365))));
+                if (batch.size() == BATCH_SIZE || i == count - 1) {
+                    mongoTemplate.insert(batch, LanguageAsset.class);
+                    batch.clear();
+                }
+            }
+        }
+        System.out.println("Seeded " + count + " assets");
+    }
+
+    private static LanguageAsset asset(Random random, LocalDateTime createdAt) {
+        int place = random.nextInt(CITIES.length);
+        LanguageAsset asset = new LanguageAsset();
+        asset.setAssetId(UUID.randomUUID().toString());
+        asset.setContributorId("loadtest");
+        asset.setLanguageName(LANGUAGES[random.nextInt(LANGUAGES.length)]);
+        asset.setDialect("Standard");
+        asset.setTranscript(sentence(random, 8 + random.nextInt(40)));
+        asset.setEnglishTranslation(sentence(random, 8));
+        asset.setConsentGiven(true);
+        asset.setConsentTimestamp(createdAt);
+        asset.setRegion(REGIONS[place]);
+        asset.setCity(CITIES[place]);
+        asset.setLatitude(COORDINATES[place][0] + random.nextGaussian() * 0.05);
+        asset.setLongitude(COORDINATES[place][1] + random.nextGaussian() * 0.05);
+        asset.setStatus(random.nextInt(10) == 0 ? "pending" : "verified");
+        asset.setCreatedAt(createdAt);
+        asset.setUpdatedAt(createdAt);
+        return asset;
+    }
+
+    private static String sentence(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(word(random));
+        }
+        return text.toString();
+    }
+}
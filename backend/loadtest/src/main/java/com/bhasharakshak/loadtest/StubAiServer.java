@@ -0,0 +1,157 @@
+package com.bhasharakshak.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Stand-in for the FastAPI AI service with the same routes and response
+ * shapes. Each route waits for its configured latency (plus jitter) and fails
+ * with 503 at the configured error rate, so the app can be measured without
+ * running the real models. Translations to the configured failing languages
+ * fail as the real service's do: a 500 alone, an error item in a batch.
+ */
+final class StubAiServer implements AutoCloseable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+    // A few bytes of "audio"; the app only stores and serves it
+    private static final String AUDIO_BASE64 = Base64.getEncoder().encodeToString(new byte[2048]);
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LoadTestConfig config;
+
+    private StubAiServer(LoadTestConfig config) throws IOException {
+        this.config = config;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 512);
+        this.executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+
+        route("/stt", request -> Map.of("transcript", "stub transcript " + ThreadLocalRandom.current().nextInt(1000)));
+        route("/describe-image", request -> Map.of("description", "A stub description of a heritage image"));
+        route("/tts", request -> Map.of("audio_data", AUDIO_BASE64));
+        route("/translate", request -> {
+            JsonNode item = JSON.readTree(request);
+            if (fails(item)) {
+                throw new StatusException(500, "Stub translation to " + item.path("target_lang").asText() + " failed");
+            }
+            return Map.of("translated_text", translate(item));
+        });
+        route("/translate/batch", request -> {
+            if (config.batchStatus() != 200) {
+                throw new StatusException(config.batchStatus(), "Stub batch endpoint set to fail");
+            }
+            List<Map<String, String>> results = new ArrayList<>();
+            for (JsonNode item : JSON.readTree(request).path("items")) {
+                Map<String, String> result = new HashMap<>();
+                if (fails(item)) {
+                    result.put("translated_text", null);
+                    result.put("error", "Stub translation failed");
+                } else {
+                    result.put("translated_text", translate(item));
+                }
+                results.add(result);
+            }
+            return Map.of("results", results);
+        });
+    }
+
+    static StubAiServer start(LoadTestConfig config) throws IOException {
+        StubAiServer stub = new StubAiServer(config);
+        stub.server.start();
+        return stub;
+    }
+
+    String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private interface Handler {
+        Object handle(byte[] body) throws IOException;
+    }
+
+    // Answered as an error with this status
+    private static final class StatusException extends IOException {
+        private final int status;
+
+        StatusException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    private void route(String path, Handler handler) {
+        server.createContext(path, exchange -> {
+            try {
+                // Exact match only; "/translate" must not also serve "/translate/batch"
+                if (!exchange.getRequestURI().getPath().equals(path)) {
+                    send(exchange, 404, Map.of("detail", "Not Found"));
+                    return;
+                }
+                byte[] body;
+                try (InputStream in = exchange.getRequestBody()) {
+                    body = in.readAllBytes();
+                }
+                simulateLatency(path);
+                if (ThreadLocalRandom.current().nextDouble() < config.aiErrorRate()) {
+                    send(exchange, 503, Map.of("detail", "Injected failure"));
+                    return;
+                }
+                send(exchange, 200, handler.handle(body));
+            } catch (StatusException e) {
+                send(exchange, e.status, Map.of("detail", e.getMessage()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    private void simulateLatency(String path) throws InterruptedException {
+        int base = config.aiLatencyMs().getOrDefault(path, 0);
+        if (base <= 0) {
+            return;
+        }
+        double jitter = 1 + config.aiJitter() * (2 * ThreadLocalRandom.current().nextDouble() - 1);
+        Thread.sleep(Math.max(0, Math.round(base * jitter)));
+    }
+
+    private boolean fails(JsonNode request) {
+        return config.failLanguages().contains(request.path("target_lang").asText().toLowerCase(Locale.ROOT));
+    }
+
+    private static String translate(JsonNode request) {
+        return "[" + request.path("target_lang").asText() + "] " + request.path("text").asText();
+    }
+
+    private static void send(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] json = JSON.writeValueAsBytes(body);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, json.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(json);
+        }
+    }
+}
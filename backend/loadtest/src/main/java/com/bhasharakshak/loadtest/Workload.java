@@ -0,0 +1,145 @@
+package com.bhasharakshak.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The request mix: what each endpoint call looks like and how often it is
+ * made relative to the others.
+ */
+final class Workload {
+
+    static final String DEFAULT_MIX = "upload=5,search=35,searchText=10,stats=20,mapStats=15,tts=15";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final String BOUNDARY = "loadtest-boundary-7d1f";
+    private static final byte[] AUDIO = silentWav(16_000, 1);
+
+    enum Endpoint {
+        UPLOAD("upload"),
+        SEARCH("search"),
+        SEARCH_TEXT("searchText"),
+        STATS("stats"),
+        MAP_STATS("mapStats"),
+        TTS("tts");
+
+        final String key;
+
+        Endpoint(String key) {
+            this.key = key;
+        }
+    }
+
+    private final String baseUrl;
+    private final Endpoint[] wheel; // Endpoints repeated by weight, for weighted random picks
+
+    Workload(String baseUrl, Map<Endpoint, Integer> mix) {
+        this.baseUrl = baseUrl;
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (total <= 0) {
+            throw new IllegalArgumentException("Request mix is empty");
+        }
+        this.wheel = new Endpoint[total];
+        int i = 0;
+        for (Map.Entry<Endpoint, Integer> entry : mix.entrySet()) {
+            for (int n = 0; n < entry.getValue(); n++) {
+                wheel[i++] = entry.getKey();
+            }
+        }
+    }
+
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String part : mix.split(",")) {
+            String[] kv = part.split("=");
+            Endpoint endpoint = null;
+            for (Endpoint candidate : Endpoint.values()) {
+                if (candidate.key.equals(kv[0].trim())) {
+                    endpoint = candidate;
+                }
+            }
+            if (endpoint == null || kv.length != 2) {
+                throw new IllegalArgumentException("Unknown mix entry: " + part);
+            }
+            weights.put(endpoint, Integer.parseInt(kv[1].trim()));
+        }
+        return weights;
+    }
+
+    Endpoint pick(Random random) {
+        return wheel[random.nextInt(wheel.length)];
+    }
+
+    HttpRequest request(Endpoint endpoint, Random random) {
+        String language = SeedData.LANGUAGES[random.nextInt(SeedData.LANGUAGES.length)];
+        return switch (endpoint) {
+            case UPLOAD -> HttpRequest.newBuilder(uri("/api/v1/preservation/upload"))
+                    .timeout(REQUEST_TIMEOUT)
+                    .header("Content-Type", "multipart/form-data; boundary=" + BOUNDARY)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(uploadBody(language, random)))
+                    .build();
+            case SEARCH -> get("/api/v1/search?limit=50&query=" + encode(language.substring(0, 3)));
+            case SEARCH_TEXT -> get("/api/v1/search/text?q=" + encode(SeedData.word(random)));
+            case STATS -> get("/api/v1/stats");
+            case MAP_STATS -> get("/api/v1/map-stats");
+            // A bounded phrase pool, so the TTS cache sees both hits and misses
+            case TTS -> get("/api/v1/tts?lang=hi&text=" + encode("phrase " + random.nextInt(500)));
+        };
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(uri(path)).timeout(REQUEST_TIMEOUT).GET().build();
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] uploadBody(String language, Random random) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(AUDIO.length + 1024);
+        field(body, "language", language);
+        field(body, "dialect", "Standard");
+        field(body, "consent", "true");
+        field(body, "region", SeedData.REGIONS[random.nextInt(SeedData.REGIONS.length)]);
+        field(body, "city", SeedData.CITIES[random.nextInt(SeedData.CITIES.length)]);
+        write(body, "--" + BOUNDARY + "\r\n"
+                + "Content-Disposition: form-data; name=\"file\"; filename=\"loadtest.wav\"\r\n"
+                + "Content-Type: audio/wav\r\n\r\n");
+        body.writeBytes(AUDIO);
+        write(body, "\r\n--" + BOUNDARY + "--\r\n");
+        return body.toByteArray();
+    }
+
+    private static void field(ByteArrayOutputStream body, String name, String value) {
+        write(body, "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n" + value + "\r\n");
+    }
+
+    private static void write(ByteArrayOutputStream body, String text) {
+        body.writeBytes(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 16-bit mono PCM of silence, the size a short voice clip would be
+    private static byte[] silentWav(int sampleRate, int seconds) {
+        int dataLength = sampleRate * 2 * seconds;
+        ByteBuffer wav = ByteBuffer.allocate(44 + dataLength).order(ByteOrder.LITTLE_ENDIAN);
+        wav.put("RIFF".getBytes(StandardCharsets.US_ASCII)).putInt(36 + dataLength)
+                .put("WAVE".getBytes(StandardCharsets.US_ASCII))
+                .put("fmt ".getBytes(StandardCharsets.US_ASCII)).putInt(16).putShort((short) 1).putShort((short) 1)
+                .putInt(sampleRate).putInt(sampleRate * 2).putShort((short) 2).putShort((short) 16)
+                .put("data".getBytes(StandardCharsets.US_ASCII)).putInt(dataLength);
+        return wav.array();
+    }
+}
@@ -2,11 +2,17 @@ package com.bhasharakshak;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BhasharakshakApplication {
 
     public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("export")) {
+            CorpusExportCli.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
         SpringApplication.run(BhasharakshakApplication.class, args);
     }
 }
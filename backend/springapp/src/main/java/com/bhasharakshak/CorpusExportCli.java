@@ -0,0 +1,94 @@
+package com.bhasharakshak;
+
+import com.bhasharakshak.repository.AssetCursor;
+import com.bhasharakshak.service.CorpusExportService;
+import com.bhasharakshak.service.StorageService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Import;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Offline corpus export, run as {@code java -jar app.jar export --out=corpus.tar
+ * [--format=tar|jsonl] [--language=..] [--region=..] [--from=yyyy-mm-dd]
+ * [--to=yyyy-mm-dd] [--after=cursor]}. Starts only MongoDB and the export,
+ * without the web server, workers or schedulers; other {@code --spring...}
+ * arguments configure it as usual.
+ */
+public final class CorpusExportCli {
+
+    private CorpusExportCli() {
+    }
+
+    // Not component-scanned (no @Configuration), so the web app never picks it up
+    @EnableAutoConfiguration
+    @Import({ CorpusExportService.class, StorageService.class })
+    static class ExportContext {
+    }
+
+    public static void main(String[] args) {
+        int status;
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(ExportContext.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .run(args)) {
+            status = SpringApplication.exit(context, () -> run(context));
+        }
+        System.exit(status);
+    }
+
+    private static int run(ConfigurableApplicationContext context) {
+        ApplicationArguments arguments = context.getBean(ApplicationArguments.class);
+        String out = option(arguments, "out");
+        String format = option(arguments, "format");
+        boolean tar = format != null ? "tar".equalsIgnoreCase(format) : out != null && out.endsWith(".tar");
+        if (out == null || (format != null && !tar && !"jsonl".equalsIgnoreCase(format))) {
+            System.err.println("Usage: export --out=<file> [--format=tar|jsonl] [--language=<name>] [--region=<name>]"
+                    + " [--from=yyyy-mm-dd] [--to=yyyy-mm-dd] [--after=<cursor>]");
+            return 2;
+        }
+
+        try {
+            String from = option(arguments, "from");
+            String to = option(arguments, "to");
+            String after = option(arguments, "after");
+            CorpusExportService.Filter filter = new CorpusExportService.Filter(
+                    option(arguments, "language"),
+                    option(arguments, "region"),
+                    from != null ? LocalDate.parse(from) : null,
+                    to != null ? LocalDate.parse(to) : null,
+                    after != null ? AssetCursor.decode(after) : null);
+
+            CorpusExportService exportService = context.getBean(CorpusExportService.class);
+            CorpusExportService.Summary summary;
+            try (OutputStream stream = new BufferedOutputStream(Files.newOutputStream(Path.of(out)), 64 * 1024)) {
+                summary = tar ? exportService.writeTar(filter, stream) : exportService.writeJsonl(filter, stream);
+            }
+            System.err.println("Exported " + summary.assets() + " assets (" + summary.audioFiles()
+                    + " audio files) to " + out);
+            if (summary.lastCursor() != null) {
+                System.err.println("To continue from here later: --after=" + summary.lastCursor());
+            }
+            return 0;
+        } catch (Exception e) {
+            System.err.println("Export failed: " + e.getMessage());
+            e.printStackTrace();
+            return 1;
+        }
+    }
+
+    private static String option(ApplicationArguments arguments, String name) {
+        List<String> values = arguments.getOptionValues(name);
+        return values == null || values.isEmpty() ? null : values.get(values.size() - 1);
+    }
+}
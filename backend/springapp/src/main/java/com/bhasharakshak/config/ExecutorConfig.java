@@ -0,0 +1,59 @@
+package com.bhasharakshak.config;
+
+import com.bhasharakshak.tracing.Tracing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExecutorConfig {
+
+    /**
+     * Threads that consume the branches of a streaming upload (GridFS writer,
+     * AI multipart request). The request thread itself pumps the upload, and
+     * its trace goes with each task. There is no queue: a branch waiting in
+     * one would stall the pump, and so the branches already running, so a
+     * submit with every thread busy is rejected and the upload is handled
+     * without streaming instead.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor ingestExecutor(@Value("${app.ingest.threads:16}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("ingest-");
+        executor.setTaskDecorator(Tracing::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Threads that run claimed STT jobs; one per worker slot.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor transcriptionExecutor(@Value("${app.transcription.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setThreadNamePrefix("transcription-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Threads that send coalesced translation batches; the pool size is the
+     * limit on batches in flight, and a full queue fails the waiting callers.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor translationBatchExecutor(@Value("${app.translation.coalesce.senders:4}") int senders) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(senders);
+        executor.setMaxPoolSize(senders);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("translation-batch-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bhasharakshak.controller;
+
+import com.bhasharakshak.service.AiClientPool;
+import com.bhasharakshak.service.CircuitBreaker;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Endpoints that let AI failures propagate (e.g. /api/v1/tts) answer 503
+ * instead of 500 when the call was refused before reaching the AI service.
+ */
+@RestControllerAdvice
+public class AiUnavailableAdvice {
+
+    @ExceptionHandler(CircuitBreaker.CircuitOpenException.class)
+    public ResponseEntity<Map<String, String>> circuitOpen(CircuitBreaker.CircuitOpenException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", String.valueOf(Math.max(1, (e.getRetryAfterMillis() + 999) / 1000)))
+                .body(Map.of("error", "AI Service Unavailable"));
+    }
+
+    @ExceptionHandler(AiClientPool.BulkheadFullException.class)
+    public ResponseEntity<Map<String, String>> bulkheadFull(AiClientPool.BulkheadFullException e) {
+        return ResponseEntity.status(503)
+                .header("Retry-After", "1")
+                .body(Map.of("error", "AI Service Busy"));
+    }
+}
@@ -0,0 +1,130 @@
+package com.bhasharakshak.controller;
+
+import com.bhasharakshak.model.ImportBatch;
+import com.bhasharakshak.service.BulkImportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bulk import of field recordings. Create a batch with the manifest and
+ * defaults, then PUT the ZIP/TAR archive as the raw request body; the reply
+ * is one JSON line per item as it is imported, then a summary line. If the
+ * import breaks off, PUT the archive again to import what is left.
+ */
+@RestController
+@RequestMapping("/api/v1/preservation/imports")
+@RequiredArgsConstructor
+public class BulkImportController {
+
+    private final BulkImportService importService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping
+    public ResponseEntity<?> createBatch(
+            @RequestParam(value = "manifest", required = false) MultipartFile manifest,
+            @RequestParam(value = "language", required = false) String language,
+            @RequestParam(value = "dialect", required = false) String dialect,
+            @RequestParam(value = "targetLanguage", defaultValue = "English") String targetLanguage,
+            @RequestParam(value = "region", required = false) String region,
+            @RequestParam(value = "city", required = false) String city,
+            @RequestParam(value = "consent", defaultValue = "false") boolean consent) {
+        List<ImportBatch.Item> items = List.of();
+        if (manifest != null && !manifest.isEmpty()) {
+            try {
+                items = importService.parseManifest(manifest.getOriginalFilename(), manifest.getInputStream());
+            } catch (IOException e) {
+                return ResponseEntity.badRequest().body(Map.of("error", "Invalid manifest: " + e.getMessage()));
+            }
+        }
+
+        ImportBatch batch = new ImportBatch();
+        batch.setLanguage(language);
+        batch.setDialect(dialect);
+        batch.setTargetLanguage(targetLanguage);
+        batch.setRegion(region);
+        batch.setCity(city);
+        batch.setConsent(consent);
+        return ResponseEntity.ok(importService.createBatch(batch, items));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getBatch(@PathVariable String id) {
+        return importService.find(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Streams the archive in the request body (ZIP, TAR or .tar.gz) into
+     * the batch and answers with NDJSON progress.
+     */
+    @PutMapping("/{id}/archive")
+    public void importArchive(@PathVariable String id, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (importService.find(id).isEmpty()) {
+            response.sendError(404);
+            return;
+        }
+        Optional<ImportBatch> claimed = importService.claim(id);
+        if (claimed.isEmpty()) {
+            response.setStatus(409);
+            response.setContentType("application/json");
+            objectMapper.writeValue(response.getWriter(), Map.of("error", "An archive is already being imported into this batch"));
+            return;
+        }
+
+        String fileUrlPrefix = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/preservation/files/")
+                .toUriString();
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        PrintWriter out = response.getWriter();
+
+        ImportBatch batch = claimed.get();
+        try {
+            importService.importArchive(batch, request.getInputStream(), fileUrlPrefix, item -> {
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("file", item.getFile());
+                line.put("status", item.getStatus());
+                line.put("assetId", item.getAssetId());
+                line.put("error", item.getError());
+                writeLine(out, line);
+            });
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("batchId", batch.getId());
+        summary.put("status", batch.getStatus());
+        summary.put("imported", batch.getImported());
+        summary.put("failed", batch.getFailed());
+        summary.put("pending", batch.getItems().size() - batch.getImported() - batch.getFailed());
+        summary.put("error", batch.getLastError());
+        writeLine(out, summary);
+    }
+
+    private void writeLine(PrintWriter out, Map<String, Object> line) {
+        try {
+            out.write(objectMapper.writeValueAsString(line));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        out.write('\n');
+        out.flush();
+    }
+}
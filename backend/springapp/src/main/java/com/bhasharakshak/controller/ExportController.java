@@ -0,0 +1,66 @@
+package com.bhasharakshak.controller;
+
+import com.bhasharakshak.repository.AssetCursor;
+import com.bhasharakshak.service.CorpusExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/v1/export")
+@RequiredArgsConstructor
+public class ExportController {
+
+    private final CorpusExportService exportService;
+
+    /**
+     * The verified public corpus, oldest first: JSONL ({@code format=jsonl})
+     * or a tar with each asset's JSON and audio ({@code format=tar}). Written
+     * on the request thread as it is read, so there is no async timeout and
+     * no size limit. To resume, pass the {@code cursor} of the last record
+     * received as {@code after}.
+     */
+    @GetMapping("/corpus")
+    public void exportCorpus(
+            @RequestParam(value = "format", defaultValue = "jsonl") String format,
+            @RequestParam(value = "language", required = false) String language,
+            @RequestParam(value = "region", required = false) String region,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(value = "after", required = false) String after,
+            HttpServletResponse response) throws IOException {
+        boolean tar = "tar".equalsIgnoreCase(format);
+        if (!tar && !"jsonl".equalsIgnoreCase(format)) {
+            response.sendError(400, "format must be jsonl or tar");
+            return;
+        }
+        AssetCursor cursor;
+        try {
+            cursor = after == null || after.isEmpty() ? null : AssetCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            response.sendError(400, "Invalid cursor");
+            return;
+        }
+
+        CorpusExportService.Filter filter = new CorpusExportService.Filter(language, region, from, to, cursor);
+        response.setContentType(tar ? "application/x-tar" : "application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"corpus." + (tar ? "tar" : "jsonl") + "\"");
+
+        OutputStream out = new BufferedOutputStream(response.getOutputStream(), 64 * 1024);
+        if (tar) {
+            exportService.writeTar(filter, out);
+        } else {
+            exportService.writeJsonl(filter, out);
+        }
+        out.flush();
+    }
+}
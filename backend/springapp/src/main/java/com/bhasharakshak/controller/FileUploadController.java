@@ -1,20 +1,39 @@
 package com.bhasharakshak.controller;
 
+import com.bhasharakshak.event.AssetChangedEvent;
 import com.bhasharakshak.model.LanguageAsset;
 import com.bhasharakshak.repository.AssetRepository;
-import com.bhasharakshak.service.AIService;
+import com.bhasharakshak.service.AudioTranscodeService;
+import com.bhasharakshak.service.ImageDerivativeService;
+import com.bhasharakshak.service.ProfanityFilter;
 import com.bhasharakshak.service.StorageService;
-// import com.bhasharakshak.service.ProfanityFilter;
+import com.bhasharakshak.service.TranscriptionQueue;
+import com.bhasharakshak.tracing.Tracing;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.core.io.Resource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 import org.springframework.data.mongodb.gridfs.GridFsResource;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import org.bson.BsonValue;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1/preservation")
@@ -22,9 +41,12 @@ import java.util.UUID;
 public class FileUploadController {
 
     private final StorageService storageService;
-    private final AIService aiService;
+    private final AudioTranscodeService audioTranscodeService;
+    private final TranscriptionQueue transcriptionQueue;
     private final AssetRepository assetRepository;
-    // private final ProfanityFilter profanityFilter;
+    private final ApplicationEventPublisher events;
+    private final ProfanityFilter profanityFilter;
+    private final ImageDerivativeService imageDerivativeService;
 
     @PostMapping("/upload")
     public ResponseEntity<?> uploadAudio(
@@ -55,48 +77,28 @@ public class FileUploadController {
                 return ResponseEntity.badRequest().body("Consent is mandatory for public contributions.");
             }
 
-            // TODO: Re-enable profanity filter after backend restart
             // Validate: Check for profanity in language name and dialect
-            // if (profanityFilter.containsProfanity(language)) {
-            // return ResponseEntity.badRequest().body("Language name contains inappropriate
-            // content.");
-            // }
-            // if (profanityFilter.containsProfanity(dialect)) {
-            // return ResponseEntity.badRequest().body("Dialect contains inappropriate
-            // content.");
-            // }
-
-            // 1. Store File (Returns GridFS ID)
-            String fileId = storageService.storeFile(file);
-            String fileUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
-                    .path("/api/v1/preservation/files/")
-                    .path(java.util.Objects.requireNonNull(fileId))
-                    .toUriString();
-
-            // 2. Perform STT (Safe execution)
-            String transcript;
-            try {
-                transcript = aiService.transcribeAudio(file, language);
-
-                // Validate transcript for profanity
-                // if (profanityFilter.containsProfanity(transcript)) {
-                // return ResponseEntity.badRequest()
-                // .body("Audio transcript contains inappropriate content. Please re-record.");
-                // }
-            } catch (Exception ex) {
-                System.err.println("AI Service unavailable: " + ex.getMessage());
-                transcript = "Transcription unavailable (AI Service down)";
+            if (profanityFilter.containsProfanity(language)) {
+                return ResponseEntity.badRequest().body("Language name contains inappropriate content.");
+            }
+            if (profanityFilter.containsProfanity(dialect)) {
+                return ResponseEntity.badRequest().body("Dialect contains inappropriate content.");
             }
 
-            // 3. Create Asset
+            // 1. Store File (Returns GridFS IDs; WAV is stored as FLAC)
+            AudioTranscodeService.StoredAudio stored = Tracing.timed("store", () -> audioTranscodeService.store(file));
+            String fileId = stored.fileId();
+
+            // 2. Create Asset
             LanguageAsset asset = new LanguageAsset();
             asset.setAssetId(UUID.randomUUID().toString());
             asset.setContributorId("ANON-" + UUID.randomUUID().toString().substring(0, 8));
             asset.setLanguageName(language);
             asset.setDialect(dialect);
             asset.setTargetLanguage(targetLanguage);
-            asset.setAudioUrl(fileUrl);
-            asset.setTranscript(transcript);
+            asset.setAudioUrl(fileUrl(fileId));
+            asset.setArchiveAudioUrl(fileUrl(stored.archiveFileId()));
+            asset.setOriginalAudioUrl(fileUrl(stored.originalFileId()));
             asset.setConsentGiven(consent);
             asset.setConsentTimestamp(LocalDateTime.now());
             asset.setRegion(region);
@@ -106,12 +108,25 @@ public class FileUploadController {
             asset.setPrivate(isPrivate);
             asset.setUserId(isPrivate ? userId : null);
 
-            // Status: private assets don't need verification
-            asset.setStatus(isPrivate ? "private" : "pending");
+            // Status: "transcribing" until a worker fills in the transcript, then
+            // "private" (no verification needed) or "pending"
+            asset.setStatus("transcribing");
             asset.setCreatedAt(LocalDateTime.now());
             asset.setUpdatedAt(LocalDateTime.now());
 
-            assetRepository.save(asset);
+            Tracing.timed("persist", () -> assetRepository.save(asset));
+            Tracing.timed("events", () -> events.publishEvent(AssetChangedEvent.created(asset)));
+
+            // 3. Queue STT; any backend node's TranscriptionWorker may pick it up
+            try {
+                Tracing.timed("enqueue", () -> transcriptionQueue.enqueue(asset.getAssetId(), fileId, language));
+            } catch (RuntimeException e) {
+                // Without a job nothing would ever move the asset out of "transcribing"
+                assetRepository.deleteById(asset.getAssetId());
+                events.publishEvent(AssetChangedEvent.deleted(asset));
+                audioTranscodeService.release(stored);
+                throw e;
+            }
 
             return ResponseEntity.ok(asset);
 
@@ -125,11 +140,139 @@ public class FileUploadController {
         }
     }
 
+    private static String fileUrl(String fileId) {
+        if (fileId == null) {
+            return null;
+        }
+        return ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/v1/preservation/files/")
+                .path(fileId)
+                .toUriString();
+    }
+
+    /**
+     * Serve a stored file. GridFS files never change after upload, so the
+     * ObjectId is a strong ETag and responses may be cached forever. A single
+     * range is answered with 206; the GridFS download stream's skip jumps
+     * straight to the chunk holding the first requested byte, so earlier
+     * chunks are never fetched. A request for several ranges gets the whole
+     * file (RFC 9110 lets a server ignore Range; players ask for one).
+     */
     @GetMapping("/files/{id}")
-    public ResponseEntity<Resource> getFile(@PathVariable String id) {
-        GridFsResource resource = storageService.getFile(id);
-        return ResponseEntity.ok()
-                .contentType(org.springframework.http.MediaType.parseMediaType(resource.getContentType()))
-                .body(resource);
+    public ResponseEntity<?> getFile(
+            @PathVariable String id,
+            @RequestHeader HttpHeaders requestHeaders,
+            WebRequest webRequest) {
+        return serve(storageService.getFile(id), id, requestHeaders, webRequest);
+    }
+
+    /**
+     * A smaller rendition of a stored image ({@code thumb} or {@code medium}),
+     * made on the first request if the upload did not make it; served like
+     * {@link #getFile}.
+     */
+    @GetMapping("/files/{id}/{size}")
+    public ResponseEntity<?> getImageSize(
+            @PathVariable String id,
+            @PathVariable String size,
+            @RequestHeader HttpHeaders requestHeaders,
+            WebRequest webRequest) {
+        if (!imageDerivativeService.isVariant(size)) {
+            return ResponseEntity.notFound().build();
+        }
+        return serve(imageDerivativeService.get(id, size), id + "/" + size, requestHeaders, webRequest);
+    }
+
+    private ResponseEntity<?> serve(
+            GridFsResource resource,
+            String id,
+            HttpHeaders requestHeaders,
+            WebRequest webRequest) {
+        GridFSFile gridFile = resource.getGridFSFile();
+        BsonValue fileId = gridFile.getId();
+        String etag = "\"" + (fileId.isObjectId() ? fileId.asObjectId().getValue().toHexString() : id) + "\"";
+        long lastModified = gridFile.getUploadDate().getTime();
+        long length = gridFile.getLength();
+
+        // If-None-Match / If-Modified-Since: answers 304 without opening the file
+        if (webRequest.checkNotModified(etag, lastModified)) {
+            return null;
+        }
+
+        MediaType contentType = MediaType.parseMediaType(resource.getContentType());
+        CacheControl immutable = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+        long first = 0;
+        long last = length - 1;
+        boolean partial = false;
+        try {
+            List<HttpRange> ranges = requestHeaders.getRange();
+            if (ranges.size() == 1) {
+                first = ranges.get(0).getRangeStart(length);
+                last = ranges.get(0).getRangeEnd(length);
+                partial = true;
+                if (first >= length) {
+                    throw new IllegalArgumentException("Range starts after the end of the file");
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(partial ? HttpStatus.PARTIAL_CONTENT : HttpStatus.OK)
+                .contentType(contentType)
+                .contentLength(last - first + 1)
+                .eTag(etag)
+                .lastModified(lastModified)
+                .cacheControl(immutable)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (partial) {
+            response.header(HttpHeaders.CONTENT_RANGE, "bytes " + first + "-" + last + "/" + length);
+        }
+
+        // A plain InputStreamResource: Spring would range a GridFsResource body again by itself
+        try {
+            InputStream content = resource.getInputStream();
+            content.skipNBytes(first);
+            return response.body(new InputStreamResource(new RangeInputStream(content, last - first + 1)));
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not read file " + id, ex);
+        }
+    }
+
+    // Ends after {@code remaining} bytes of the underlying stream
+    private static final class RangeInputStream extends FilterInputStream {
+        private long remaining;
+
+        RangeInputStream(InputStream in, long remaining) {
+            super(in);
+            this.remaining = remaining;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = super.read();
+            if (b >= 0) {
+                remaining--;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = super.read(b, off, (int) Math.min(len, remaining));
+            if (n > 0) {
+                remaining -= n;
+            }
+            return n;
+        }
     }
 }
@@ -1,5 +1,10 @@
 package com.bhasharakshak.controller;
 
+import com.bhasharakshak.service.AIService;
+import com.bhasharakshak.service.AiClientPool;
+import com.bhasharakshak.service.TranslationCache;
+import com.bhasharakshak.service.TtsCache;
+import com.bhasharakshak.service.search.FullTextSearchService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.http.ResponseEntity;
@@ -7,12 +12,19 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.Map;
+
 @RestController
 @RequestMapping("/api/v1/health")
 @RequiredArgsConstructor
 public class HealthController {
 
     private final MongoTemplate mongoTemplate;
+    private final TranslationCache translationCache;
+    private final TtsCache ttsCache;
+    private final FullTextSearchService fullTextSearchService;
+    private final AiClientPool aiClientPool;
+    private final AIService aiService;
 
     @GetMapping
     public ResponseEntity<String> checkHealth() {
@@ -24,4 +36,29 @@ public class HealthController {
             return ResponseEntity.internalServerError().body("MongoDB Connection Failed: " + e.getMessage());
         }
     }
+
+    @GetMapping("/translation-cache")
+    public ResponseEntity<Map<String, Object>> translationCacheStats() {
+        return ResponseEntity.ok(translationCache.stats());
+    }
+
+    @GetMapping("/tts-cache")
+    public ResponseEntity<Map<String, Object>> ttsCacheStats() {
+        return ResponseEntity.ok(ttsCache.stats());
+    }
+
+    @GetMapping("/search-index")
+    public ResponseEntity<Map<String, Object>> searchIndexStats() {
+        return ResponseEntity.ok(fullTextSearchService.stats());
+    }
+
+    @GetMapping("/ai-client")
+    public ResponseEntity<Map<String, Object>> aiClientStats() {
+        return ResponseEntity.ok(aiClientPool.stats());
+    }
+
+    @GetMapping("/translation-coalescer")
+    public ResponseEntity<Map<String, Object>> translationCoalescerStats() {
+        return ResponseEntity.ok(aiService.coalescerStats());
+    }
 }
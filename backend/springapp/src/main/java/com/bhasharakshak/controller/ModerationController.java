@@ -0,0 +1,61 @@
+package com.bhasharakshak.controller;
+
+import com.bhasharakshak.service.ProfanityFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/moderation/lexicons")
+@RequiredArgsConstructor
+public class ModerationController {
+
+    private final ProfanityFilter profanityFilter;
+
+    @Value("${app.admin-pin}")
+    private String adminPin;
+
+    @GetMapping
+    public ResponseEntity<?> getLexicons() {
+        return ResponseEntity.ok(describe(profanityFilter.getLexicons()));
+    }
+
+    /**
+     * Re-read all lexicon sources now instead of waiting for the scheduled
+     * refresh. Answers with the version that is live afterwards.
+     */
+    @PostMapping("/reload")
+    public ResponseEntity<?> reload(@RequestHeader(value = "X-Admin-Pin", required = false) String pin) {
+        if (pin == null || !java.util.Objects.equals(pin, adminPin)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Invalid Admin PIN"));
+        }
+        return ResponseEntity.ok(describe(profanityFilter.reload()));
+    }
+
+    @PostMapping("/{language}/words")
+    public ResponseEntity<?> addWords(
+            @PathVariable String language,
+            @RequestBody Map<String, List<String>> payload,
+            @RequestHeader(value = "X-Admin-Pin", required = false) String pin) {
+        if (pin == null || !java.util.Objects.equals(pin, adminPin)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Invalid Admin PIN"));
+        }
+
+        List<String> words = payload.get("words");
+        if (words == null || words.isEmpty()) {
+            return ResponseEntity.badRequest().body(Map.of("error", "No words given"));
+        }
+        return ResponseEntity.ok(describe(profanityFilter.addWords(language, words)));
+    }
+
+    private static Map<String, Object> describe(ProfanityFilter.Lexicons lexicons) {
+        return Map.of(
+                "version", lexicons.version(),
+                "loadedAt", lexicons.loadedAt().toString(),
+                "languages", lexicons.wordCounts());
+    }
+}
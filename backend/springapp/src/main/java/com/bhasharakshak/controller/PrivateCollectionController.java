@@ -1,8 +1,12 @@
 package com.bhasharakshak.controller;
 
+import com.bhasharakshak.event.AssetChangedEvent;
+import com.bhasharakshak.event.AssetSnapshot;
 import com.bhasharakshak.model.LanguageAsset;
 import com.bhasharakshak.repository.AssetRepository;
+import com.bhasharakshak.service.StorageService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -20,6 +24,8 @@ import java.util.stream.Collectors;
 public class PrivateCollectionController {
 
     private final AssetRepository assetRepository;
+    private final ApplicationEventPublisher events;
+    private final StorageService storageService;
 
     /**
      * Get all private collections for a specific user
@@ -103,6 +109,8 @@ public class PrivateCollectionController {
         }
 
         assetRepository.deleteById(id);
+        events.publishEvent(AssetChangedEvent.deleted(asset));
+        storageService.release(StorageService.fileIdOf(asset.getAudioUrl()));
 
         return ResponseEntity.ok(Map.of(
                 "message", "Asset deleted successfully",
@@ -136,12 +144,14 @@ public class PrivateCollectionController {
         }
 
         // Convert to public
+        AssetSnapshot before = AssetSnapshot.of(asset);
         asset.setPrivate(false);
         asset.setConsentGiven(true);
         asset.setStatus("pending"); // Needs verification
         asset.setUpdatedAt(LocalDateTime.now());
 
         assetRepository.save(asset);
+        events.publishEvent(AssetChangedEvent.updated(before, asset));
 
         return ResponseEntity.ok(Map.of(
                 "message", "Asset is now public and pending verification",
@@ -1,65 +1,111 @@
 package com.bhasharakshak.controller;
 
 import com.bhasharakshak.model.LanguageAsset;
+import com.bhasharakshak.repository.AssetCursor;
 import com.bhasharakshak.repository.AssetRepository;
-import com.bhasharakshak.service.AIService;
+import com.bhasharakshak.service.AssetStatsService;
+import com.bhasharakshak.service.GeoAggregationService;
+import com.bhasharakshak.service.TtsCache;
+import com.bhasharakshak.service.search.FullTextSearchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/api/v1")
 @RequiredArgsConstructor
 public class SearchController {
 
-    private final AssetRepository assetRepository;
-    private final AIService aiService;
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
 
+    private final AssetRepository assetRepository;
+    private final TtsCache ttsCache;
+    private final FullTextSearchService fullTextSearchService;
+    private final AssetStatsService assetStatsService;
+    private final GeoAggregationService geoAggregationService;
+
+    @Value("${app.search.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${app.search.max-page-size:200}")
+    private int maxPageSize;
+
+    /**
+     * One page of assets, newest first (grouped by language when searching by
+     * language name). The body is the page itself; when more results exist the
+     * token for the next page is returned in the X-Next-Cursor header.
+     */
     @GetMapping("/search")
-    public ResponseEntity<List<LanguageAsset>> searchAssets(
+    public ResponseEntity<?> searchAssets(
             @RequestParam(required = false) String query,
-            @RequestParam(required = false, defaultValue = "false") boolean includeAll) {
-
-        List<LanguageAsset> results;
-
-        if (query == null || query.isEmpty()) {
-            results = assetRepository.findAll();
-        } else {
-            results = assetRepository.findByLanguageNameContainingIgnoreCase(query);
+            @RequestParam(required = false, defaultValue = "false") boolean includeAll,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+
+        AssetCursor after;
+        try {
+            after = cursor == null || cursor.isEmpty() ? null : AssetCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid cursor"));
         }
+        int pageSize = Math.max(1, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
 
-        // Filter to only verified AND public assets unless includeAll is true (for
-        // admin purposes)
-        if (!includeAll) {
-            results = results.stream()
-                    .filter(asset -> "verified".equalsIgnoreCase(asset.getStatus()))
-                    .filter(asset -> !asset.isPrivate()) // Exclude private collections
-                    .collect(java.util.stream.Collectors.toList());
+        // Only verified AND public assets unless includeAll is true (for admin purposes);
+        // fetch one extra to learn whether there is a next page
+        List<LanguageAsset> results = assetRepository.searchPage(query, includeAll, after, pageSize + 1);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (results.size() > pageSize) {
+            results = results.subList(0, pageSize);
+            response.header(NEXT_CURSOR_HEADER, AssetCursor.after(results.get(pageSize - 1)).encode());
         }
+        return response.body(results);
+    }
 
-        return ResponseEntity.ok(results);
+    /**
+     * Full-text search over transcripts and English translations of verified
+     * public assets, best match first.
+     */
+    @GetMapping("/search/text")
+    public ResponseEntity<List<LanguageAsset>> searchText(
+            @RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        int size = Math.max(1, Math.min(limit != null ? limit : defaultPageSize, maxPageSize));
+        return ResponseEntity.ok(fullTextSearchService.search(q, size));
     }
 
     @GetMapping("/tts")
     public ResponseEntity<?> generateTTS(@RequestParam String text, @RequestParam(defaultValue = "en") String lang) {
-        String audioData = aiService.generateSpeech(text, lang);
+        String audioData = ttsCache.getBase64(text, lang);
         return ResponseEntity.ok(Map.of("audioData", audioData));
     }
 
+    /**
+     * Same audio as /tts, streamed straight from the disk cache instead of
+     * inlined as base64.
+     */
+    @GetMapping("/tts/audio")
+    public ResponseEntity<Resource> streamTTS(@RequestParam String text, @RequestParam(defaultValue = "en") String lang) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("audio/mpeg"))
+                .cacheControl(CacheControl.maxAge(1, TimeUnit.DAYS).cachePublic())
+                .body(new FileSystemResource(ttsCache.get(text, lang)));
+    }
+
     @GetMapping("/stats")
     public ResponseEntity<?> getStats() {
-        List<LanguageAsset> allAssets = assetRepository.findAll();
-
-        long totalAssets = allAssets.size();
-        // Determine active languages (count by languageName)
-        Map<String, Long> languageDistribution = allAssets.stream()
-                .filter(asset -> asset.getLanguageName() != null)
-                .collect(java.util.stream.Collectors.groupingBy(
-                        LanguageAsset::getLanguageName,
-                        java.util.stream.Collectors.counting()));
+        // Constant-size read from the asset_stats rollup
+        Map<String, Object> summary = assetStatsService.summary();
+        long totalAssets = (Long) summary.get("totalAssets");
 
         // Simple mock-ish calculation for hours based on standard length (e.g. 10s per
         // clip)
@@ -68,77 +114,38 @@ public class SearchController {
         return ResponseEntity.ok(Map.of(
                 "totalHours", String.format("%.2f", totalHours),
                 "totalAssets", totalAssets,
-                "languageCount", languageDistribution.size(),
-                "distribution", languageDistribution.entrySet().stream()
-                        .map(e -> Map.of("name", e.getKey(), "value", e.getValue()))
-                        .sorted((a, b) -> {
-                            long valA = ((Number) a.get("value")).longValue();
-                            long valB = ((Number) b.get("value")).longValue();
-                            return Long.compare(valB, valA);
-                        })
-                        .limit(5)
-                        .collect(java.util.stream.Collectors.toList())));
+                "languageCount", summary.get("languageCount"),
+                "distribution", summary.get("distribution"),
+                "languages", summary.get("languages")));
     }
 
     @GetMapping("/map-stats")
     public ResponseEntity<?> getMapStats() {
-        List<LanguageAsset> allAssets = assetRepository.findAll();
-
-        // Group by city and count contributions
-        Map<String, Map<String, Object>> cityStats = new java.util.HashMap<>();
-
-        for (LanguageAsset asset : allAssets) {
-            String city = asset.getCity();
-            String region = asset.getRegion();
-
-            // Skip if no city/region data
-            if (city == null || city.isEmpty())
-                continue;
-
-            String key = city + "|" + (region != null ? region : "Unknown");
-
-            if (!cityStats.containsKey(key)) {
-                Map<String, Object> stats = new java.util.HashMap<>();
-                stats.put("city", city);
-                stats.put("region", region != null ? region : "Unknown");
-                stats.put("count", 1);
-                stats.put("languages", new java.util.HashSet<String>());
-
-                // Add coordinates if available
-                if (asset.getLatitude() != null && asset.getLongitude() != null) {
-                    stats.put("latitude", asset.getLatitude());
-                    stats.put("longitude", asset.getLongitude());
-                }
-
-                cityStats.put(key, stats);
-            } else {
-                Map<String, Object> stats = cityStats.get(key);
-                stats.put("count", (Integer) stats.get("count") + 1);
-            }
-
-            // Track languages
-            if (asset.getLanguageName() != null) {
-                @SuppressWarnings("unchecked")
-                java.util.Set<String> languages = (java.util.Set<String>) cityStats.get(key).get("languages");
-                languages.add(asset.getLanguageName());
-            }
-        }
-
-        // Convert to list and format
-        List<Map<String, Object>> result = cityStats.values().stream()
-                .map(stats -> {
-                    @SuppressWarnings("unchecked")
-                    java.util.Set<String> languages = (java.util.Set<String>) stats.get("languages");
-                    stats.put("primaryLanguage", languages.isEmpty() ? "Unknown" : languages.iterator().next());
-                    stats.remove("languages"); // Remove the set, keep only primary language
-                    return stats;
-                })
-                .sorted((a, b) -> Integer.compare((Integer) b.get("count"), (Integer) a.get("count")))
-                .collect(java.util.stream.Collectors.toList());
+        // Read from the city_stats rollup; primaryLanguage is the most frequent language
+        List<Map<String, Object>> result = geoAggregationService.cities();
 
         return ResponseEntity.ok(Map.of(
                 "cities", result,
                 "totalCities", result.size(),
                 "lastUpdated", java.time.LocalDateTime.now().toString()));
     }
+
+    /**
+     * Clustered contribution points inside a map viewport, for the given map
+     * zoom level.
+     */
+    @GetMapping("/map-clusters")
+    public ResponseEntity<?> getMapClusters(
+            @RequestParam double south,
+            @RequestParam double west,
+            @RequestParam double north,
+            @RequestParam double east,
+            @RequestParam int zoom) {
+        if (south > north || west > east) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Invalid bounding box"));
+        }
+        return ResponseEntity.ok(Map.of(
+                "clusters", geoAggregationService.clusters(south, west, north, east, zoom),
+                "zoom", zoom));
+    }
 }
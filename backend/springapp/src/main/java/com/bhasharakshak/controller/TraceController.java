@@ -0,0 +1,76 @@
+package com.bhasharakshak.controller;
+
+import com.bhasharakshak.tracing.RequestTrace;
+import com.bhasharakshak.tracing.SlowRequestLog;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/admin/slow-requests")
+@RequiredArgsConstructor
+public class TraceController {
+
+    private final SlowRequestLog slowRequestLog;
+
+    @Value("${app.admin-pin}")
+    private String adminPin;
+
+    /**
+     * Slow requests with their stage breakdown: the slowest of the last
+     * window ({@code order=slowest}) or the latest ones ({@code order=recent}).
+     */
+    @GetMapping
+    public ResponseEntity<?> list(
+            @RequestParam(value = "order", defaultValue = "slowest") String order,
+            @RequestParam(value = "limit", defaultValue = "20") int limit,
+            @RequestHeader(value = "X-Admin-Pin", required = false) String pin) {
+        if (pin == null || !java.util.Objects.equals(pin, adminPin)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Invalid Admin PIN"));
+        }
+
+        int max = Math.max(1, limit);
+        List<RequestTrace> traces = "recent".equalsIgnoreCase(order)
+                ? slowRequestLog.recent(max)
+                : slowRequestLog.slowest(max);
+        return ResponseEntity.ok(Map.of(
+                "stats", slowRequestLog.stats(),
+                "requests", traces.stream().map(TraceController::describe).toList()));
+    }
+
+    @DeleteMapping
+    public ResponseEntity<?> clear(@RequestHeader(value = "X-Admin-Pin", required = false) String pin) {
+        if (pin == null || !java.util.Objects.equals(pin, adminPin)) {
+            return ResponseEntity.status(403).body(Map.of("error", "Invalid Admin PIN"));
+        }
+        slowRequestLog.clear();
+        return ResponseEntity.ok().build();
+    }
+
+    private static Map<String, Object> describe(RequestTrace trace) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("traceId", trace.getTraceId());
+        entry.put("method", trace.getMethod());
+        entry.put("path", trace.getPath());
+        entry.put("status", trace.getStatus());
+        entry.put("startedAt", trace.getStartedAt().toString());
+        entry.put("durationMs", trace.getDurationNanos() / 1_000_000.0);
+        entry.put("stages", trace.getStages().stream().map(stage -> {
+            Map<String, Object> described = new LinkedHashMap<>();
+            described.put("name", stage.name());
+            described.put("startMs", stage.startMicros() / 1000.0);
+            described.put("durationMs", stage.durationMicros() / 1000.0);
+            described.put("thread", stage.thread());
+            if (stage.error() != null) {
+                described.put("error", stage.error());
+            }
+            return described;
+        }).toList());
+        return entry;
+    }
+}
@@ -1,10 +1,16 @@
 package com.bhasharakshak.controller;
 
+import com.bhasharakshak.event.AssetChangedEvent;
+import com.bhasharakshak.event.AssetSnapshot;
 import com.bhasharakshak.model.LanguageAsset;
 import org.springframework.beans.factory.annotation.Value;
 import com.bhasharakshak.repository.AssetRepository;
 import com.bhasharakshak.service.AIService;
+import com.bhasharakshak.service.CircuitBreaker;
+import com.bhasharakshak.service.StorageService;
+import com.bhasharakshak.service.TtsCache;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,6 +25,9 @@ public class TranslationController {
 
     private final AssetRepository assetRepository;
     private final AIService aiService;
+    private final TtsCache ttsCache;
+    private final ApplicationEventPublisher events;
+    private final StorageService storageService;
 
     @GetMapping("/pending")
     public ResponseEntity<List<LanguageAsset>> getPendingAssets() {
@@ -42,10 +51,13 @@ public class TranslationController {
             return ResponseEntity.status(403).body(Map.of("error", "Invalid Admin PIN"));
         }
 
-        if (!assetRepository.existsById(java.util.Objects.requireNonNull(assetId))) {
+        LanguageAsset asset = assetRepository.findById(java.util.Objects.requireNonNull(assetId)).orElse(null);
+        if (asset == null) {
             return ResponseEntity.notFound().build();
         }
         assetRepository.deleteById(assetId);
+        events.publishEvent(AssetChangedEvent.deleted(asset));
+        storageService.release(StorageService.fileIdOf(asset.getAudioUrl()));
         return ResponseEntity.ok().build();
     }
 
@@ -57,12 +69,14 @@ public class TranslationController {
                 .orElseThrow(() -> new RuntimeException("Asset not found"));
 
         String manualTranslation = payload.get("englishTranslation");
+        AssetSnapshot before = AssetSnapshot.of(asset);
 
         asset.setEnglishTranslation(manualTranslation);
         asset.setStatus("verified");
         asset.setUpdatedAt(LocalDateTime.now());
 
         assetRepository.save(asset);
+        events.publishEvent(AssetChangedEvent.updated(before, asset));
         return ResponseEntity.ok(asset);
     }
 
@@ -81,6 +95,8 @@ public class TranslationController {
         try {
             String translated = aiService.translateText(asset.getTranscript(), targetLang, asset.getLanguageName());
             return ResponseEntity.ok(Map.of("translatedText", translated));
+        } catch (CircuitBreaker.CircuitOpenException e) {
+            throw e; // Fail-fast 503 with Retry-After from AiUnavailableAdvice
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.status(503).body(Map.of("error", "AI Service Unavailable"));
@@ -93,8 +109,10 @@ public class TranslationController {
         String lang = payload.get("lang");
 
         try {
-            String audioData = aiService.generateSpeech(text, lang);
+            String audioData = ttsCache.getBase64(text, lang);
             return ResponseEntity.ok(Map.of("audioData", audioData));
+        } catch (CircuitBreaker.CircuitOpenException e) {
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(503).body(Map.of("error", "TTS Service Unavailable"));
         }
@@ -1,16 +1,28 @@
 package com.bhasharakshak.controller;
 
+import com.bhasharakshak.model.ContentBlob;
 import com.bhasharakshak.model.VisualHeritage;
 import com.bhasharakshak.repository.VisualHeritageRepository;
 import com.bhasharakshak.service.AIService;
+import com.bhasharakshak.service.AiClientPool;
+import com.bhasharakshak.service.CircuitBreaker;
+import com.bhasharakshak.service.ImageDerivativeService;
+import com.bhasharakshak.service.ReactiveAIService;
 import com.bhasharakshak.service.StorageService;
+import com.bhasharakshak.service.StreamingIngestService;
+import com.bhasharakshak.service.TranslationFanOutService;
+import com.bhasharakshak.tracing.RequestTrace;
+import com.bhasharakshak.tracing.Tracing;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -22,8 +34,12 @@ import java.util.UUID;
 public class VisualHeritageController {
 
     private final VisualHeritageRepository repository;
+    private final StreamingIngestService ingestService;
     private final StorageService storageService;
     private final AIService aiService;
+    private final ReactiveAIService reactiveAIService;
+    private final TranslationFanOutService fanOutService;
+    private final ImageDerivativeService imageDerivativeService;
 
     // Supported languages (should ideally be in a config or constant)
     private static final String[] SUPPORTED_LANGUAGES = {
@@ -31,77 +47,103 @@ public class VisualHeritageController {
     };
 
     @PostMapping("/analyze")
-    public ResponseEntity<?> analyzeImage(@RequestParam("file") MultipartFile file) {
-        try {
-            String description = aiService.describeImage(file);
-            return ResponseEntity.ok(Map.of("description", description));
-        } catch (Exception e) {
-            return ResponseEntity.internalServerError().body("Analysis failed: " + e.getMessage());
+    public Mono<ResponseEntity<?>> analyzeImage(@RequestParam("file") MultipartFile file) {
+        // An image uploaded before keeps the description made for it then
+        String known = storageService.findBlob(storageService.hash(file))
+                .map(ContentBlob::getDescription)
+                .filter(AIService::isDescription)
+                .orElse(null);
+        if (known != null) {
+            return Mono.just(ResponseEntity.ok(Map.of("description", known)));
         }
+        return reactiveAIService.describe(file.getResource())
+                .<ResponseEntity<?>>map(description -> ResponseEntity.ok(Map.of("description", description)))
+                .onErrorResume(e -> !(e instanceof CircuitBreaker.CircuitOpenException
+                        || e instanceof AiClientPool.BulkheadFullException), // 503 from AiUnavailableAdvice
+                        e -> Mono.just(ResponseEntity.internalServerError().body("Analysis failed: " + e.getMessage())));
     }
 
+    /**
+     * The upload is stored (and described, if needed) on request threads;
+     * translations then run without holding a thread and the response is
+     * sent when they are done.
+     */
     @PostMapping("/upload")
-    public ResponseEntity<?> uploadImage(
+    public Mono<ResponseEntity<?>> uploadImage(
             @RequestParam("file") MultipartFile file,
             @RequestParam("title") String title,
             @RequestParam(value = "description", required = false) String description,
             @RequestParam("language") String language,
             @RequestParam(value = "region", required = false) String region) {
 
+        RequestTrace trace = Tracing.current();
+        String fileUrl;
+        String originalDescription = description;
         try {
-            // 1. Store File
-            String fileId = storageService.storeFile(file);
-            String fileUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+            // 1. Store File, describing it from the same stream if no description was given
+            boolean describe = description == null || description.trim().isEmpty();
+            StreamingIngestService.IngestResult<String> ingest = trace.timed("ingest", () ->
+                    ingestService.ingest(file, describe ? aiService::describeImage : null,
+                            blob -> AIService.isDescription(blob.getDescription()) ? blob.getDescription() : null));
+            String fileId = ingest.getFileId();
+            if (describe && ingest.isAnalysed() && !ingest.isReused() && AIService.isDescription(ingest.getAnalysis())) {
+                storageService.saveDescription(fileId, ingest.getAnalysis());
+            }
+            fileUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
                     .path("/api/v1/preservation/files/") // Reusing existing file endpoint
                     .path(fileId)
                     .toUriString();
 
-            // 2. Auto-generate description if missing
-            if (description == null || description.trim().isEmpty()) {
-                try {
-                    description = aiService.describeImage(file);
-                } catch (Exception e) {
-                    description = "Description unavailable.";
-                }
-            }
+            // Thumbnail and medium renditions, from the upload still in hand
+            trace.timed("derivatives", () -> imageDerivativeService.generate(fileId, file.getOriginalFilename(), file));
 
-            // 3. Generate Translations
-            Map<String, String> translations = new HashMap<>();
-            translations.put(language, description); // Add original
-
-            // Async translation could be better, but doing sync for simplicity as per plan
-            for (String targetLang : SUPPORTED_LANGUAGES) {
-                if (!targetLang.equalsIgnoreCase(language)) {
-                    try {
-                        String translatedText = aiService.translateText(description, targetLang, language);
-                        translations.put(targetLang, translatedText);
-                    } catch (Exception e) {
-                        System.err.println("Failed to translate to " + targetLang + ": " + e.getMessage());
-                    }
-                }
+            // 2. Auto-generated description if missing
+            if (describe) {
+                originalDescription = ingest.isAnalysed() ? ingest.getAnalysis() : "Description unavailable.";
             }
-
-            // 3. Save Entity
-            VisualHeritage heritage = new VisualHeritage();
-            heritage.setTitle(title);
-            heritage.setImageUrl(fileUrl); // Storing the full URL
-            heritage.setOriginalDescription(description);
-            heritage.setLanguage(language);
-            heritage.setTranslations(translations);
-            heritage.setRegion(region);
-            heritage.setContributorId("ANON-" + UUID.randomUUID().toString().substring(0, 8));
-            heritage.setStatus("pending"); // Default to pending
-            heritage.setCreatedAt(LocalDateTime.now());
-            heritage.setUpdatedAt(LocalDateTime.now());
-
-            repository.save(heritage);
-
-            return ResponseEntity.ok(heritage);
-
         } catch (Exception e) {
             e.printStackTrace();
-            return ResponseEntity.internalServerError().body("Upload failed: " + e.getMessage());
+            return Mono.just(ResponseEntity.internalServerError().body("Upload failed: " + e.getMessage()));
         }
+
+        // 3. Generate Translations (concurrently; anything missing is backfilled later)
+        String finalDescription = originalDescription;
+        List<String> targets = Arrays.stream(SUPPORTED_LANGUAGES)
+                .filter(targetLang -> !targetLang.equalsIgnoreCase(language))
+                .toList();
+        long translateStart = System.nanoTime();
+        return fanOutService.translateAllAsync(finalDescription, language, targets)
+                .doOnSuccess(fanOut -> trace.record("translate", translateStart,
+                        fanOut.getMissing().isEmpty() ? null : fanOut.getMissing().size() + " missing"))
+                .publishOn(Schedulers.boundedElastic()) // Mongo save below blocks
+                .<ResponseEntity<?>>map(fanOut -> {
+                    Map<String, String> translations = new HashMap<>(fanOut.getTranslations());
+                    translations.put(language, finalDescription); // Add original
+
+                    // 4. Save Entity
+                    VisualHeritage heritage = new VisualHeritage();
+                    heritage.setTitle(title);
+                    heritage.setImageUrl(fileUrl); // Storing the full URL
+                    setSizeUrls(heritage);
+                    heritage.setOriginalDescription(finalDescription);
+                    heritage.setLanguage(language);
+                    heritage.setTranslations(translations);
+                    heritage.setPendingTranslations(fanOut.getMissing());
+                    heritage.setRegion(region);
+                    heritage.setContributorId("ANON-" + UUID.randomUUID().toString().substring(0, 8));
+                    heritage.setStatus("pending"); // Default to pending
+                    heritage.setCreatedAt(LocalDateTime.now());
+                    heritage.setUpdatedAt(LocalDateTime.now());
+
+                    trace.timed("persist", () -> repository.save(heritage));
+
+                    return ResponseEntity.ok(heritage);
+                })
+                .onErrorResume(e -> {
+                    e.printStackTrace();
+                    return Mono.just(ResponseEntity.internalServerError().body("Upload failed: " + e.getMessage()));
+                })
+                .contextWrite(Tracing.context(trace));
     }
 
     @org.springframework.beans.factory.annotation.Value("${app.admin-pin}")
@@ -116,15 +158,14 @@ public class VisualHeritageController {
             return ResponseEntity.status(403).body(java.util.Map.of("error", "Invalid Admin PIN"));
         }
 
-        if (!repository.existsById(id)) {
+        VisualHeritage heritage = repository.findById(id).orElse(null);
+        if (heritage == null) {
             return ResponseEntity.notFound().build();
         }
 
-        // Optionally delete file from storage service too, but for now just removing
-        // metadata record
-        // storageService.deleteFile(repository.findById(id).get().getImageUrl()...);
-
         repository.deleteById(id);
+        // The image goes with its last user
+        storageService.release(StorageService.fileIdOf(heritage.getImageUrl()));
         return ResponseEntity.ok().build();
     }
 
@@ -148,13 +189,30 @@ public class VisualHeritageController {
 
     @GetMapping
     public ResponseEntity<List<VisualHeritage>> getAllHeritage() {
-        return ResponseEntity.ok(repository.findAll());
+        return ResponseEntity.ok(withSizeUrls(repository.findAll()));
     }
 
     @GetMapping("/approved")
     public ResponseEntity<List<VisualHeritage>> getApprovedHeritage() {
         // For development/demo, returning all. In prod, filter by status="verified"
-        return ResponseEntity.ok(repository.findAll());
+        return ResponseEntity.ok(withSizeUrls(repository.findAll()));
         // return ResponseEntity.ok(repository.findByStatus("verified"));
     }
+
+    // Items uploaded before renditions existed get theirs made on first request
+    private static List<VisualHeritage> withSizeUrls(List<VisualHeritage> items) {
+        items.stream()
+                .filter(heritage -> heritage.getThumbnailUrl() == null)
+                .forEach(VisualHeritageController::setSizeUrls);
+        return items;
+    }
+
+    private static void setSizeUrls(VisualHeritage heritage) {
+        String imageUrl = heritage.getImageUrl();
+        if (imageUrl == null || !imageUrl.contains("/preservation/files/")) {
+            return; // Not served from GridFS
+        }
+        heritage.setThumbnailUrl(imageUrl + "/thumb");
+        heritage.setMediumUrl(imageUrl + "/medium");
+    }
 }
@@ -0,0 +1,26 @@
+package com.bhasharakshak.event;
+
+import com.bhasharakshak.model.LanguageAsset;
+
+/**
+ * Published after a LanguageAsset has been inserted, updated or deleted.
+ * {@code before} is null for an insert and {@code after} is null for a delete.
+ */
+public record AssetChangedEvent(AssetSnapshot before, AssetSnapshot after) {
+
+    public static AssetChangedEvent created(LanguageAsset asset) {
+        return new AssetChangedEvent(null, AssetSnapshot.of(asset));
+    }
+
+    public static AssetChangedEvent updated(AssetSnapshot before, LanguageAsset asset) {
+        return new AssetChangedEvent(before, AssetSnapshot.of(asset));
+    }
+
+    public static AssetChangedEvent deleted(LanguageAsset asset) {
+        return new AssetChangedEvent(AssetSnapshot.of(asset), null);
+    }
+
+    public String assetId() {
+        return after != null ? after.assetId() : before.assetId();
+    }
+}
@@ -0,0 +1,48 @@
+package com.bhasharakshak.event;
+
+import com.bhasharakshak.model.LanguageAsset;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of the asset fields that derived views (search index, stats
+ * rollups, map tiles) care about. Taken before an asset is mutated so
+ * listeners can see what changed.
+ */
+public record AssetSnapshot(
+        String assetId,
+        String languageName,
+        String status,
+        boolean isPrivate,
+        String region,
+        String city,
+        Double latitude,
+        Double longitude,
+        String transcript,
+        String englishTranslation,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    public static AssetSnapshot of(LanguageAsset asset) {
+        return new AssetSnapshot(
+                asset.getAssetId(),
+                asset.getLanguageName(),
+                asset.getStatus(),
+                asset.isPrivate(),
+                asset.getRegion(),
+                asset.getCity(),
+                asset.getLatitude(),
+                asset.getLongitude(),
+                asset.getTranscript(),
+                asset.getEnglishTranslation(),
+                asset.getCreatedAt(),
+                asset.getUpdatedAt());
+    }
+
+    /**
+     * Verified public assets are the ones anonymous users can find.
+     */
+    public boolean isPublicVerified() {
+        return "verified".equalsIgnoreCase(status) && !isPrivate;
+    }
+}
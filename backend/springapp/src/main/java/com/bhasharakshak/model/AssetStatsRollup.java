@@ -0,0 +1,26 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of assets for one (language, status, day created) bucket. Kept up
+ * to date with $inc as assets change; see AssetStatsService.
+ */
+@Data
+@Document(collection = "asset_stats")
+public class AssetStatsRollup {
+    @Id
+    private String id; // languageName|status|day
+
+    private String languageName; // "" when the asset has none
+    private String status;
+    private String day; // yyyy-MM-dd of createdAt, or "unknown"
+
+    private long count;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,22 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Document(collection = "translation_cache")
+public class CachedTranslation {
+    @Id
+    private String id; // SHA-256 of the normalized (text, source, target) key
+
+    private String sourceLang;
+    private String targetLang;
+    private String translation;
+
+    @Indexed(expireAfterSeconds = 0) // MongoDB drops the entry once this passes
+    private Instant expiresAt;
+}
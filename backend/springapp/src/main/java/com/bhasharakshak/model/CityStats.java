@@ -0,0 +1,36 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Contributions from one city, kept up to date by GeoAggregationService.
+ */
+@Data
+@Document(collection = "city_stats")
+public class CityStats {
+    @Id
+    private String id; // city|region
+
+    private String city;
+    private String region;
+
+    @Indexed(direction = IndexDirection.DESCENDING)
+    private long count;
+
+    // Centroid of the assets that have coordinates: sum / located
+    private long located;
+    private double sumLatitude;
+    private double sumLongitude;
+
+    private Map<String, Long> languages; // language name (escaped) -> count
+
+    private LocalDateTime updatedAt;
+    private LocalDateTime reconciledAt; // Start of the last reconciliation that found assets here
+}
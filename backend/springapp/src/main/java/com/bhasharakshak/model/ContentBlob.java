@@ -0,0 +1,37 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * One distinct uploaded content, and the GridFS files stored for it. Every
+ * asset or heritage item that uses those files holds one reference; the files
+ * are deleted with the last one.
+ */
+@Data
+@Document(collection = "blobs")
+public class ContentBlob {
+    @Id
+    private String id; // SHA-256 of the uploaded bytes; _id, so unique
+
+    @Indexed(unique = true)
+    private String fileId; // GridFS ID that is served (for WAV uploads, the playback FLAC)
+    private String archiveFileId; // Other GridFS files made from the same upload, if any
+    private String originalFileId;
+
+    private long size; // Bytes uploaded
+    private String contentType;
+    private long refCount;
+
+    // AI results for these bytes, reused by duplicate uploads
+    private Map<String, String> transcripts; // By lower-cased language
+    private String description;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+}
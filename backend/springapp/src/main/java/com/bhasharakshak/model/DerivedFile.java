@@ -0,0 +1,33 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+/**
+ * A stored rendition of a GridFS file, e.g. an image thumbnail. Deleted with
+ * its source file.
+ */
+@Data
+@Document(collection = "derived_files")
+public class DerivedFile {
+    @Id
+    private String id; // "<sourceFileId>:<variant>"
+
+    @Indexed
+    private String sourceFileId;
+    private String variant; // "thumb", "medium"
+    private String fileId; // GridFS ID of the rendition; the source's own if it is small enough or cannot be read
+
+    private int width;
+    private int height;
+
+    private Instant createdAt;
+
+    public static String idOf(String sourceFileId, String variant) {
+        return sourceFileId + ":" + variant;
+    }
+}
@@ -0,0 +1,34 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Assets with coordinates falling in one web-mercator tile (zoom/x/y), kept
+ * up to date by GeoAggregationService for every zoom level.
+ */
+@Data
+@Document(collection = "geo_tiles")
+@CompoundIndex(name = "viewport_idx", def = "{'zoom': 1, 'x': 1, 'y': 1}")
+public class GeoTile {
+    @Id
+    private String id; // zoom/x/y
+
+    private int zoom;
+    private int x;
+    private int y;
+
+    private long count;
+    private double sumLatitude;
+    private double sumLongitude;
+
+    private Map<String, Long> languages; // language name (escaped) -> count
+
+    private LocalDateTime updatedAt;
+    private LocalDateTime reconciledAt; // Start of the last reconciliation that found assets here
+}
@@ -0,0 +1,71 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bulk import of field recordings: the manifest, batch-wide defaults for
+ * anything the manifest leaves out, and how far the import has got. The
+ * archive can be sent again after a failure; items already imported are
+ * skipped.
+ */
+@Data
+@Document(collection = "import_batches")
+public class ImportBatch {
+    public static final String OPEN = "open"; // waiting for the archive
+    public static final String RUNNING = "running";
+    public static final String COMPLETED = "completed";
+    public static final String INCOMPLETE = "incomplete"; // some items missing or failed; send the archive again
+
+    @Id
+    private String id;
+
+    private String status;
+
+    // Defaults for archive entries and manifest rows
+    private String language;
+    private String dialect;
+    private String targetLanguage;
+    private String region;
+    private String city;
+    private boolean consent;
+
+    private List<Item> items = new ArrayList<>();
+    private int imported;
+    private int failed;
+
+    // Held by the node streaming the archive, like a transcription job lease
+    private Instant leaseExpiresAt;
+    private String lastError;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    @Data
+    public static class Item {
+        public static final String PENDING = "pending";
+        public static final String IMPORTED = "imported";
+        public static final String FAILED = "failed";
+
+        private String file; // path in the archive, or just the file name
+
+        // Null fields fall back to the batch defaults
+        private String language;
+        private String dialect;
+        private String targetLanguage;
+        private String region;
+        private String city;
+        private Boolean consent;
+
+        private String status;
+        private String fileId;
+        private String assetId;
+        private String error;
+        private Instant updatedAt;
+    }
+}
@@ -1,29 +1,53 @@
 package com.bhasharakshak.model;
 
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Setter;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
+import java.util.Locale;
 
 @Data
 @Document(collection = "assets")
+@CompoundIndexes({
+        // Public search: equality on status/isPrivate, then the keyset sort order
+        @CompoundIndex(name = "public_recent_idx", def = "{'status': 1, 'isPrivate': 1, 'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "public_language_idx", def = "{'status': 1, 'isPrivate': 1, 'languageKey': 1, 'createdAt': -1, '_id': -1}"),
+        // Admin search (includeAll) has no status/isPrivate predicate
+        @CompoundIndex(name = "recent_idx", def = "{'createdAt': -1, '_id': -1}"),
+        @CompoundIndex(name = "language_idx", def = "{'languageKey': 1, 'createdAt': -1, '_id': -1}")
+})
 public class LanguageAsset {
     @Id
     private String assetId;
 
     private String contributorId; // Anonymized
     private String languageName;
+
+    // Lower-cased languageName, kept in step by setLanguageName, for index-backed prefix search
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    private String languageKey;
+
     private String dialect;
     private String targetLanguage;
 
     private String transcript; // Original text/transcript
+    private boolean transcriptFlagged; // Transcript has profanity-lexicon words; kept unmasked, for review
     private String englishTranslation;
 
     // File paths or URLs
-    private String audioUrl;
+    private String audioUrl; // Playback copy (16 kHz mono FLAC for WAV uploads), also sent to STT
+    private String archiveAudioUrl; // Lossless copy at the recorded rate and channels, if transcoded
+    private String originalAudioUrl; // The upload as received, if kept
 
     private boolean consentGiven;
     private LocalDateTime consentTimestamp;
@@ -34,7 +58,7 @@ public class LanguageAsset {
     private Double latitude; // Optional GPS coordinates
     private Double longitude; // Optional GPS coordinates
 
-    private String status; // "pending", "verified"
+    private String status; // "transcribing", "pending", "verified", "private"
 
     // Private collections support
     @Field("isPrivate")
@@ -45,5 +69,11 @@ public class LanguageAsset {
     private String userId; // Browser-generated unique user ID for private collections
 
     private LocalDateTime createdAt;
+    @Indexed // Derived views catch up on recent changes by updatedAt
     private LocalDateTime updatedAt;
+
+    public void setLanguageName(String languageName) {
+        this.languageName = languageName;
+        this.languageKey = languageName != null ? languageName.toLowerCase(Locale.ROOT) : null;
+    }
 }
@@ -0,0 +1,27 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.IndexDirection;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of assets in one language over all statuses and days: the sum of
+ * its asset_stats buckets, kept alongside them so the dashboard and gallery
+ * read one document per language; see AssetStatsService.
+ */
+@Data
+@Document(collection = "language_totals")
+public class LanguageTotal {
+    @Id
+    private String id; // languageName; "" when the asset has none
+
+    @Indexed(direction = IndexDirection.DESCENDING)
+    private long count;
+    private long published; // Verified and public: the ones search returns
+
+    private LocalDateTime updatedAt;
+}
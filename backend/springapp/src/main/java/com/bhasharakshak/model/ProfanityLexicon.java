@@ -0,0 +1,23 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Words moderators have added for one language, on top of the lists bundled
+ * with the application.
+ */
+@Data
+@Document(collection = "profanity_lexicons")
+public class ProfanityLexicon {
+    @Id
+    private String language; // Language code, e.g. "hi", "kha"
+
+    private Set<String> words;
+
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,44 @@
+package com.bhasharakshak.model;
+
+import lombok.Data;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+@Data
+@Document(collection = "transcription_jobs")
+@CompoundIndexes({
+        @CompoundIndex(name = "ready_idx", def = "{'status': 1, 'nextAttemptAt': 1}"),
+        @CompoundIndex(name = "lease_idx", def = "{'status': 1, 'leaseExpiresAt': 1}")
+})
+public class TranscriptionJob {
+    public static final String QUEUED = "queued";
+    public static final String RUNNING = "running";
+    public static final String FAILED = "failed";
+
+    @Id
+    private String id;
+
+    @Indexed
+    private String assetId;
+    private String fileId; // GridFS ID of the recording
+    private String language;
+
+    private String status; // "queued", "running", "failed"
+    private int attempts;
+    private Instant nextAttemptAt;
+
+    // Lease held by the node currently working on the job.
+    // Instants rather than LocalDateTime so nodes in different zones agree.
+    private String leaseOwner;
+    private Instant leaseExpiresAt;
+
+    private String lastError;
+
+    private Instant createdAt;
+    private Instant updatedAt;
+}
@@ -5,6 +5,7 @@ import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -15,12 +16,16 @@ public class VisualHeritage {
 
     private String title;
     private String imageUrl; // GridFS URL or ID
+    // Downscaled JPEGs for gallery tiles and detail views (<imageUrl>/thumb, /medium)
+    private String thumbnailUrl;
+    private String mediumUrl;
 
     private String originalDescription;
     private String language; // Language of the original description
 
     // Auto-generated translations of the description
     private Map<String, String> translations;
+    private List<String> pendingTranslations; // Languages still to be filled in by the backfill
 
     private String contributorId; // Anonymized
     private String region;
@@ -0,0 +1,67 @@
+package com.bhasharakshak.repository;
+
+import com.bhasharakshak.model.LanguageAsset;
+import org.springframework.data.mongodb.core.query.Criteria;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque keyset-pagination token for asset search and corpus export: the
+ * sort key of the last asset on the previous page. Encoded as URL-safe base64 so clients pass it
+ * back unchanged. Assets saved without a createdAt sort after all others
+ * newest first, and before them oldest first, as Mongo orders a missing field.
+ */
+public record AssetCursor(String languageKey, LocalDateTime createdAt, String assetId) {
+
+    private static final String VERSION = "v1";
+
+    public static AssetCursor after(LanguageAsset asset) {
+        return new AssetCursor(asset.getLanguageKey(), asset.getCreatedAt(), asset.getAssetId());
+    }
+
+    public String encode() {
+        String raw = String.join("\n", VERSION,
+                languageKey != null ? languageKey : "",
+                createdAt != null ? createdAt.toString() : "",
+                assetId);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Assets after this one in (createdAt, _id) descending order. */
+    public Criteria newestFirst() {
+        Criteria sameTime = Criteria.where("createdAt").is(createdAt).and("_id").lt(assetId);
+        if (createdAt == null) {
+            return sameTime;
+        }
+        return new Criteria().orOperator(
+                Criteria.where("createdAt").lt(createdAt),
+                sameTime,
+                Criteria.where("createdAt").is(null));
+    }
+
+    /** Assets after this one in (createdAt, _id) ascending order. */
+    public Criteria oldestFirst() {
+        Criteria sameTime = Criteria.where("createdAt").is(createdAt).and("_id").gt(assetId);
+        if (createdAt == null) {
+            return new Criteria().orOperator(sameTime, Criteria.where("createdAt").ne(null));
+        }
+        return new Criteria().orOperator(Criteria.where("createdAt").gt(createdAt), sameTime);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static AssetCursor decode(String token) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split("\n", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new IllegalArgumentException("Unsupported cursor");
+            }
+            return new AssetCursor(parts[1], parts[2].isEmpty() ? null : LocalDateTime.parse(parts[2]), parts[3]);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
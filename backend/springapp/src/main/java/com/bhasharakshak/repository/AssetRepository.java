@@ -7,7 +7,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface AssetRepository extends MongoRepository<LanguageAsset, String> {
+public interface AssetRepository extends MongoRepository<LanguageAsset, String>, AssetRepositoryCustom {
 
     List<LanguageAsset> findByStatus(String status);
 
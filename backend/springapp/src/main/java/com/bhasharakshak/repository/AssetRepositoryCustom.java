@@ -0,0 +1,18 @@
+package com.bhasharakshak.repository;
+
+import com.bhasharakshak.model.LanguageAsset;
+
+import java.util.List;
+
+public interface AssetRepositoryCustom {
+
+    /**
+     * One page of search results, filtered and ordered entirely in MongoDB.
+     *
+     * @param languagePrefix case-insensitive language name prefix, or null for all
+     * @param includeAll     also return unverified and private assets (admin use)
+     * @param after          cursor of the last asset on the previous page, or null
+     * @param limit          maximum number of assets to return
+     */
+    List<LanguageAsset> searchPage(String languagePrefix, boolean includeAll, AssetCursor after, int limit);
+}
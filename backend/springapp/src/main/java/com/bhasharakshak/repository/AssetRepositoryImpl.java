@@ -0,0 +1,61 @@
+package com.bhasharakshak.repository;
+
+import com.bhasharakshak.model.LanguageAsset;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Keyset-paginated search. Every predicate and the sort are served by the
+ * compound indexes declared on {@link LanguageAsset}: public listings walk
+ * (status, isPrivate, createdAt, _id) and language searches walk
+ * (status, isPrivate, languageKey, createdAt, _id), so a page costs the same
+ * however large the collection grows.
+ */
+@RequiredArgsConstructor
+public class AssetRepositoryImpl implements AssetRepositoryCustom {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public List<LanguageAsset> searchPage(String languagePrefix, boolean includeAll, AssetCursor after, int limit) {
+        List<Criteria> predicates = new ArrayList<>();
+
+        if (!includeAll) {
+            predicates.add(Criteria.where("status").is("verified"));
+            predicates.add(Criteria.where("isPrivate").is(false));
+        }
+
+        boolean byLanguage = languagePrefix != null && !languagePrefix.isBlank();
+        if (byLanguage) {
+            // A range rather than a regex so the bounds are exact index bounds
+            String prefix = languagePrefix.strip().toLowerCase(Locale.ROOT);
+            predicates.add(Criteria.where("languageKey").gte(prefix).lt(prefix + Character.MAX_VALUE));
+        }
+
+        if (after != null) {
+            Criteria olderThanCursor = after.newestFirst();
+            predicates.add(byLanguage
+                    ? new Criteria().orOperator(
+                            Criteria.where("languageKey").gt(after.languageKey()),
+                            new Criteria().andOperator(Criteria.where("languageKey").is(after.languageKey()), olderThanCursor))
+                    : olderThanCursor);
+        }
+
+        Sort sort = Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("_id"));
+        if (byLanguage) {
+            sort = Sort.by(Sort.Order.asc("languageKey")).and(sort);
+        }
+
+        Query query = new Query(predicates.isEmpty() ? new Criteria() : new Criteria().andOperator(predicates))
+                .with(sort)
+                .limit(limit);
+        return mongoTemplate.find(query, LanguageAsset.class);
+    }
+}
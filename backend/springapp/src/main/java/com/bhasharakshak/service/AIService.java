@@ -1,55 +1,95 @@
 package com.bhasharakshak.service;
 
+import com.bhasharakshak.service.AiClientPool.Operation;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestClient;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.MediaType;
-import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.http.client.MultipartBodyBuilder;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 @Service
 public class AIService {
 
-        private final String AI_SERVICE_URL;
-        private final RestClient restClient;
-        private final RestTemplate restTemplate;
+        private static final Duration BATCH_RETRY_AFTER = Duration.ofMinutes(10);
 
-        public AIService(@Value("${ai-service.url}") String aiServiceUrl) {
-                this.AI_SERVICE_URL = aiServiceUrl;
-                this.restClient = RestClient.builder()
-                                .baseUrl(aiServiceUrl)
-                                .build();
-                this.restTemplate = new RestTemplate();
+        private final AiClientPool clientPool;
+        private final TranslationCache translationCache;
+        private final TranslationCoalescer coalescer; // null when coalescing is off
+        private final Duration coalesceTimeout;
+
+        // Set when the AI service has no batch endpoint; coalescing resumes after BATCH_RETRY_AFTER
+        private volatile long batchUnsupportedUntil;
+
+        public AIService(
+                        AiClientPool clientPool,
+                        TranslationCache translationCache,
+                        @Qualifier("translationBatchExecutor") ThreadPoolTaskExecutor batchExecutor,
+                        @Value("${app.translation.coalesce.enabled:true}") boolean coalesce,
+                        @Value("${app.translation.coalesce.max-items:32}") int maxItems,
+                        @Value("${app.translation.coalesce.max-wait-ms:10}") long maxWaitMs) {
+                this.clientPool = clientPool;
+                this.translationCache = translationCache;
+                // Wait for a free sender, the window and the batch call itself
+                this.coalesceTimeout = clientPool.readTimeout(Operation.TRANSLATE_BATCH).plusMillis(maxWaitMs + 5000);
+                if (coalesce) {
+                        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                                Thread thread = new Thread(runnable, "translation-coalesce");
+                                thread.setDaemon(true);
+                                return thread;
+                        });
+                        this.coalescer = new TranslationCoalescer(maxItems, maxWaitMs, this::sendCoalesced, timer,
+                                        batchExecutor);
+                } else {
+                        this.coalescer = null;
+                }
+        }
+
+        /**
+         * False while the operation's circuit breaker is open: a call would
+         * fail immediately without reaching the AI service.
+         */
+        public boolean isAvailable(Operation operation) {
+                return clientPool.isAvailable(operation);
         }
 
         public String transcribeAudio(MultipartFile file, String language) {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+                return transcribeAudio(file.getResource(), language);
+        }
 
+        public String transcribeAudio(Resource audio, String language) {
                 MultipartBodyBuilder builder = new MultipartBodyBuilder();
-                builder.part("file", file.getResource());
+                builder.part("file", audio);
                 builder.part("language", language != null ? language : "English");
 
-                HttpEntity<MultiValueMap<String, HttpEntity<?>>> requestEntity = new HttpEntity<>(builder.build(),
-                                headers);
-
                 try {
                         @SuppressWarnings("unchecked")
-                        Map<String, Object> response = restTemplate.postForObject(
-                                        AI_SERVICE_URL + "/stt",
-                                        requestEntity,
-                                        Map.class);
+                        Map<String, Object> response = clientPool.call(Operation.STT, client -> client.post()
+                                        .uri("/stt")
+                                        .contentType(MediaType.MULTIPART_FORM_DATA)
+                                        .body(builder.build())
+                                        .retrieve()
+                                        .body(Map.class));
 
                         if (response == null) {
                                 throw new RuntimeException("STT Service returned null response");
                         }
                         return (String) response.get("transcript");
+                } catch (CircuitBreaker.CircuitOpenException | AiClientPool.BulkheadFullException e) {
+                        throw e; // Not attempted; callers may defer instead of failing
                 } catch (Exception e) {
                         System.err.println("STT Service Error: " + e.getMessage());
                         throw new RuntimeException("STT Failed");
@@ -57,18 +97,88 @@ public class AIService {
         }
 
         public String translateText(String text, String targetLang, String sourceLang) {
+                String cached = translationCache.get(text, sourceLang, targetLang);
+                if (cached != null) {
+                        return cached;
+                }
+
+                String translated = coalescing() ? join(translateCoalesced(text, targetLang, sourceLang))
+                                : requestTranslation(text, targetLang, sourceLang);
+                if (translated == null) {
+                        throw new RuntimeException("Translation Service returned null response");
+                }
+                if (isTranslation(translated)) {
+                        translationCache.put(text, sourceLang, targetLang, translated);
+                }
+                return translated;
+        }
+
+        /**
+         * Queue an uncached translation to go out in the next batch for its
+         * language pair. The future completes with the AI service's raw
+         * result for this text.
+         */
+        CompletableFuture<String> translateCoalesced(String text, String targetLang, String sourceLang) {
+                return coalescer.submit(text, sourceLang, targetLang)
+                                .orTimeout(coalesceTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        /**
+         * True when single translations are micro-batched; false when it is
+         * switched off or the AI service turned out to have no batch endpoint.
+         */
+        boolean coalescing() {
+                return coalescer != null && System.currentTimeMillis() >= batchUnsupportedUntil;
+        }
+
+        public Map<String, Object> coalescerStats() {
+                return coalescer != null ? coalescer.stats() : Map.of("enabled", false);
+        }
+
+        /**
+         * Translate several items in one round-trip. Results are in request order;
+         * an item the AI service could not translate comes back as null.
+         */
+        public List<String> translateBatch(List<TranslationItem> items) {
+                // Serve what we can from the cache and only send the rest
+                List<String> results = new ArrayList<>(items.size());
+                List<Integer> uncached = new ArrayList<>();
+                for (TranslationItem item : items) {
+                        String cached = translationCache.get(item.text(), item.sourceLang(), item.targetLang());
+                        if (cached == null) {
+                                uncached.add(results.size());
+                        }
+                        results.add(cached);
+                }
+                if (uncached.isEmpty()) {
+                        return results;
+                }
+
+                List<String> translated = requestBatch(uncached.stream().map(items::get).toList());
+                for (int i = 0; i < uncached.size(); i++) {
+                        TranslationItem item = items.get(uncached.get(i));
+                        String text = translated.get(i);
+                        if (isTranslation(text)) {
+                                translationCache.put(item.text(), item.sourceLang(), item.targetLang(), text);
+                                results.set(uncached.get(i), text);
+                        }
+                }
+                return results;
+        }
+
+        private String requestTranslation(String text, String targetLang, String sourceLang) {
                 Map<String, String> request = Map.of(
                                 "text", text,
                                 "target_lang", targetLang,
                                 "source_lang", sourceLang != null ? sourceLang : "");
 
                 @SuppressWarnings("unchecked")
-                Map<String, Object> response = restClient.post()
+                Map<String, Object> response = clientPool.call(Operation.TRANSLATE, client -> client.post()
                                 .uri("/translate")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .body(request)
                                 .retrieve()
-                                .body(Map.class);
+                                .body(Map.class));
 
                 if (response == null) {
                         throw new RuntimeException("Translation Service returned null response");
@@ -76,18 +186,101 @@ public class AIService {
                 return (String) response.get("translated_text");
         }
 
+        // Raw results in item order: the AI service's text, which may be an error string, or null
+        private List<String> requestBatch(List<TranslationItem> items) {
+                List<Map<String, String>> payload = items.stream()
+                                .map(item -> Map.of(
+                                                "text", item.text(),
+                                                "target_lang", item.targetLang(),
+                                                "source_lang", item.sourceLang() != null ? item.sourceLang() : ""))
+                                .toList();
+
+                @SuppressWarnings("unchecked")
+                Map<String, Object> response = clientPool.call(Operation.TRANSLATE_BATCH, client -> client.post()
+                                .uri("/translate/batch")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .body(Map.of("items", payload))
+                                .retrieve()
+                                .body(Map.class));
+
+                if (response == null || !(response.get("results") instanceof List<?> translated)
+                                || translated.size() != items.size()) {
+                        throw new RuntimeException("Batch Translation Service returned an invalid response");
+                }
+                return translated.stream()
+                                .map(result -> result instanceof Map<?, ?> map ? (String) map.get("translated_text") : null)
+                                .toList();
+        }
+
+        /**
+         * Sends one coalesced batch. If the AI service has no batch endpoint,
+         * coalescing is paused for a while and this batch goes out item by item.
+         */
+        private List<String> sendCoalesced(List<TranslationItem> items) {
+                try {
+                        return requestBatch(items);
+                } catch (HttpClientErrorException.NotFound | HttpClientErrorException.MethodNotAllowed e) {
+                        batchUnsupportedUntil = System.currentTimeMillis() + BATCH_RETRY_AFTER.toMillis();
+                        List<String> results = new ArrayList<>(items.size());
+                        for (TranslationItem item : items) {
+                                results.add(requestTranslation(item.text(), item.targetLang(), item.sourceLang()));
+                        }
+                        return results;
+                }
+        }
+
+        private static <T> T join(CompletableFuture<T> future) {
+                try {
+                        return future.join();
+                } catch (CompletionException e) {
+                        if (e.getCause() instanceof RuntimeException cause) {
+                                throw cause;
+                        }
+                        throw new RuntimeException("Translation timed out", e.getCause());
+                }
+        }
+
+        /**
+         * The AI service reports some translation failures as an "Error: ..." string
+         * instead of an HTTP error; those must not be cached or stored.
+         */
+        static boolean isTranslation(String text) {
+                return text != null && !text.startsWith("Error: Could not translate");
+        }
+
+        /**
+         * STT failures come back as a 200 with a placeholder transcript; those
+         * must not be kept for the next upload of the same recording.
+         */
+        public static boolean isTranscript(String text) {
+                return text != null
+                                && !text.startsWith("Error: ")
+                                && !text.startsWith("⚠️ Offline Mode")
+                                && !text.equals("Audio was too unclear to transcribe.");
+        }
+
+        /** {@link #isTranscript}, for image descriptions. */
+        public static boolean isDescription(String text) {
+                return text != null
+                                && !text.startsWith("AI analysis is currently unavailable")
+                                && !text.equals("Could not generate description.");
+        }
+
+        public record TranslationItem(String text, String targetLang, String sourceLang) {
+        }
+
         public String generateSpeech(String text, String lang) {
                 Map<String, String> request = Map.of(
                                 "text", text,
                                 "lang", lang);
 
                 @SuppressWarnings("unchecked")
-                Map<String, Object> response = restClient.post()
+                Map<String, Object> response = clientPool.call(Operation.TTS, client -> client.post()
                                 .uri("/tts")
                                 .contentType(MediaType.APPLICATION_JSON)
                                 .body(request)
                                 .retrieve()
-                                .body(Map.class);
+                                .body(Map.class));
 
                 if (response == null) {
                         throw new RuntimeException("TTS Service returned null response");
@@ -96,26 +289,28 @@ public class AIService {
         }
 
         public String describeImage(MultipartFile file) {
-                HttpHeaders headers = new HttpHeaders();
-                headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+                return describeImage(file.getResource());
+        }
 
+        public String describeImage(Resource image) {
                 MultipartBodyBuilder builder = new MultipartBodyBuilder();
-                builder.part("file", file.getResource());
-
-                HttpEntity<MultiValueMap<String, HttpEntity<?>>> requestEntity = new HttpEntity<>(builder.build(),
-                                headers);
+                builder.part("file", image);
 
                 try {
                         @SuppressWarnings("unchecked")
-                        Map<String, Object> response = restTemplate.postForObject(
-                                        AI_SERVICE_URL + "/describe-image",
-                                        requestEntity,
-                                        Map.class);
+                        Map<String, Object> response = clientPool.call(Operation.DESCRIBE_IMAGE, client -> client.post()
+                                        .uri("/describe-image")
+                                        .contentType(MediaType.MULTIPART_FORM_DATA)
+                                        .body(builder.build())
+                                        .retrieve()
+                                        .body(Map.class));
 
                         if (response == null) {
                                 throw new RuntimeException("Image Description Service returned null response");
                         }
                         return (String) response.get("description");
+                } catch (CircuitBreaker.CircuitOpenException | AiClientPool.BulkheadFullException e) {
+                        throw e;
                 } catch (Exception e) {
                         System.err.println("Image Description Service Error: " + e.getMessage());
                         throw new RuntimeException("Image Description Failed");
@@ -0,0 +1,334 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.tracing.RequestTrace;
+import com.bhasharakshak.tracing.Tracing;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * One pooled, keep-alive HTTP client for every call to the AI service.
+ *
+ * Each operation gets its own connect/read timeouts and its own bulkhead (a
+ * cap on concurrent calls), so a backlog of slow STT calls cannot take the
+ * connections translate and TTS need. Each operation also has a
+ * {@link CircuitBreaker}, so while the AI service is down calls fail in
+ * milliseconds instead of each waiting out its timeout. Settings are read
+ * from {@code app.ai-client.<operation>.*} and {@code app.ai-client.circuit.*}.
+ */
+@Component
+public class AiClientPool implements DisposableBean {
+
+    public enum Operation {
+        STT("stt", 120_000, 8),
+        TRANSLATE("translate", 15_000, 16),
+        TRANSLATE_BATCH("translate-batch", 60_000, 4),
+        TTS("tts", 30_000, 8),
+        DESCRIBE_IMAGE("describe-image", 60_000, 4);
+
+        final String key;
+        final int defaultReadTimeoutMs;
+        final int defaultMaxConcurrent;
+
+        Operation(String key, int defaultReadTimeoutMs, int defaultMaxConcurrent) {
+            this.key = key;
+            this.defaultReadTimeoutMs = defaultReadTimeoutMs;
+            this.defaultMaxConcurrent = defaultMaxConcurrent;
+        }
+    }
+
+    /**
+     * Thrown when an operation's bulkhead stays full for longer than its
+     * wait limit. The call never reached the AI service.
+     */
+    public static class BulkheadFullException extends RuntimeException {
+        public BulkheadFullException(Operation operation) {
+            super("Too many concurrent " + operation.key + " calls to the AI service");
+        }
+    }
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final MeterRegistry meterRegistry;
+    private final TimeValue keepAlive;
+    private final Map<Operation, Lane> lanes = new EnumMap<>(Operation.class);
+
+    @SuppressWarnings("deprecation") // RequestConfig connect timeout: per operation, unlike ConnectionConfig's
+    public AiClientPool(
+            @Value("${ai-service.url}") String aiServiceUrl,
+            @Value("${app.ai-client.max-connections:48}") int maxConnections,
+            @Value("${app.ai-client.keep-alive-seconds:30}") int keepAliveSeconds,
+            @Value("${app.ai-client.pool-wait-ms:2000}") int poolWaitMs,
+            @Value("${app.ai-client.circuit.failure-rate-threshold:50}") int failureRateThreshold,
+            @Value("${app.ai-client.circuit.window-size:20}") int windowSize,
+            @Value("${app.ai-client.circuit.minimum-calls:5}") int minimumCalls,
+            @Value("${app.ai-client.circuit.open-seconds:30}") long openSeconds,
+            @Value("${app.ai-client.circuit.half-open-probes:2}") int halfOpenProbes,
+            Environment environment,
+            MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.keepAlive = TimeValue.ofSeconds(keepAliveSeconds);
+        // The pool only ever talks to the AI service, so all connections are on one route
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnections)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .setTimeToLive(TimeValue.ofMinutes(5))
+                        .build())
+                .build();
+
+        for (Operation operation : Operation.values()) {
+            String prefix = "app.ai-client." + operation.key + ".";
+            // A client per operation only to carry its timeouts; they all share the pool
+            int readTimeoutMs = environment.getProperty(prefix + "read-timeout-ms", Integer.class, operation.defaultReadTimeoutMs);
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout(Timeout.ofMilliseconds(
+                            environment.getProperty(prefix + "connect-timeout-ms", Integer.class, 2000)))
+                    .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMs))
+                    .setConnectionRequestTimeout(Timeout.ofMilliseconds(poolWaitMs))
+                    .build();
+            HttpComponentsClientHttpRequestFactory factory = new HttpComponentsClientHttpRequestFactory(HttpClients.custom()
+                    .setConnectionManager(connectionManager)
+                    .setConnectionManagerShared(true)
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy((response, context) -> keepAlive)
+                    .build());
+
+            RestClient client = RestClient.builder()
+                    .baseUrl(aiServiceUrl)
+                    .requestFactory(factory)
+                    .requestInterceptor((request, body, execution) -> {
+                        Tracing.current().inject(request.getHeaders());
+                        return execution.execute(request, body);
+                    })
+                    .build();
+            CircuitBreaker breaker = new CircuitBreaker(operation.key, failureRateThreshold, windowSize, minimumCalls,
+                    Duration.ofSeconds(openSeconds), halfOpenProbes);
+            lanes.put(operation, new Lane(client, breaker, Duration.ofMillis(readTimeoutMs),
+                    environment.getProperty(prefix + "max-concurrent", Integer.class, operation.defaultMaxConcurrent),
+                    environment.getProperty(prefix + "bulkhead-wait-ms", Long.class, 1000L)));
+        }
+
+        Gauge.builder("ai.client.pool.leased", connectionManager, pool -> pool.getTotalStats().getLeased())
+                .register(meterRegistry);
+        Gauge.builder("ai.client.pool.pending", connectionManager, pool -> pool.getTotalStats().getPending())
+                .description("Calls waiting for a pooled connection")
+                .register(meterRegistry);
+        Gauge.builder("ai.client.pool.available", connectionManager, pool -> pool.getTotalStats().getAvailable())
+                .register(meterRegistry);
+        lanes.forEach((operation, lane) -> {
+            Gauge.builder("ai.client.in.use", lane.inUse, AtomicInteger::get)
+                    .tag("operation", operation.key)
+                    .register(meterRegistry);
+            Gauge.builder("ai.client.bulkhead.waiting", lane.permits, Semaphore::getQueueLength)
+                    .tag("operation", operation.key)
+                    .register(meterRegistry);
+            // 0 closed, 1 open, 2 half-open
+            Gauge.builder("ai.client.circuit.state", lane.breaker, breaker -> breaker.getState().ordinal())
+                    .tag("operation", operation.key)
+                    .register(meterRegistry);
+        });
+    }
+
+    /**
+     * Runs {@code call} with the operation's client once a slot in its
+     * bulkhead is free, waiting at most the configured bulkhead wait.
+     *
+     * @throws CircuitBreaker.CircuitOpenException without calling out while the
+     *                                             operation's circuit is open
+     */
+    public <T> T call(Operation operation, Function<RestClient, T> call) {
+        RequestTrace trace = Tracing.current();
+        long start = System.nanoTime();
+        try {
+            T result = attempt(operation, call);
+            record(operation, "blocking", trace, start, null);
+            return result;
+        } catch (RuntimeException | Error e) {
+            record(operation, "blocking", trace, start, e);
+            throw e;
+        }
+    }
+
+    private <T> T attempt(Operation operation, Function<RestClient, T> call) {
+        Lane lane = lanes.get(operation);
+        long permit = lane.breaker.acquirePermission();
+
+        boolean acquired;
+        try {
+            acquired = lane.permits.tryAcquire(lane.waitMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            lane.breaker.onIgnored(permit);
+            lane.rejected.incrementAndGet();
+            throw new BulkheadFullException(operation);
+        }
+
+        int inUse = lane.inUse.incrementAndGet();
+        lane.peakInUse.accumulateAndGet(inUse, Math::max);
+        lane.calls.incrementAndGet();
+        try {
+            T result = call.apply(lane.client);
+            lane.breaker.onSuccess(permit);
+            return result;
+        } catch (HttpClientErrorException e) {
+            // A 4xx is about the request, not the service's health
+            lane.breaker.onIgnored(permit);
+            throw e;
+        } catch (RuntimeException | Error e) {
+            lane.breaker.onFailure(permit);
+            throw e;
+        } finally {
+            lane.inUse.decrementAndGet();
+            lane.permits.release();
+        }
+    }
+
+    /**
+     * Records one call in the {@code ai.client.requests} timer, tagged with
+     * the operation, the client kind and how it ended, and as an
+     * {@code ai.<operation>} stage of the request's trace.
+     */
+    public void record(Operation operation, String client, RequestTrace trace, long startNanos, Throwable error) {
+        String status = "none";
+        String outcome;
+        if (error == null) {
+            outcome = "success";
+        } else if (error instanceof CircuitBreaker.CircuitOpenException) {
+            outcome = "circuit_open";
+        } else if (error instanceof BulkheadFullException) {
+            outcome = "bulkhead_full";
+        } else if (error instanceof RestClientResponseException response) {
+            status = String.valueOf(response.getStatusCode().value());
+            outcome = response.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        } else if (error instanceof WebClientResponseException response) {
+            status = String.valueOf(response.getStatusCode().value());
+            outcome = response.getStatusCode().is4xxClientError() ? "client_error" : "server_error";
+        } else if (error instanceof TimeoutException || error.getCause() instanceof SocketTimeoutException) {
+            outcome = "timeout";
+        } else {
+            outcome = "io_error";
+        }
+        Timer.builder("ai.client.requests")
+                .description("Calls to the AI service")
+                .tags("operation", operation.key, "client", client, "outcome", outcome, "status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        trace.record("ai." + operation.key, startNanos, error == null ? null : outcome);
+    }
+
+    /**
+     * False while the operation's circuit is open, for callers that would
+     * rather not start work that needs it (e.g. claiming a queued job).
+     */
+    public boolean isAvailable(Operation operation) {
+        return lanes.get(operation).breaker.isCallPermitted();
+    }
+
+    /**
+     * The operation's breaker, shared with {@link ReactiveAIService} so both
+     * paths see the same outage.
+     */
+    public CircuitBreaker breaker(Operation operation) {
+        return lanes.get(operation).breaker;
+    }
+
+    public Duration readTimeout(Operation operation) {
+        return lanes.get(operation).readTimeout;
+    }
+
+    // The clients share the pool, so idle connections are evicted here rather than by each client
+    @Scheduled(fixedDelay = 10_000)
+    public void evictIdleConnections() {
+        connectionManager.closeExpired();
+        connectionManager.closeIdle(keepAlive);
+    }
+
+    /**
+     * Connection pool and per-operation bulkhead usage. {@code pending} on the
+     * pool, or {@code waiting}/{@code rejected} on an operation, going above
+     * zero under normal traffic means that limit is too small.
+     */
+    public Map<String, Object> stats() {
+        PoolStats pool = connectionManager.getTotalStats();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pool", Map.of(
+                "max", pool.getMax(),
+                "leased", pool.getLeased(),
+                "available", pool.getAvailable(),
+                "pending", pool.getPending()));
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        lanes.forEach((operation, lane) -> operations.put(operation.key, Map.of(
+                "maxConcurrent", lane.maxConcurrent,
+                "inUse", lane.inUse.get(),
+                "peakInUse", lane.peakInUse.get(),
+                "waiting", lane.permits.getQueueLength(),
+                "calls", lane.calls.get(),
+                "rejected", lane.rejected.get(),
+                "circuit", lane.breaker.stats())));
+        stats.put("operations", operations);
+        return stats;
+    }
+
+    @Override
+    public void destroy() {
+        connectionManager.close();
+    }
+
+    private static final class Lane {
+        final RestClient client;
+        final CircuitBreaker breaker;
+        final Duration readTimeout;
+        final int maxConcurrent;
+        final long waitMs;
+        final Semaphore permits;
+        final AtomicInteger inUse = new AtomicInteger();
+        final AtomicInteger peakInUse = new AtomicInteger();
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+
+        Lane(RestClient client, CircuitBreaker breaker, Duration readTimeout, int maxConcurrent, long waitMs) {
+            this.client = client;
+            this.breaker = breaker;
+            this.readTimeout = readTimeout;
+            this.maxConcurrent = maxConcurrent;
+            this.waitMs = waitMs;
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+    }
+}
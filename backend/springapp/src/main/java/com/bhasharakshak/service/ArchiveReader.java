@@ -0,0 +1,247 @@
+package com.bhasharakshak.service;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Reads the regular files of a ZIP, TAR or gzipped TAR archive one after
+ * another straight off a stream; nothing is unpacked to disk. Each entry's
+ * content is only readable until {@link #next()} is called again.
+ */
+final class ArchiveReader implements Closeable {
+
+    private static final int BLOCK = 512;
+
+    record Entry(String name, long size, InputStream content) {
+    }
+
+    private final InputStream source;
+    private final ZipInputStream zip;
+    private TarContent tarContent; // content of the current tar entry
+
+    private ArchiveReader(InputStream source, boolean isZip) {
+        this.source = source;
+        this.zip = isZip ? new ZipInputStream(source, StandardCharsets.UTF_8) : null;
+    }
+
+    static ArchiveReader open(InputStream stream) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(stream, 64 * 1024);
+        in.mark(2);
+        byte[] magic = in.readNBytes(2);
+        in.reset();
+        if (magic.length == 2 && (magic[0] & 0xff) == 0x1f && (magic[1] & 0xff) == 0x8b) {
+            in = new BufferedInputStream(new GZIPInputStream(in, 64 * 1024), 64 * 1024);
+        }
+
+        in.mark(BLOCK);
+        byte[] head = in.readNBytes(BLOCK);
+        in.reset();
+        if (head.length >= 4 && head[0] == 'P' && head[1] == 'K' && head[2] == 3 && head[3] == 4) {
+            return new ArchiveReader(in, true);
+        }
+        if (head.length == BLOCK && "ustar".equals(new String(head, 257, 5, StandardCharsets.US_ASCII))) {
+            return new ArchiveReader(in, false);
+        }
+        throw new IOException("Not a ZIP or TAR archive");
+    }
+
+    /**
+     * @return the next regular file, or null at the end of the archive
+     */
+    Entry next() throws IOException {
+        return zip != null ? nextZip() : nextTar();
+    }
+
+    @Override
+    public void close() throws IOException {
+        (zip != null ? zip : source).close();
+    }
+
+    private Entry nextZip() throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            if (!entry.isDirectory()) {
+                return new Entry(entry.getName(), entry.getSize(), new NonClosing(zip));
+            }
+        }
+        return null;
+    }
+
+    private Entry nextTar() throws IOException {
+        String longName = null;
+        while (true) {
+            if (tarContent != null) {
+                tarContent.skipToEnd();
+                tarContent = null;
+            }
+
+            byte[] header = source.readNBytes(BLOCK);
+            if (header.length < BLOCK || isZeroBlock(header)) {
+                return null; // end-of-archive marker (or a truncated archive)
+            }
+            if (!checksumMatches(header)) {
+                throw new IOException("Corrupt TAR header");
+            }
+
+            char type = (char) header[156];
+            long size = parseNumber(header, 124, 12);
+            tarContent = new TarContent(source, size);
+            switch (type) {
+                case 'L' -> longName = trimNul(tarContent.readAllBytes()); // GNU long name of the next entry
+                case 'x' -> longName = paxPath(tarContent.readAllBytes(), longName);
+                case '0', '\0', '7' -> {
+                    String name = longName != null ? longName : headerName(header);
+                    return new Entry(name, size, tarContent);
+                }
+                default -> longName = null; // directories, links, global headers
+            }
+        }
+    }
+
+    private static String headerName(byte[] header) {
+        String name = field(header, 0, 100);
+        String prefix = field(header, 345, 155);
+        return prefix.isEmpty() ? name : prefix + "/" + name;
+    }
+
+    // PAX extended header: "<length> <key>=<value>\n" records
+    private static String paxPath(byte[] records, String fallback) {
+        String text = new String(records, StandardCharsets.UTF_8);
+        String path = fallback;
+        for (String record : text.split("\n")) {
+            int space = record.indexOf(' ');
+            if (space > 0 && record.startsWith("path=", space + 1)) {
+                path = record.substring(space + 6);
+            }
+        }
+        return path;
+    }
+
+    private static String field(byte[] header, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && header[end] != 0) {
+            end++;
+        }
+        return new String(header, offset, end - offset, StandardCharsets.UTF_8);
+    }
+
+    private static String trimNul(byte[] bytes) {
+        int end = bytes.length;
+        while (end > 0 && bytes[end - 1] == 0) {
+            end--;
+        }
+        return new String(bytes, 0, end, StandardCharsets.UTF_8);
+    }
+
+    // Octal, or base-256 (high bit set) for sizes that do not fit in 11 octal digits
+    private static long parseNumber(byte[] header, int offset, int length) throws IOException {
+        if ((header[offset] & 0x80) != 0) {
+            long value = header[offset] & 0x7f;
+            for (int i = 1; i < length; i++) {
+                value = (value << 8) | (header[offset + i] & 0xff);
+            }
+            return value;
+        }
+        long value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            byte b = header[i];
+            if (b == 0 || b == ' ') {
+                if (value > 0) {
+                    break;
+                }
+                continue;
+            }
+            if (b < '0' || b > '7') {
+                throw new IOException("Corrupt TAR header");
+            }
+            value = value * 8 + (b - '0');
+        }
+        return value;
+    }
+
+    private static boolean checksumMatches(byte[] header) throws IOException {
+        long sum = 0;
+        for (int i = 0; i < BLOCK; i++) {
+            sum += (i >= 148 && i < 156) ? ' ' : (header[i] & 0xff);
+        }
+        return sum == parseNumber(header, 148, 8);
+    }
+
+    private static boolean isZeroBlock(byte[] block) {
+        for (byte b : block) {
+            if (b != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One tar entry's bytes; skipping to the end also consumes the padding
+     * up to the next 512-byte block.
+     */
+    private static final class TarContent extends InputStream {
+        private final InputStream source;
+        private long remaining;
+        private final long padding;
+
+        TarContent(InputStream source, long size) {
+            this.source = source;
+            this.remaining = size;
+            this.padding = (BLOCK - size % BLOCK) % BLOCK;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int b = source.read();
+            if (b < 0) {
+                throw new IOException("Truncated TAR entry");
+            }
+            remaining--;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = source.read(buffer, offset, (int) Math.min(length, remaining));
+            if (n < 0) {
+                throw new IOException("Truncated TAR entry");
+            }
+            remaining -= n;
+            return n;
+        }
+
+        void skipToEnd() throws IOException {
+            source.skipNBytes(remaining + padding);
+            remaining = 0;
+        }
+
+        @Override
+        public void close() {
+            // The archive owns the source
+        }
+    }
+
+    private static final class NonClosing extends FilterInputStream {
+        NonClosing(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
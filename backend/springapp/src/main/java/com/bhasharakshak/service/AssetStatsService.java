@@ -0,0 +1,249 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.event.AssetChangedEvent;
+import com.bhasharakshak.event.AssetSnapshot;
+import com.bhasharakshak.model.AssetStatsRollup;
+import com.bhasharakshak.model.LanguageAsset;
+import com.bhasharakshak.model.LanguageTotal;
+import lombok.RequiredArgsConstructor;
+import org.bson.Document;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TimeZone;
+
+/**
+ * Asset counts for the dashboard, read from the language_totals rollup (one
+ * document per language) instead of scanning every asset.
+ *
+ * Each asset insert, delete or bucket change (language, status) moves one
+ * count between asset_stats buckets with $inc, and between language totals
+ * when the language or its verified-and-public state changes. A periodic reconciliation recomputes the
+ * buckets with a server-side aggregation and corrects any drift, e.g. from a
+ * node that died between saving an asset and updating its bucket, or an
+ * increment that raced with the reconciliation itself. It also builds the
+ * rollup the first time against existing data.
+ */
+@Service
+@RequiredArgsConstructor
+public class AssetStatsService {
+
+    private static final String UNKNOWN = "unknown";
+    private static final int TOP_LANGUAGES = 5;
+
+    private final MongoTemplate mongoTemplate;
+
+    @EventListener
+    public void onAssetChanged(AssetChangedEvent event) {
+        Bucket before = event.before() != null ? Bucket.of(event.before()) : null;
+        Bucket after = event.after() != null ? Bucket.of(event.after()) : null;
+        Total totalBefore = event.before() != null ? Total.of(event.before()) : null;
+        Total totalAfter = event.after() != null ? Total.of(event.after()) : null;
+        if (Objects.equals(before, after) && Objects.equals(totalBefore, totalAfter)) {
+            return;
+        }
+        try {
+            if (!Objects.equals(before, after)) {
+                if (before != null) {
+                    increment(before, -1);
+                }
+                if (after != null) {
+                    increment(after, 1);
+                }
+            }
+            if (!Objects.equals(totalBefore, totalAfter)) {
+                if (totalBefore != null) {
+                    incrementTotal(totalBefore, -1);
+                }
+                if (totalAfter != null) {
+                    incrementTotal(totalAfter, 1);
+                }
+            }
+        } catch (Exception e) {
+            // The next reconciliation fixes the counts
+            System.err.println("Stats rollup update failed for asset " + event.assetId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Totals, the top languages and every language's count of searchable
+     * (verified, public) assets, in the shape /api/v1/stats returns. Reads one
+     * document per language, however many assets and days there are.
+     */
+    public Map<String, Object> summary() {
+        List<LanguageTotal> perLanguage = mongoTemplate.find(
+                new Query(Criteria.where("count").gt(0)).with(Sort.by(Sort.Order.desc("count"))),
+                LanguageTotal.class);
+
+        long totalAssets = 0;
+        int languageCount = 0;
+        List<Map<String, Object>> distribution = new ArrayList<>();
+        List<Map<String, Object>> languages = new ArrayList<>();
+        for (LanguageTotal row : perLanguage) {
+            long count = row.getCount();
+            totalAssets += count;
+            String language = row.getId();
+            languages.add(Map.of("name", language != null ? language : "", "count", count, "published", row.getPublished()));
+            if (language == null || language.isEmpty()) {
+                continue;
+            }
+            languageCount++;
+            if (distribution.size() < TOP_LANGUAGES) {
+                distribution.add(Map.of("name", language, "value", count));
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totalAssets", totalAssets);
+        summary.put("languageCount", languageCount);
+        summary.put("distribution", distribution);
+        summary.put("languages", languages);
+        return summary;
+    }
+
+    @Scheduled(initialDelayString = "${app.stats.reconcile-initial-delay-ms:30000}",
+            fixedDelayString = "${app.stats.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        Map<Bucket, Long> actual = new HashMap<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(LanguageAsset.class))
+                .aggregate(List.of(
+                        new Document("$group", new Document("_id", new Document()
+                                .append("languageName", new Document("$ifNull", List.of("$languageName", "")))
+                                .append("status", new Document("$ifNull", List.of("$status", UNKNOWN)))
+                                .append("day", new Document("$dateToString", new Document()
+                                        .append("date", "$createdAt")
+                                        .append("format", "%Y-%m-%d")
+                                        // createdAt is a LocalDateTime saved in the server's zone
+                                        .append("timezone", TimeZone.getDefault().getID())
+                                        .append("onNull", UNKNOWN))))
+                                .append("count", new Document("$sum", 1)))))
+                .allowDiskUse(true)
+                .forEach(row -> {
+                    Document key = row.get("_id", Document.class);
+                    Bucket bucket = new Bucket(key.getString("languageName"), key.getString("status"), key.getString("day"));
+                    actual.put(bucket, ((Number) row.get("count")).longValue());
+                });
+
+        Map<String, Long> recorded = new HashMap<>();
+        for (AssetStatsRollup rollup : mongoTemplate.findAll(AssetStatsRollup.class)) {
+            recorded.put(rollup.getId(), rollup.getCount());
+        }
+
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, AssetStatsRollup.class);
+        int corrections = 0;
+        for (Map.Entry<Bucket, Long> entry : actual.entrySet()) {
+            Bucket bucket = entry.getKey();
+            long count = entry.getValue();
+            if (!Objects.equals(recorded.remove(bucket.id()), count)) {
+                bulk.upsert(new Query(Criteria.where("_id").is(bucket.id())), bucketUpdate(bucket).set("count", count));
+                corrections++;
+            }
+        }
+        for (String staleId : recorded.keySet()) {
+            bulk.remove(new Query(Criteria.where("_id").is(staleId)));
+            corrections++;
+        }
+
+        if (corrections > 0) {
+            bulk.execute();
+            System.out.println("Stats reconciliation corrected " + corrections + " rollup buckets");
+        }
+
+        // Language totals: all assets, and the verified public ones (Total.of)
+        Map<String, List<Long>> actualTotals = new HashMap<>();
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(LanguageAsset.class))
+                .aggregate(List.of(
+                        new Document("$group", new Document("_id", new Document("$ifNull", List.of("$languageName", "")))
+                                .append("count", new Document("$sum", 1))
+                                .append("published", new Document("$sum", new Document("$cond", List.of(
+                                        new Document("$and", List.of(
+                                                new Document("$eq", List.of(new Document("$toLower", "$status"), "verified")),
+                                                new Document("$ne", List.of("$isPrivate", true)))),
+                                        1, 0)))))))
+                .allowDiskUse(true)
+                .forEach(row -> actualTotals.put(row.getString("_id"), List.of(
+                        ((Number) row.get("count")).longValue(), ((Number) row.get("published")).longValue())));
+
+        Map<String, List<Long>> recordedTotals = new HashMap<>();
+        for (LanguageTotal total : mongoTemplate.findAll(LanguageTotal.class)) {
+            recordedTotals.put(total.getId(), List.of(total.getCount(), total.getPublished()));
+        }
+
+        BulkOperations totals = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, LanguageTotal.class);
+        int totalCorrections = 0;
+        for (Map.Entry<String, List<Long>> entry : actualTotals.entrySet()) {
+            if (!Objects.equals(recordedTotals.remove(entry.getKey()), entry.getValue())) {
+                totals.upsert(new Query(Criteria.where("_id").is(entry.getKey())), new Update()
+                        .set("count", entry.getValue().get(0))
+                        .set("published", entry.getValue().get(1))
+                        .set("updatedAt", LocalDateTime.now()));
+                totalCorrections++;
+            }
+        }
+        for (String staleId : recordedTotals.keySet()) {
+            totals.remove(new Query(Criteria.where("_id").is(staleId)));
+            totalCorrections++;
+        }
+
+        if (totalCorrections > 0) {
+            totals.execute();
+            System.out.println("Stats reconciliation corrected " + totalCorrections + " language totals");
+        }
+    }
+
+    private void increment(Bucket bucket, long delta) {
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(bucket.id())),
+                bucketUpdate(bucket).inc("count", delta), AssetStatsRollup.class);
+    }
+
+    private void incrementTotal(Total total, long delta) {
+        Update update = new Update().inc("count", delta).set("updatedAt", LocalDateTime.now());
+        if (total.published()) {
+            update.inc("published", delta);
+        }
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(total.languageName())), update, LanguageTotal.class);
+    }
+
+    private static Update bucketUpdate(Bucket bucket) {
+        return new Update()
+                .setOnInsert("languageName", bucket.languageName())
+                .setOnInsert("status", bucket.status())
+                .setOnInsert("day", bucket.day())
+                .set("updatedAt", LocalDateTime.now());
+    }
+
+    private record Bucket(String languageName, String status, String day) {
+
+        static Bucket of(AssetSnapshot asset) {
+            return new Bucket(
+                    asset.languageName() != null ? asset.languageName() : "",
+                    asset.status() != null ? asset.status() : UNKNOWN,
+                    asset.createdAt() != null ? asset.createdAt().toLocalDate().toString() : UNKNOWN);
+        }
+
+        String id() {
+            return languageName + "|" + status + "|" + day;
+        }
+    }
+
+    private record Total(String languageName, boolean published) {
+
+        static Total of(AssetSnapshot asset) {
+            return new Total(asset.languageName() != null ? asset.languageName() : "", asset.isPublicVerified());
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.model.ContentBlob;
+import com.bhasharakshak.service.audio.FlacEncoder;
+import com.bhasharakshak.service.audio.Resampler;
+import com.bhasharakshak.service.audio.WavReader;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+
+/**
+ * Stores uploaded recordings in a smaller form. A PCM WAV upload is decoded
+ * once, as it streams in, into two FLAC files written to GridFS side by side:
+ * a lossless archival copy at the original rate and channels, and a playback
+ * copy downmixed to mono and resampled to 16 kHz, which is what playback and
+ * STT are served. The WAV itself is kept only if asked for, or if it holds
+ * 32-bit or float samples that the archival FLAC could not carry exactly.
+ *
+ * Anything else (the browser recorder sends WebM/Opus) is stored unchanged.
+ * Either way the result is deduplicated on the SHA-256 of the bytes received,
+ * like any other stored content (see {@link StorageService}).
+ */
+@Service
+public class AudioTranscodeService {
+
+    private static final int FRAMES_PER_READ = 4096;
+    // How far into the upload the WAV header may reach and still be sniffed
+    private static final int HEADER_LIMIT = 1024 * 1024;
+
+    private final StorageService storageService;
+    private final boolean enabled;
+    private final int playbackSampleRate;
+    private final boolean keepOriginal;
+
+    public AudioTranscodeService(
+            StorageService storageService,
+            @Value("${app.audio.transcode.enabled:true}") boolean enabled,
+            @Value("${app.audio.playback-sample-rate:16000}") int playbackSampleRate,
+            @Value("${app.audio.keep-original:false}") boolean keepOriginal) {
+        this.storageService = storageService;
+        this.enabled = enabled;
+        this.playbackSampleRate = playbackSampleRate;
+        this.keepOriginal = keepOriginal;
+    }
+
+    /**
+     * GridFS ids of a stored recording. {@code fileId} is the one to play and
+     * transcribe; the others are null when there is no such copy.
+     */
+    public record StoredAudio(String fileId, String archiveFileId, String originalFileId) {
+    }
+
+    public StoredAudio store(MultipartFile file) {
+        // Already on local disk: a repeated upload is found before anything is decoded or stored
+        ContentBlob existing = storageService.reference(storageService.hash(file));
+        if (existing != null) {
+            return of(existing);
+        }
+        try (InputStream content = file.getInputStream()) {
+            return store(content, file.getOriginalFilename(), file.getContentType());
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read uploaded file", ex);
+        }
+    }
+
+    /**
+     * Store a recording, transcoded if it is a WAV file, or reference the
+     * copies stored for the same bytes before. The stream is not closed.
+     */
+    public StoredAudio store(InputStream content, String filename, String contentType) {
+        MeteredInputStream counted = new MeteredInputStream(content, null, null);
+        DigestInputStream digest = new DigestInputStream(counted, sha256());
+        BufferedInputStream in = new BufferedInputStream(digest, 64 * 1024);
+        try {
+            WavReader header = enabled ? sniff(in, filename) : null;
+            if (header == null) {
+                return of(storageService.storeBlob(in, filename, contentType));
+            }
+            StoredAudio stored = transcode(in, header, filename, contentType);
+
+            // Keyed by the bytes received, so the next upload of this WAV finds these FLACs
+            ContentBlob blob = new ContentBlob();
+            blob.setId(HexFormat.of().formatHex(digest.getMessageDigest().digest()));
+            blob.setFileId(stored.fileId());
+            blob.setArchiveFileId(stored.archiveFileId());
+            blob.setOriginalFileId(stored.originalFileId());
+            blob.setSize(counted.getCount());
+            blob.setContentType(contentType);
+            return of(storageService.register(blob));
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not store file in GridFS", ex);
+        }
+    }
+
+    /** Gives back the reference a store took; see {@link StorageService#release}. */
+    public void release(StoredAudio audio) {
+        storageService.release(audio.fileId());
+    }
+
+    private static StoredAudio of(ContentBlob blob) {
+        return new StoredAudio(blob.getFileId(), blob.getArchiveFileId(), blob.getOriginalFileId());
+    }
+
+    // The WAV header if the upload is a WAV file this can decode, else null; the stream is rewound either way
+    private static WavReader sniff(BufferedInputStream in, String filename) throws IOException {
+        in.mark(HEADER_LIMIT);
+        byte[] head = in.readNBytes(12);
+        in.reset();
+        if (!WavReader.isWav(head, head.length)) {
+            return null;
+        }
+        WavReader header;
+        try {
+            header = WavReader.open(in);
+        } catch (WavReader.UnsupportedFormatException | EOFException e) {
+            System.err.println("Storing " + filename + " as uploaded: " + e.getMessage());
+            header = null;
+        }
+        in.reset();
+        return header;
+    }
+
+    private StoredAudio transcode(InputStream in, WavReader header, String filename, String contentType)
+            throws IOException {
+        int sampleRate = header.sampleRate();
+        int channels = header.channels();
+        int bits = header.bitsPerSample();
+        long frames = header.frames();
+        // Already 16-bit mono at the playback rate: one FLAC serves as both copies
+        boolean playbackIsArchive = header.isExact() && bits == 16 && channels == 1 && sampleRate == playbackSampleRate;
+
+        String base = baseName(filename);
+        List<StorageService.Upload> uploads = new ArrayList<>();
+        try {
+            StorageService.Upload original = null;
+            InputStream source = in;
+            if (keepOriginal || !header.isExact()) {
+                original = storageService.openUpload(filename, contentType);
+                uploads.add(original);
+                source = new CopyingInputStream(in, original);
+            }
+            WavReader wav = WavReader.open(source);
+
+            StorageService.Upload archive = null;
+            FlacEncoder archiveEncoder = null;
+            if (header.isExact() && !playbackIsArchive) {
+                archive = storageService.openUpload(base + ".flac", "audio/flac");
+                uploads.add(archive);
+                archiveEncoder = new FlacEncoder(archive, sampleRate, channels, bits, Math.max(frames, 0));
+            }
+
+            StorageService.Upload playback = storageService.openUpload(
+                    base + (playbackIsArchive ? ".flac" : ".playback.flac"), "audio/flac");
+            uploads.add(playback);
+            long playbackFrames = frames > 0 ? (frames * playbackSampleRate + sampleRate - 1) / sampleRate : 0;
+            FlacEncoder playbackEncoder = new FlacEncoder(playback, playbackSampleRate, 1, 16, playbackFrames);
+            Resampler resampler = new Resampler(sampleRate, playbackSampleRate);
+
+            int[][] samples = new int[channels][FRAMES_PER_READ];
+            double[] mono = new double[FRAMES_PER_READ];
+            double[] resampled = new double[resampler.maxOutput(FRAMES_PER_READ)];
+            int[][] pcm = new int[1][resampled.length];
+            double scale = 1.0 / ((double) channels * (1 << (bits - 1)));
+            int n;
+            while ((n = wav.read(samples, FRAMES_PER_READ)) > 0) {
+                if (archiveEncoder != null) {
+                    archiveEncoder.write(samples, n);
+                }
+                for (int i = 0; i < n; i++) {
+                    long sum = 0;
+                    for (int c = 0; c < channels; c++) {
+                        sum += samples[c][i];
+                    }
+                    mono[i] = sum * scale;
+                }
+                playbackEncoder.write(pcm, quantize(resampled, resampler.process(mono, n, resampled), pcm[0]));
+            }
+            playbackEncoder.write(pcm, quantize(resampled, resampler.flush(resampled), pcm[0]));
+
+            if (archiveEncoder != null) {
+                archiveEncoder.finish();
+            }
+            playbackEncoder.finish();
+            // Chunks after the samples: part of the original and of the hash
+            source.transferTo(OutputStream.nullOutputStream());
+            for (StorageService.Upload upload : uploads) {
+                upload.close();
+            }
+
+            String archiveId = playbackIsArchive ? playback.getId() : archive != null ? archive.getId() : null;
+            return new StoredAudio(playback.getId(), archiveId, original != null ? original.getId() : null);
+        } catch (IOException | RuntimeException e) {
+            for (StorageService.Upload upload : uploads) {
+                try {
+                    upload.abort();
+                } catch (RuntimeException abortError) {
+                    System.err.println("Could not discard partial upload " + upload.getId() + ": " + abortError.getMessage());
+                }
+            }
+            throw e;
+        }
+    }
+
+    // Rounds to 16-bit samples
+    private static int quantize(double[] in, int n, int[] out) {
+        for (int i = 0; i < n; i++) {
+            long value = Math.round(in[i] * 32768.0);
+            out[i] = (int) Math.max(-32768, Math.min(32767, value));
+        }
+        return n;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String baseName(String filename) {
+        if (filename == null || filename.isEmpty()) {
+            return "recording";
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+
+    // Writes everything read through it to a second stream
+    private static final class CopyingInputStream extends FilterInputStream {
+        private final OutputStream copy;
+
+        CopyingInputStream(InputStream in, OutputStream copy) {
+            super(in);
+            this.copy = copy;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                copy.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                copy.write(buffer, offset, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] buffer = new byte[(int) Math.min(n, 8192)];
+            long skipped = 0;
+            while (skipped < n) {
+                int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+                if (read < 0) {
+                    break;
+                }
+                skipped += read;
+            }
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+    }
+}
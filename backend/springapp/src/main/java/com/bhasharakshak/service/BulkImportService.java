@@ -0,0 +1,378 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.event.AssetChangedEvent;
+import com.bhasharakshak.model.ImportBatch;
+import com.bhasharakshak.model.LanguageAsset;
+import com.bhasharakshak.repository.AssetRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Bulk import of field recordings from a ZIP/TAR archive. Entries are
+ * streamed one by one into GridFS (WAV transcoded as for single uploads); their assets are inserted with one
+ * insertMany per {@code app.import.insert-batch-size} items and queued for
+ * transcription straight away, so workers start on the first recordings
+ * while the rest of the archive is still arriving.
+ *
+ * Progress is saved with every insert, so an import that breaks off can be
+ * resumed by sending the archive again: items already imported are skipped.
+ * Recordings stored after the last insert are found by their hash on
+ * resume and not stored twice.
+ */
+@Service
+public class BulkImportService {
+
+    private static final Map<String, String> AUDIO_TYPES = Map.of(
+            "wav", "audio/wav",
+            "mp3", "audio/mpeg",
+            "m4a", "audio/mp4",
+            "aac", "audio/aac",
+            "ogg", "audio/ogg",
+            "opus", "audio/opus",
+            "flac", "audio/flac",
+            "webm", "audio/webm");
+
+    private final MongoTemplate mongoTemplate;
+    private final AudioTranscodeService audioTranscodeService;
+    private final AssetRepository assetRepository;
+    private final TranscriptionQueue transcriptionQueue;
+    private final ApplicationEventPublisher events;
+    private final ProfanityFilter profanityFilter;
+    private final int insertBatchSize;
+    private final Duration lease;
+
+    public BulkImportService(
+            MongoTemplate mongoTemplate,
+            AudioTranscodeService audioTranscodeService,
+            AssetRepository assetRepository,
+            TranscriptionQueue transcriptionQueue,
+            ApplicationEventPublisher events,
+            ProfanityFilter profanityFilter,
+            @Value("${app.import.insert-batch-size:50}") int insertBatchSize,
+            @Value("${app.import.lease-minutes:10}") long leaseMinutes) {
+        this.mongoTemplate = mongoTemplate;
+        this.audioTranscodeService = audioTranscodeService;
+        this.assetRepository = assetRepository;
+        this.transcriptionQueue = transcriptionQueue;
+        this.events = events;
+        this.profanityFilter = profanityFilter;
+        this.insertBatchSize = insertBatchSize;
+        this.lease = Duration.ofMinutes(leaseMinutes);
+    }
+
+    /**
+     * Creates a batch from a parsed manifest (may be empty) and the defaults
+     * set on {@code batch}.
+     */
+    public ImportBatch createBatch(ImportBatch batch, List<ImportBatch.Item> manifest) {
+        Instant now = Instant.now();
+        batch.setId(UUID.randomUUID().toString());
+        batch.setStatus(ImportBatch.OPEN);
+        batch.setItems(new ArrayList<>());
+        merge(batch, manifest);
+        batch.setCreatedAt(now);
+        batch.setUpdatedAt(now);
+        return mongoTemplate.insert(batch);
+    }
+
+    public List<ImportBatch.Item> parseManifest(String filename, InputStream content) throws IOException {
+        return ImportManifest.parse(filename, content);
+    }
+
+    public Optional<ImportBatch> find(String id) {
+        return Optional.ofNullable(mongoTemplate.findById(id, ImportBatch.class));
+    }
+
+    /**
+     * Takes the batch for this request, unless another one is streaming an
+     * archive into it and its lease has not run out.
+     */
+    public Optional<ImportBatch> claim(String id) {
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("_id").is(id).orOperator(
+                Criteria.where("status").ne(ImportBatch.RUNNING),
+                Criteria.where("leaseExpiresAt").lt(now)));
+        Update update = new Update()
+                .set("status", ImportBatch.RUNNING)
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedAt", now);
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), ImportBatch.class));
+    }
+
+    /**
+     * Streams a claimed batch's archive into GridFS and assets.
+     * {@code progress} sees each item once it is imported or has failed.
+     * The batch is released when this returns or throws.
+     *
+     * @param fileUrlPrefix URL that a GridFS id is appended to for the asset's audioUrl
+     */
+    public ImportBatch importArchive(ImportBatch batch, InputStream archive, String fileUrlPrefix,
+            Consumer<ImportBatch.Item> progress) throws IOException {
+        Map<String, ImportBatch.Item> index = index(batch.getItems());
+        List<Stored> pending = new ArrayList<>();
+        boolean sawRecording = false;
+
+        try (ArchiveReader reader = ArchiveReader.open(archive)) {
+            ArchiveReader.Entry entry;
+            while ((entry = reader.next()) != null) {
+                String name = entry.name();
+                if (isIgnored(name)) {
+                    continue;
+                }
+                // A manifest inside the archive counts if it comes before the recordings
+                if (ImportManifest.isManifestName(name)) {
+                    if (!sawRecording) {
+                        merge(batch, ImportManifest.parse(name, entry.content()));
+                        index = index(batch.getItems());
+                    }
+                    continue;
+                }
+
+                String contentType = AUDIO_TYPES.get(extension(name));
+                ImportBatch.Item item = lookup(index, name);
+                if (item == null) {
+                    if (contentType == null) {
+                        continue; // neither listed nor a recording
+                    }
+                    item = new ImportBatch.Item();
+                    item.setFile(name);
+                    item.setStatus(ImportBatch.Item.PENDING);
+                    batch.getItems().add(item);
+                    index.put(name, item);
+                }
+                if (ImportBatch.Item.IMPORTED.equals(item.getStatus())) {
+                    continue; // done by an earlier attempt
+                }
+                sawRecording = true;
+
+                String invalid = validate(batch, item);
+                if (invalid != null) {
+                    mark(item, ImportBatch.Item.FAILED, invalid);
+                    progress.accept(item);
+                    continue;
+                }
+
+                AudioTranscodeService.StoredAudio audio = audioTranscodeService.store(entry.content(),
+                        ImportManifest.baseName(name), contentType != null ? contentType : "application/octet-stream");
+                item.setFileId(audio.fileId());
+                pending.add(new Stored(item, newAsset(batch, item, fileUrlPrefix, audio), audio));
+                if (pending.size() >= insertBatchSize) {
+                    flush(batch, pending, progress);
+                }
+            }
+            flush(batch, pending, progress);
+            batch.setLastError(null);
+        } catch (IOException | RuntimeException e) {
+            // Keep what made it into GridFS before the archive broke off
+            try {
+                flush(batch, pending, progress);
+            } catch (RuntimeException flushError) {
+                System.err.println("Import " + batch.getId() + ": could not save stored items: " + flushError.getMessage());
+            }
+            batch.setLastError(e.getMessage());
+            release(batch);
+            throw e;
+        }
+        release(batch);
+        return batch;
+    }
+
+    private void flush(ImportBatch batch, List<Stored> pending, Consumer<ImportBatch.Item> progress) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<LanguageAsset> assets = pending.stream().map(Stored::asset).toList();
+        try {
+            assetRepository.insert(assets);
+        } catch (RuntimeException e) {
+            fail(batch, pending, progress, "Could not save asset: " + e.getMessage());
+            return;
+        }
+        assets.forEach(asset -> events.publishEvent(AssetChangedEvent.created(asset)));
+
+        // Queued before the items count as imported: a resend skips imported items,
+        // and an asset without a job would stay "transcribing" for good
+        List<TranscriptionQueue.Request> jobs = pending.stream()
+                .map(stored -> new TranscriptionQueue.Request(stored.asset().getAssetId(),
+                        stored.item().getFileId(), stored.asset().getLanguageName()))
+                .toList();
+        try {
+            transcriptionQueue.enqueueAll(jobs);
+        } catch (RuntimeException e) {
+            assetRepository.deleteAll(assets);
+            assets.forEach(asset -> events.publishEvent(AssetChangedEvent.deleted(asset)));
+            fail(batch, pending, progress, "Could not queue transcription: " + e.getMessage());
+            return;
+        }
+
+        for (Stored stored : pending) {
+            stored.item().setAssetId(stored.asset().getAssetId());
+            mark(stored.item(), ImportBatch.Item.IMPORTED, null);
+        }
+        List<ImportBatch.Item> items = pending.stream().map(Stored::item).toList();
+        pending.clear();
+        try {
+            save(batch);
+        } finally {
+            items.forEach(progress);
+        }
+    }
+
+    // Gives back the stored audio of items whose assets were not kept; a resend redoes them
+    private void fail(ImportBatch batch, List<Stored> pending, Consumer<ImportBatch.Item> progress, String error) {
+        for (Stored stored : pending) {
+            audioTranscodeService.release(stored.audio());
+            stored.item().setFileId(null);
+            mark(stored.item(), ImportBatch.Item.FAILED, error);
+            progress.accept(stored.item());
+        }
+        pending.clear();
+        save(batch);
+    }
+
+    private void release(ImportBatch batch) {
+        boolean complete = !batch.getItems().isEmpty() && batch.getItems().stream()
+                .allMatch(item -> ImportBatch.Item.IMPORTED.equals(item.getStatus()));
+        batch.setStatus(complete ? ImportBatch.COMPLETED : ImportBatch.INCOMPLETE);
+        batch.setLeaseExpiresAt(null);
+        save(batch);
+    }
+
+    private void save(ImportBatch batch) {
+        int imported = 0;
+        int failed = 0;
+        for (ImportBatch.Item item : batch.getItems()) {
+            if (ImportBatch.Item.IMPORTED.equals(item.getStatus())) {
+                imported++;
+            } else if (ImportBatch.Item.FAILED.equals(item.getStatus())) {
+                failed++;
+            }
+        }
+        batch.setImported(imported);
+        batch.setFailed(failed);
+        Instant now = Instant.now();
+        if (ImportBatch.RUNNING.equals(batch.getStatus())) {
+            batch.setLeaseExpiresAt(now.plus(lease));
+        }
+        batch.setUpdatedAt(now);
+        mongoTemplate.save(batch);
+    }
+
+    // Same checks as a single upload
+    private String validate(ImportBatch batch, ImportBatch.Item item) {
+        String language = orDefault(item.getLanguage(), batch.getLanguage());
+        String dialect = orDefault(item.getDialect(), batch.getDialect());
+        if (language == null || dialect == null) {
+            return "Language and dialect are required.";
+        }
+        boolean consent = item.getConsent() != null ? item.getConsent() : batch.isConsent();
+        if (!consent) {
+            return "Consent is mandatory for public contributions.";
+        }
+        if (profanityFilter.containsProfanity(language)) {
+            return "Language name contains inappropriate content.";
+        }
+        if (profanityFilter.containsProfanity(dialect)) {
+            return "Dialect contains inappropriate content.";
+        }
+        return null;
+    }
+
+    private static LanguageAsset newAsset(ImportBatch batch, ImportBatch.Item item, String fileUrlPrefix,
+            AudioTranscodeService.StoredAudio audio) {
+        LocalDateTime now = LocalDateTime.now();
+        LanguageAsset asset = new LanguageAsset();
+        asset.setAssetId(UUID.randomUUID().toString());
+        asset.setContributorId("ANON-" + UUID.randomUUID().toString().substring(0, 8));
+        asset.setLanguageName(orDefault(item.getLanguage(), batch.getLanguage()));
+        asset.setDialect(orDefault(item.getDialect(), batch.getDialect()));
+        asset.setTargetLanguage(orDefault(orDefault(item.getTargetLanguage(), batch.getTargetLanguage()), "English"));
+        asset.setAudioUrl(fileUrlPrefix + audio.fileId());
+        asset.setArchiveAudioUrl(audio.archiveFileId() != null ? fileUrlPrefix + audio.archiveFileId() : null);
+        asset.setOriginalAudioUrl(audio.originalFileId() != null ? fileUrlPrefix + audio.originalFileId() : null);
+        asset.setConsentGiven(true);
+        asset.setConsentTimestamp(now);
+        asset.setRegion(orDefault(item.getRegion(), batch.getRegion()));
+        asset.setCity(orDefault(item.getCity(), batch.getCity()));
+        asset.setPrivate(false);
+        asset.setStatus("transcribing");
+        asset.setCreatedAt(now);
+        asset.setUpdatedAt(now);
+        return asset;
+    }
+
+    // New manifest rows are added; rows for files already in the batch update them unless imported
+    private static void merge(ImportBatch batch, List<ImportBatch.Item> manifest) {
+        Map<String, ImportBatch.Item> existing = new HashMap<>();
+        batch.getItems().forEach(item -> existing.put(item.getFile(), item));
+        for (ImportBatch.Item row : manifest) {
+            ImportBatch.Item current = existing.get(row.getFile());
+            if (current == null) {
+                batch.getItems().add(row);
+                existing.put(row.getFile(), row);
+            } else if (!ImportBatch.Item.IMPORTED.equals(current.getStatus())) {
+                batch.getItems().set(batch.getItems().indexOf(current), row);
+                existing.put(row.getFile(), row);
+            }
+        }
+    }
+
+    // Items by their file as given, and by base name for manifests that list bare names
+    private static Map<String, ImportBatch.Item> index(List<ImportBatch.Item> items) {
+        Map<String, ImportBatch.Item> index = new HashMap<>();
+        for (ImportBatch.Item item : items) {
+            index.put(item.getFile(), item);
+            index.putIfAbsent(ImportManifest.baseName(item.getFile()), item);
+        }
+        return index;
+    }
+
+    private static ImportBatch.Item lookup(Map<String, ImportBatch.Item> index, String name) {
+        ImportBatch.Item item = index.get(name);
+        return item != null ? item : index.get(ImportManifest.baseName(name));
+    }
+
+    // Resource forks and dotfiles that archivers add
+    private static boolean isIgnored(String name) {
+        return name.startsWith("__MACOSX/") || ImportManifest.baseName(name).startsWith(".");
+    }
+
+    private static String extension(String name) {
+        int dot = name.lastIndexOf('.');
+        return dot >= 0 ? name.substring(dot + 1).toLowerCase(Locale.ROOT) : "";
+    }
+
+    private static void mark(ImportBatch.Item item, String status, String error) {
+        item.setStatus(status);
+        item.setError(error);
+        item.setUpdatedAt(Instant.now());
+    }
+
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private record Stored(ImportBatch.Item item, LanguageAsset asset, AudioTranscodeService.StoredAudio audio) {
+    }
+}
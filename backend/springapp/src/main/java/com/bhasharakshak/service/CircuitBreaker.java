@@ -0,0 +1,207 @@
+package com.bhasharakshak.service;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Circuit breaker for one AI operation.
+ *
+ * Closed: calls go through and the outcome of the last {@code windowSize}
+ * calls is kept. Once at least {@code minimumCalls} are recorded and the
+ * failure rate reaches the threshold the breaker opens, and every call fails
+ * at once with {@link CircuitOpenException} for {@code openDuration}. After
+ * that it is half-open: a few probe calls are let through, and the breaker
+ * closes if they succeed or opens again if any fails.
+ *
+ * Each state change starts a new generation, and a permitted call reports its
+ * outcome with the generation it was let through in. Outcomes from an earlier
+ * generation are dropped: a slow call admitted before the breaker opened must
+ * neither count as a half-open probe nor reopen a recovered breaker.
+ */
+public final class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    public static class CircuitOpenException extends RuntimeException {
+        private final long retryAfterMillis;
+
+        public CircuitOpenException(String name, long retryAfterMillis) {
+            super("AI service " + name + " circuit is open, retry in " + Math.max(retryAfterMillis, 0) + "ms");
+            this.retryAfterMillis = Math.max(retryAfterMillis, 0);
+        }
+
+        public long getRetryAfterMillis() {
+            return retryAfterMillis;
+        }
+    }
+
+    private final String name;
+    private final int failureRateThreshold;
+    private final int minimumCalls;
+    private final long openMillis;
+    private final int halfOpenProbes;
+
+    // Outcomes of the last window.length calls while closed; true = failure
+    private final boolean[] window;
+    private int recorded;
+    private int next;
+    private int failures;
+
+    private State state = State.CLOSED;
+    private long generation;
+    private long openedAt;
+    private int probesInFlight;
+    private int probesSucceeded;
+    private long rejected;
+    private long timesOpened;
+
+    public CircuitBreaker(String name, int failureRateThreshold, int windowSize, int minimumCalls,
+            Duration openDuration, int halfOpenProbes) {
+        this.name = name;
+        this.failureRateThreshold = failureRateThreshold;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.openMillis = openDuration.toMillis();
+        this.halfOpenProbes = halfOpenProbes;
+    }
+
+    /**
+     * Call before each attempt; throws if the call must not be made. Every
+     * permitted call must be followed by {@link #onSuccess},
+     * {@link #onFailure} or {@link #onIgnored}, passing the returned permit.
+     *
+     * @return the permit: the generation the call was let through in
+     */
+    public synchronized long acquirePermission() {
+        long now = System.currentTimeMillis();
+        if (state == State.OPEN) {
+            if (now - openedAt < openMillis) {
+                rejected++;
+                throw new CircuitOpenException(name, openedAt + openMillis - now);
+            }
+            state = State.HALF_OPEN;
+            generation++;
+            probesInFlight = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesInFlight + probesSucceeded >= halfOpenProbes) {
+                rejected++;
+                throw new CircuitOpenException(name, 0);
+            }
+            probesInFlight++;
+        }
+        return generation;
+    }
+
+    /**
+     * True when a call would currently be let through (without taking a
+     * half-open probe slot).
+     */
+    public synchronized boolean isCallPermitted() {
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> System.currentTimeMillis() - openedAt >= openMillis;
+            case HALF_OPEN -> probesInFlight + probesSucceeded < halfOpenProbes;
+        };
+    }
+
+    public synchronized void onSuccess(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            probesInFlight--;
+            if (++probesSucceeded >= halfOpenProbes) {
+                close();
+            }
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    public synchronized void onFailure(long permit) {
+        if (permit != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * The call ended in a way that says nothing about the service's health
+     * (e.g. a 4xx for a bad request); only frees a half-open probe slot.
+     */
+    public synchronized void onIgnored(long permit) {
+        if (permit == generation && state == State.HALF_OPEN) {
+            probesInFlight--;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("state", state.name());
+        stats.put("failureRate", recorded > 0 ? failures * 100 / recorded : 0);
+        stats.put("recordedCalls", recorded);
+        stats.put("timesOpened", timesOpened);
+        stats.put("rejected", rejected);
+        if (state == State.OPEN) {
+            stats.put("retryInMs", Math.max(openedAt + openMillis - System.currentTimeMillis(), 0));
+        }
+        return stats;
+    }
+
+    private void record(boolean failure) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failure;
+        if (failure) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        if (state != State.OPEN) {
+            timesOpened++;
+            System.err.println("AI service " + name + " circuit opened");
+        }
+        state = State.OPEN;
+        generation++;
+        openedAt = System.currentTimeMillis();
+        resetWindow();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        generation++;
+        resetWindow();
+        System.out.println("AI service " + name + " circuit closed");
+    }
+
+    private void resetWindow() {
+        recorded = 0;
+        next = 0;
+        failures = 0;
+        probesInFlight = 0;
+        probesSucceeded = 0;
+    }
+}
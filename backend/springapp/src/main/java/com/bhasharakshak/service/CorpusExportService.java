@@ -0,0 +1,211 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.model.LanguageAsset;
+import com.bhasharakshak.repository.AssetCursor;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Streams the verified public corpus for dataset consumers, oldest first, as
+ * JSONL or as a tar of one {@code <assetId>.json} plus {@code <assetId>.<ext>}
+ * audio file per asset (the WebDataset layout).
+ *
+ * Assets are read in keyset pages, each through one Mongo cursor, so memory
+ * stays flat however large the export, and no server cursor sits idle while
+ * audio is being copied. Every record carries a {@code cursor}: pass the last
+ * one received as {@code after} to resume a broken export.
+ */
+@Service
+public class CorpusExportService {
+
+    private final MongoTemplate mongoTemplate;
+    private final StorageService storageService;
+    private final ObjectMapper objectMapper;
+    private final int pageSize;
+    private final int audioPageSize;
+
+    public CorpusExportService(
+            MongoTemplate mongoTemplate,
+            StorageService storageService,
+            ObjectMapper objectMapper,
+            @Value("${app.export.page-size:1000}") int pageSize,
+            @Value("${app.export.audio-page-size:100}") int audioPageSize) {
+        this.mongoTemplate = mongoTemplate;
+        this.storageService = storageService;
+        this.objectMapper = objectMapper;
+        this.pageSize = pageSize;
+        this.audioPageSize = audioPageSize;
+    }
+
+    /**
+     * Which assets to export; null fields do not filter. {@code from} and
+     * {@code to} are inclusive creation dates.
+     */
+    public record Filter(String language, String region, LocalDate from, LocalDate to, AssetCursor after) {
+    }
+
+    public record Summary(long assets, long audioFiles, String lastCursor) {
+    }
+
+    public Summary writeJsonl(Filter filter, OutputStream out) throws IOException {
+        return export(filter, pageSize, (asset, cursor) -> {
+            out.write(objectMapper.writeValueAsBytes(record(asset, cursor, asset.getAudioUrl())));
+            out.write('\n');
+            return false;
+        }, out);
+    }
+
+    public Summary writeTar(Filter filter, OutputStream out) throws IOException {
+        TarWriter tar = new TarWriter(out);
+        Summary summary = export(filter, audioPageSize, (asset, cursor) -> {
+            long modified = asset.getCreatedAt() != null ? asset.getCreatedAt().toEpochSecond(ZoneOffset.UTC) : 0;
+            String audioName = null;
+            GridFsResource audio = audio(asset);
+            if (audio != null) {
+                audioName = asset.getAssetId() + "." + extension(audio);
+            }
+            tar.putEntry(asset.getAssetId() + ".json",
+                    objectMapper.writeValueAsBytes(record(asset, cursor, audioName)), modified);
+            if (audio != null) {
+                try (InputStream content = audio.getInputStream()) {
+                    tar.putEntry(audioName, audio.getGridFSFile().getLength(), content, modified);
+                }
+            }
+            return audio != null;
+        }, out);
+        tar.finish();
+        return summary;
+    }
+
+    @FunctionalInterface
+    private interface AssetWriter {
+        /**
+         * @return true if an audio file was written
+         */
+        boolean write(LanguageAsset asset, String cursor) throws IOException;
+    }
+
+    private Summary export(Filter filter, int limit, AssetWriter writer, OutputStream out) throws IOException {
+        AssetCursor after = filter.after();
+        long assets = 0;
+        long audioFiles = 0;
+        while (true) {
+            int inPage = 0;
+            Query query = query(filter, after).limit(limit).cursorBatchSize(limit);
+            try (Stream<LanguageAsset> page = mongoTemplate.stream(query, LanguageAsset.class)) {
+                for (LanguageAsset asset : (Iterable<LanguageAsset>) page::iterator) {
+                    after = AssetCursor.after(asset);
+                    if (writer.write(asset, after.encode())) {
+                        audioFiles++;
+                    }
+                    assets++;
+                    inPage++;
+                }
+            }
+            out.flush();
+            if (inPage < limit) {
+                return new Summary(assets, audioFiles, after != null ? after.encode() : null);
+            }
+        }
+    }
+
+    // Served by public_language_idx (with a language) or public_recent_idx, walked oldest first
+    private static Query query(Filter filter, AssetCursor after) {
+        List<Criteria> predicates = new ArrayList<>();
+        predicates.add(Criteria.where("status").is("verified"));
+        predicates.add(Criteria.where("isPrivate").is(false));
+        if (filter.language() != null && !filter.language().isBlank()) {
+            predicates.add(Criteria.where("languageKey").is(filter.language().strip().toLowerCase(Locale.ROOT)));
+        }
+        if (filter.from() != null) {
+            predicates.add(Criteria.where("createdAt").gte(filter.from().atStartOfDay()));
+        }
+        if (filter.to() != null) {
+            predicates.add(Criteria.where("createdAt").lt(filter.to().plusDays(1).atStartOfDay()));
+        }
+        if (filter.region() != null && !filter.region().isBlank()) {
+            predicates.add(Criteria.where("region")
+                    .regex("^" + Pattern.quote(filter.region().strip()) + "$", "i"));
+        }
+        if (after != null) {
+            predicates.add(after.oldestFirst());
+        }
+        return new Query(new Criteria().andOperator(predicates))
+                .with(Sort.by(Sort.Order.asc("createdAt"), Sort.Order.asc("_id")));
+    }
+
+    private static Map<String, Object> record(LanguageAsset asset, String cursor, String audio) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("id", asset.getAssetId());
+        record.put("language", asset.getLanguageName());
+        record.put("dialect", asset.getDialect());
+        record.put("targetLanguage", asset.getTargetLanguage());
+        record.put("transcript", asset.getTranscript());
+        record.put("transcriptFlagged", asset.isTranscriptFlagged());
+        record.put("englishTranslation", asset.getEnglishTranslation());
+        record.put("region", asset.getRegion());
+        record.put("city", asset.getCity());
+        record.put("latitude", asset.getLatitude());
+        record.put("longitude", asset.getLongitude());
+        record.put("createdAt", asset.getCreatedAt() != null ? asset.getCreatedAt().toString() : null);
+        record.put("audio", audio);
+        record.put("cursor", cursor);
+        return record;
+    }
+
+    // The GridFS file behind the asset's audioUrl (".../files/<id>"), or null if it is gone
+    private GridFsResource audio(LanguageAsset asset) {
+        String url = asset.getAudioUrl();
+        if (url == null || url.isEmpty()) {
+            return null;
+        }
+        try {
+            return storageService.getFile(url.substring(url.lastIndexOf('/') + 1));
+        } catch (RuntimeException e) {
+            System.err.println("Export: no audio for asset " + asset.getAssetId() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String extension(GridFsResource audio) {
+        String name = audio.getFilename();
+        int dot = name != null ? name.lastIndexOf('.') : -1;
+        if (dot >= 0 && dot < name.length() - 1) {
+            return name.substring(dot + 1).toLowerCase(Locale.ROOT);
+        }
+        String contentType = audio.getGridFSFile().getMetadata() != null
+                ? audio.getGridFSFile().getMetadata().getString("_contentType")
+                : null;
+        if (contentType == null) {
+            return "bin";
+        }
+        return switch (contentType) {
+            case "audio/wav", "audio/x-wav", "audio/wave" -> "wav";
+            case "audio/mpeg" -> "mp3";
+            case "audio/mp4" -> "m4a";
+            case "audio/ogg" -> "ogg";
+            case "audio/webm" -> "webm";
+            case "audio/flac" -> "flac";
+            default -> "bin";
+        };
+    }
+}
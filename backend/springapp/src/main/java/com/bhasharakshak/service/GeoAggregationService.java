@@ -0,0 +1,421 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.event.AssetChangedEvent;
+import com.bhasharakshak.event.AssetSnapshot;
+import com.bhasharakshak.model.CityStats;
+import com.bhasharakshak.model.GeoTile;
+import com.bhasharakshak.model.LanguageAsset;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Map aggregates maintained as assets change, so map endpoints never scan
+ * the assets collection:
+ *
+ * - city_stats: contributions and per-language counts for each city|region
+ * - geo_tiles: the same for assets with coordinates, per web-mercator tile at
+ *   every zoom level up to app.geo.max-zoom
+ *
+ * Updates are $inc upserts driven by {@link AssetChangedEvent}; a periodic
+ * reconciliation rebuilds both from the assets on the server and corrects
+ * drift.
+ */
+@Service
+public class GeoAggregationService {
+
+    private static final double MAX_LATITUDE = 85.05112878; // Web-mercator limit
+    // Cluster on tiles two levels below the map zoom: about 64px per cluster
+    private static final int CLUSTER_ZOOM_OFFSET = 2;
+    private static final String UNKNOWN_REGION = "Unknown";
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxZoom;
+
+    public GeoAggregationService(MongoTemplate mongoTemplate, @Value("${app.geo.max-zoom:14}") int maxZoom) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxZoom = maxZoom;
+    }
+
+    @EventListener
+    public void onAssetChanged(AssetChangedEvent event) {
+        Contribution before = event.before() != null ? Contribution.of(event.before()) : null;
+        Contribution after = event.after() != null ? Contribution.of(event.after()) : null;
+        if (Objects.equals(before, after)) {
+            return;
+        }
+
+        BulkOperations cities = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, CityStats.class);
+        BulkOperations tiles = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, GeoTile.class);
+        int cityWrites = 0;
+        int tileWrites = 0;
+        for (Contribution contribution : new Contribution[] { before, after }) {
+            if (contribution == null) {
+                continue;
+            }
+            long delta = contribution == before ? -1 : 1;
+            if (contribution.cityKey() != null) {
+                Update update = countUpdate(contribution, delta)
+                        .setOnInsert("city", contribution.city())
+                        .setOnInsert("region", contribution.region());
+                if (contribution.isLocated()) {
+                    update.inc("located", delta);
+                }
+                cities.upsert(byId(contribution.cityKey()), update);
+                cityWrites++;
+            }
+            if (contribution.isLocated()) {
+                for (int zoom = 0; zoom <= maxZoom; zoom++) {
+                    Tile tile = Tile.of(contribution.latitude(), contribution.longitude(), zoom);
+                    tiles.upsert(byId(tile.id()), countUpdate(contribution, delta)
+                            .setOnInsert("zoom", tile.zoom())
+                            .setOnInsert("x", tile.x())
+                            .setOnInsert("y", tile.y()));
+                    tileWrites++;
+                }
+            }
+        }
+
+        try {
+            if (cityWrites > 0) {
+                cities.execute();
+            }
+            if (tileWrites > 0) {
+                tiles.execute();
+            }
+        } catch (Exception e) {
+            // The next reconciliation fixes the counts
+            System.err.println("Geo rollup update failed for asset " + event.assetId() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Every city with contributions, most contributions first.
+     */
+    public List<Map<String, Object>> cities() {
+        Query query = new Query(Criteria.where("count").gt(0)).with(Sort.by(Sort.Direction.DESC, "count"));
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (CityStats stats : mongoTemplate.find(query, CityStats.class)) {
+            Map<String, Object> city = new LinkedHashMap<>();
+            city.put("city", stats.getCity());
+            city.put("region", stats.getRegion());
+            city.put("count", stats.getCount());
+            if (stats.getLocated() > 0) {
+                city.put("latitude", stats.getSumLatitude() / stats.getLocated());
+                city.put("longitude", stats.getSumLongitude() / stats.getLocated());
+            }
+            Map<String, Long> languages = decodeLanguages(stats.getLanguages());
+            city.put("primaryLanguage", primaryLanguage(languages));
+            city.put("languages", languages);
+            result.add(city);
+        }
+        return result;
+    }
+
+    /**
+     * Pre-clustered points for a map viewport: one cluster per non-empty tile
+     * at a zoom level slightly below the map's, placed at the centroid of its
+     * assets.
+     */
+    public List<Map<String, Object>> clusters(double south, double west, double north, double east, int mapZoom) {
+        int zoom = Math.max(0, Math.min(maxZoom, mapZoom + CLUSTER_ZOOM_OFFSET));
+        Tile northWest = Tile.of(north, west, zoom);
+        Tile southEast = Tile.of(south, east, zoom);
+
+        Query query = new Query(Criteria.where("zoom").is(zoom)
+                .and("x").gte(northWest.x()).lte(southEast.x())
+                .and("y").gte(northWest.y()).lte(southEast.y())
+                .and("count").gt(0));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (GeoTile tile : mongoTemplate.find(query, GeoTile.class)) {
+            Map<String, Object> cluster = new LinkedHashMap<>();
+            cluster.put("tile", tile.getId());
+            cluster.put("latitude", tile.getSumLatitude() / tile.getCount());
+            cluster.put("longitude", tile.getSumLongitude() / tile.getCount());
+            cluster.put("count", tile.getCount());
+            Map<String, Long> languages = decodeLanguages(tile.getLanguages());
+            cluster.put("primaryLanguage", primaryLanguage(languages));
+            cluster.put("languages", languages);
+            result.add(cluster);
+        }
+        return result;
+    }
+
+    /**
+     * Rebuild both rollups from the assets with server-side $group pipelines
+     * (one for cities, one per tile zoom level) written back with $merge, so
+     * nothing is loaded into the JVM. A document that an $inc touched after the
+     * run started keeps its value; the next run corrects it if needed.
+     */
+    @Scheduled(initialDelayString = "${app.geo.reconcile-initial-delay-ms:45000}",
+            fixedDelayString = "${app.geo.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        // Same conversion Spring applies to the LocalDateTime updatedAt it writes
+        Date startedAt = Date.from(LocalDateTime.now().atZone(ZoneId.systemDefault()).toInstant());
+
+        aggregateAssets(cityPipeline(startedAt, mongoTemplate.getCollectionName(CityStats.class)));
+        for (int zoom = 0; zoom <= maxZoom; zoom++) {
+            aggregateAssets(tilePipeline(zoom, startedAt, mongoTemplate.getCollectionName(GeoTile.class)));
+        }
+
+        // No asset contributes to these any more, and no $inc has since
+        Query stale = new Query(Criteria.where("reconciledAt").ne(startedAt).and("updatedAt").lt(startedAt));
+        long removed = mongoTemplate.remove(stale, CityStats.class).getDeletedCount()
+                + mongoTemplate.remove(stale, GeoTile.class).getDeletedCount();
+        if (removed > 0) {
+            System.out.println("Geo reconciliation removed " + removed + " stale rollup documents");
+        }
+    }
+
+    private void aggregateAssets(List<Document> pipeline) {
+        mongoTemplate.getCollection(mongoTemplate.getCollectionName(LanguageAsset.class))
+                .aggregate(pipeline)
+                .allowDiskUse(true)
+                .toCollection();
+    }
+
+    private static List<Document> cityPipeline(Date startedAt, String into) {
+        return List.of(
+                new Document("$match", new Document("city", new Document("$nin", Arrays.asList(null, "")))),
+                new Document("$group", new Document("_id", new Document()
+                        .append("city", "$city")
+                        .append("region", new Document("$ifNull", List.of("$region", UNKNOWN_REGION)))
+                        .append("language", languageExpression()))
+                        .append("count", new Document("$sum", 1))
+                        .append("located", new Document("$sum", ifLocated(1)))
+                        .append("sumLatitude", new Document("$sum", ifLocated("$latitude")))
+                        .append("sumLongitude", new Document("$sum", ifLocated("$longitude")))),
+                new Document("$group", new Document("_id", new Document()
+                        .append("city", "$_id.city")
+                        .append("region", "$_id.region"))
+                        .append("count", new Document("$sum", "$count"))
+                        .append("located", new Document("$sum", "$located"))
+                        .append("sumLatitude", new Document("$sum", "$sumLatitude"))
+                        .append("sumLongitude", new Document("$sum", "$sumLongitude"))
+                        .append("languages", languagesAccumulator())),
+                new Document("$project", new Document()
+                        .append("_id", new Document("$concat", List.of("$_id.city", "|", "$_id.region")))
+                        .append("city", "$_id.city")
+                        .append("region", "$_id.region")
+                        .append("count", 1)
+                        .append("located", 1)
+                        .append("sumLatitude", 1)
+                        .append("sumLongitude", 1)
+                        .append("languages", languagesObject())
+                        .append("updatedAt", new Document("$literal", startedAt))
+                        .append("reconciledAt", new Document("$literal", startedAt))),
+                merge(into, startedAt));
+    }
+
+    /**
+     * Same tile arithmetic as {@link Tile#of}, evaluated by the server.
+     */
+    private static List<Document> tilePipeline(int zoom, Date startedAt, String into) {
+        int n = 1 << zoom;
+        Document latitude = new Document("$multiply", List.of(
+                new Document("$max", List.of(-MAX_LATITUDE, new Document("$min", List.of(MAX_LATITUDE, "$latitude")))),
+                Math.PI / 180));
+        Document x = new Document("$floor", new Document("$multiply", List.of(
+                new Document("$divide", List.of(new Document("$add", List.of("$longitude", 180)), 360)), n)));
+        Document y = new Document("$floor", new Document("$multiply", List.of(
+                new Document("$divide", List.of(new Document("$subtract", List.of(1,
+                        new Document("$divide", List.of(
+                                new Document("$ln", new Document("$add", List.of(
+                                        new Document("$tan", "$$lat"),
+                                        new Document("$divide", List.of(1, new Document("$cos", "$$lat")))))),
+                                Math.PI)))), 2)),
+                n)));
+
+        return List.of(
+                new Document("$match", located()),
+                new Document("$group", new Document("_id", new Document()
+                        .append("x", clamp(x, n))
+                        .append("y", new Document("$let", new Document()
+                                .append("vars", new Document("lat", latitude))
+                                .append("in", clamp(y, n))))
+                        .append("language", languageExpression()))
+                        .append("count", new Document("$sum", 1))
+                        .append("sumLatitude", new Document("$sum", "$latitude"))
+                        .append("sumLongitude", new Document("$sum", "$longitude"))),
+                new Document("$group", new Document("_id", new Document()
+                        .append("x", "$_id.x")
+                        .append("y", "$_id.y"))
+                        .append("count", new Document("$sum", "$count"))
+                        .append("sumLatitude", new Document("$sum", "$sumLatitude"))
+                        .append("sumLongitude", new Document("$sum", "$sumLongitude"))
+                        .append("languages", languagesAccumulator())),
+                new Document("$project", new Document()
+                        .append("_id", new Document("$concat", List.of(zoom + "/",
+                                new Document("$toString", "$_id.x"), "/", new Document("$toString", "$_id.y"))))
+                        .append("zoom", new Document("$literal", zoom))
+                        .append("x", "$_id.x")
+                        .append("y", "$_id.y")
+                        .append("count", 1)
+                        .append("sumLatitude", 1)
+                        .append("sumLongitude", 1)
+                        .append("languages", languagesObject())
+                        .append("updatedAt", new Document("$literal", startedAt))
+                        .append("reconciledAt", new Document("$literal", startedAt))),
+                merge(into, startedAt));
+    }
+
+    /**
+     * Replace the stored document unless an $inc has touched it since the run
+     * started; either way mark it as seen, so it is not removed as stale.
+     */
+    private static Document merge(String into, Date startedAt) {
+        return new Document("$merge", new Document()
+                .append("into", into)
+                .append("on", "_id")
+                .append("whenMatched", List.of(new Document("$replaceWith", new Document("$cond", List.of(
+                        new Document("$gt", List.of("$updatedAt", startedAt)),
+                        new Document("$mergeObjects", List.of("$$ROOT", new Document("reconciledAt", startedAt))),
+                        "$$new")))))
+                .append("whenNotMatched", "insert"));
+    }
+
+    // Mirrors Contribution.isLocated(): numeric coordinates within range
+    private static Document located() {
+        return new Document("$expr", new Document("$and", List.of(
+                new Document("$isNumber", "$latitude"),
+                new Document("$isNumber", "$longitude"),
+                new Document("$lte", List.of(new Document("$abs", "$latitude"), 90)),
+                new Document("$lte", List.of(new Document("$abs", "$longitude"), 180)))));
+    }
+
+    private static Document ifLocated(Object value) {
+        return new Document("$cond", List.of(located().get("$expr"), value, 0));
+    }
+
+    private static Document clamp(Document value, int n) {
+        return new Document("$toInt", new Document("$max", List.of(0, new Document("$min", List.of(n - 1, value)))));
+    }
+
+    // Escaped language name, or null when it is blank, as in Contribution.of and escape()
+    private static Document languageExpression() {
+        Document name = new Document("$ifNull", List.of("$languageName", ""));
+        return new Document("$cond", Arrays.asList(
+                new Document("$eq", List.of(new Document("$trim", new Document("input", name)), "")),
+                null,
+                new Document("$replaceAll", new Document()
+                        .append("input", new Document("$replaceAll", new Document()
+                                .append("input", name)
+                                .append("find", ".")
+                                .append("replacement", "\uFF0E")))
+                        .append("find", new Document("$literal", "$"))
+                        .append("replacement", "\uFF04"))));
+    }
+
+    private static Document languagesAccumulator() {
+        return new Document("$push", new Document("k", "$_id.language").append("v", "$count"));
+    }
+
+    private static Document languagesObject() {
+        return new Document("$arrayToObject", new Document("$filter", new Document()
+                .append("input", "$languages")
+                .append("cond", new Document("$ne", Arrays.asList("$$this.k", null)))));
+    }
+
+    private static Update countUpdate(Contribution contribution, long delta) {
+        Update update = new Update().inc("count", delta).set("updatedAt", LocalDateTime.now());
+        if (contribution.isLocated()) {
+            update.inc("sumLatitude", delta * contribution.latitude())
+                    .inc("sumLongitude", delta * contribution.longitude());
+        }
+        if (contribution.language() != null) {
+            update.inc("languages." + escape(contribution.language()), delta);
+        }
+        return update;
+    }
+
+    private static Query byId(String id) {
+        return new Query(Criteria.where("_id").is(id));
+    }
+
+    private static String primaryLanguage(Map<String, Long> languages) {
+        return languages.entrySet().stream()
+                .max(Map.Entry.<String, Long>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .map(Map.Entry::getKey)
+                .orElse("Unknown");
+    }
+
+    private static Map<String, Long> decodeLanguages(Map<String, Long> languages) {
+        Map<String, Long> decoded = new HashMap<>();
+        if (languages != null) {
+            languages.forEach((language, count) -> {
+                if (count > 0) {
+                    decoded.put(unescape(language), count);
+                }
+            });
+        }
+        return decoded;
+    }
+
+    // Language names become field names; '.' and '$' are not allowed there
+    private static String escape(String language) {
+        return language.replace('.', '\uFF0E').replace('$', '\uFF04');
+    }
+
+    private static String unescape(String field) {
+        return field.replace('\uFF0E', '.').replace('\uFF04', '$');
+    }
+
+    private record Contribution(String city, String region, String language, Double latitude, Double longitude) {
+
+        static Contribution of(AssetSnapshot asset) {
+            boolean located = asset.latitude() != null && asset.longitude() != null
+                    && Math.abs(asset.latitude()) <= 90 && Math.abs(asset.longitude()) <= 180;
+            String language = asset.languageName() != null && !asset.languageName().isBlank()
+                    ? asset.languageName() : null;
+            return new Contribution(
+                    asset.city() != null && !asset.city().isEmpty() ? asset.city() : null,
+                    asset.region() != null ? asset.region() : UNKNOWN_REGION,
+                    language,
+                    located ? asset.latitude() : null,
+                    located ? asset.longitude() : null);
+        }
+
+        String cityKey() {
+            return city != null ? city + "|" + region : null;
+        }
+
+        boolean isLocated() {
+            return latitude != null;
+        }
+    }
+
+    private record Tile(int zoom, int x, int y) {
+
+        static Tile of(double latitude, double longitude, int zoom) {
+            int n = 1 << zoom;
+            double lat = Math.toRadians(Math.max(-MAX_LATITUDE, Math.min(MAX_LATITUDE, latitude)));
+            int x = (int) Math.floor((longitude + 180) / 360 * n);
+            int y = (int) Math.floor((1 - Math.log(Math.tan(lat) + 1 / Math.cos(lat)) / Math.PI) / 2 * n);
+            return new Tile(zoom, Math.max(0, Math.min(n - 1, x)), Math.max(0, Math.min(n - 1, y)));
+        }
+
+        String id() {
+            return zoom + "/" + x + "/" + y;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.model.VisualHeritage;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Fills in Visual Heritage translations that were still missing when the
+ * image was saved (AI call failed or timed out during upload).
+ */
+@Service
+@RequiredArgsConstructor
+public class HeritageTranslationBackfill {
+
+    private static final int BATCH_SIZE = 20;
+
+    private final MongoTemplate mongoTemplate;
+    private final TranslationFanOutService fanOutService;
+
+    @Scheduled(fixedDelayString = "${app.translation.backfill-interval-ms:60000}")
+    public void backfill() {
+        Query query = new Query(Criteria.where("pendingTranslations.0").exists(true)).limit(BATCH_SIZE);
+        query.fields().include("originalDescription", "language", "pendingTranslations");
+
+        for (VisualHeritage heritage : mongoTemplate.find(query, VisualHeritage.class)) {
+            List<String> pending = heritage.getPendingTranslations();
+            TranslationFanOutService.FanOutResult fanOut = fanOutService.translateAll(
+                    heritage.getOriginalDescription(), heritage.getLanguage(), pending);
+            if (fanOut.getTranslations().isEmpty()) {
+                continue;
+            }
+
+            // Field-level update so a concurrent edit of the document isn't overwritten
+            Update update = new Update().set("updatedAt", LocalDateTime.now());
+            fanOut.getTranslations().forEach((lang, text) -> update.set("translations." + lang, text));
+            update.pullAll("pendingTranslations", fanOut.getTranslations().keySet().toArray());
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(heritage.getId())), update,
+                    VisualHeritage.class);
+        }
+    }
+}
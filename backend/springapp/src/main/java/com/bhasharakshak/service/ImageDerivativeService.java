@@ -0,0 +1,137 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.model.DerivedFile;
+import com.bhasharakshak.service.image.ImageScaler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.data.mongodb.gridfs.GridFsResource;
+import org.springframework.stereotype.Service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Smaller JPEG renditions of stored images for gallery pages: {@code thumb}
+ * and {@code medium}, by longest edge. They are made at upload, or on the
+ * first request for an image stored before, and kept in GridFS with a
+ * {@link DerivedFile} record, so each is rendered once. An image already
+ * smaller than a variant, or one ImageIO cannot read, is recorded as its
+ * own rendition.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private final StorageService storageService;
+    private final Map<String, Integer> sizes = new LinkedHashMap<>();
+    private final float quality;
+    // Decoding holds a large bitmap; bounds the memory a page of new thumbnails takes
+    private final Semaphore renders;
+
+    public ImageDerivativeService(
+            StorageService storageService,
+            @Value("${app.images.thumb-size:320}") int thumbSize,
+            @Value("${app.images.medium-size:1024}") int mediumSize,
+            @Value("${app.images.jpeg-quality:0.82}") float quality,
+            @Value("${app.images.max-concurrent-renders:4}") int maxConcurrentRenders) {
+        this.storageService = storageService;
+        this.sizes.put("thumb", thumbSize);
+        this.sizes.put("medium", mediumSize);
+        this.quality = quality;
+        this.renders = new Semaphore(maxConcurrentRenders);
+    }
+
+    public boolean isVariant(String variant) {
+        return sizes.containsKey(variant);
+    }
+
+    /**
+     * Makes the renditions of a stored image that do not exist yet, from
+     * {@code content} (the upload, or the stored file). Failures are logged,
+     * and the image is then served as it is.
+     */
+    public void generate(String sourceFileId, String filename, InputStreamSource content) {
+        List<String> missing = sizes.keySet().stream()
+                .filter(variant -> storageService.findDerived(sourceFileId, variant).isEmpty())
+                .toList();
+        if (missing.isEmpty()) {
+            return;
+        }
+
+        renders.acquireUninterruptibly();
+        try {
+            int largest = missing.stream().mapToInt(sizes::get).max().orElse(0);
+            ImageScaler.Decoded decoded;
+            try (InputStream in = content.getInputStream()) {
+                decoded = ImageScaler.read(in, largest);
+            } catch (IOException e) {
+                // Not an image ImageIO can decode; remembered, so it is not tried again
+                System.err.println("Cannot render image " + sourceFileId + ": " + e.getMessage());
+                decoded = null;
+            } catch (RuntimeException e) {
+                // E.g. GridFS unreachable: try again on a later request
+                System.err.println("Cannot read image " + sourceFileId + ": " + e.getMessage());
+                return;
+            }
+
+            for (String variant : missing) {
+                int size = sizes.get(variant);
+                if (decoded == null || Math.max(decoded.width(), decoded.height()) <= size) {
+                    record(sourceFileId, variant, sourceFileId,
+                            decoded != null ? decoded.width() : 0, decoded != null ? decoded.height() : 0);
+                    continue;
+                }
+                BufferedImage scaled = ImageScaler.scale(decoded.image(), size, decoded.orientation());
+                StorageService.Upload upload = storageService.openUpload(baseName(filename) + "." + variant + ".jpg", "image/jpeg");
+                try {
+                    ImageScaler.writeJpeg(scaled, quality, upload);
+                    upload.close();
+                } catch (IOException | RuntimeException e) {
+                    upload.abort();
+                    System.err.println("Cannot store " + variant + " of image " + sourceFileId + ": " + e.getMessage());
+                    continue;
+                }
+                record(sourceFileId, variant, upload.getId(), scaled.getWidth(), scaled.getHeight());
+            }
+        } finally {
+            renders.release();
+        }
+    }
+
+    /**
+     * The rendition of a stored image, made now if it is missing.
+     *
+     * @throws RuntimeException if the image is not stored
+     */
+    public GridFsResource get(String sourceFileId, String variant) {
+        DerivedFile derived = storageService.findDerived(sourceFileId, variant).orElse(null);
+        if (derived == null) {
+            GridFsResource source = storageService.getFile(sourceFileId);
+            generate(sourceFileId, source.getFilename(), source);
+            derived = storageService.findDerived(sourceFileId, variant).orElse(null);
+        }
+        return storageService.getFile(derived != null ? derived.getFileId() : sourceFileId);
+    }
+
+    private void record(String sourceFileId, String variant, String fileId, int width, int height) {
+        DerivedFile derived = new DerivedFile();
+        derived.setSourceFileId(sourceFileId);
+        derived.setVariant(variant);
+        derived.setFileId(fileId);
+        derived.setWidth(width);
+        derived.setHeight(height);
+        storageService.saveDerived(derived);
+    }
+
+    private static String baseName(String filename) {
+        if (filename == null || filename.isEmpty()) {
+            return "image";
+        }
+        int dot = filename.lastIndexOf('.');
+        return dot > 0 ? filename.substring(0, dot) : filename;
+    }
+}
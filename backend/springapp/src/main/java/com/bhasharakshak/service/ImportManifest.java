@@ -0,0 +1,163 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.model.ImportBatch;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses a bulk-import manifest: CSV with a header row, or JSON (an array of
+ * objects, or an object with an {@code items} array). Columns/keys are file,
+ * language, dialect, targetLanguage, region, city and consent; only file is
+ * required.
+ */
+final class ImportManifest {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private ImportManifest() {
+    }
+
+    static boolean isManifestName(String name) {
+        String lower = baseName(name).toLowerCase(Locale.ROOT);
+        return lower.equals("manifest.csv") || lower.equals("manifest.json");
+    }
+
+    static List<ImportBatch.Item> parse(String filename, InputStream content) throws IOException {
+        String text = new String(content.readAllBytes(), StandardCharsets.UTF_8);
+        if (text.startsWith("\uFEFF")) { // byte order mark
+            text = text.substring(1);
+        }
+        String trimmed = text.stripLeading();
+        boolean json = (filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".json"))
+                || trimmed.startsWith("[") || trimmed.startsWith("{");
+        return json ? parseJson(trimmed) : parseCsv(text);
+    }
+
+    static String baseName(String path) {
+        int slash = Math.max(path.lastIndexOf('/'), path.lastIndexOf('\\'));
+        return path.substring(slash + 1);
+    }
+
+    private static List<ImportBatch.Item> parseJson(String text) throws IOException {
+        JsonNode root = JSON.readTree(text);
+        JsonNode rows = root.isArray() ? root : root.path("items");
+        if (!rows.isArray()) {
+            throw new IOException("Manifest JSON must be an array or have an \"items\" array");
+        }
+        List<ImportBatch.Item> items = new ArrayList<>();
+        for (JsonNode row : rows) {
+            Map<String, String> values = new HashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = row.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (!field.getValue().isNull()) {
+                    values.put(normalizeKey(field.getKey()), field.getValue().asText());
+                }
+            }
+            items.add(toItem(values, items.size() + 1));
+        }
+        return items;
+    }
+
+    private static List<ImportBatch.Item> parseCsv(String text) throws IOException {
+        List<List<String>> rows = csvRows(text);
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<String> header = rows.get(0).stream().map(ImportManifest::normalizeKey).toList();
+        List<ImportBatch.Item> items = new ArrayList<>();
+        for (int r = 1; r < rows.size(); r++) {
+            List<String> row = rows.get(r);
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int c = 0; c < header.size() && c < row.size(); c++) {
+                values.put(header.get(c), row.get(c));
+            }
+            items.add(toItem(values, r + 1));
+        }
+        return items;
+    }
+
+    // RFC 4180: quoted fields may hold commas, newlines and doubled quotes
+    private static List<List<String>> csvRows(String text) {
+        List<List<String>> rows = new ArrayList<>();
+        List<String> row = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                row.add(field.toString().trim());
+                field.setLength(0);
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && i + 1 < text.length() && text.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                row.add(field.toString().trim());
+                field.setLength(0);
+                rows.add(row);
+                row = new ArrayList<>();
+            } else {
+                field.append(c);
+            }
+        }
+        if (field.length() > 0 || !row.isEmpty()) {
+            row.add(field.toString().trim());
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static ImportBatch.Item toItem(Map<String, String> values, int line) throws IOException {
+        String file = blankToNull(values.get("file"));
+        if (file == null) {
+            throw new IOException("Manifest row " + line + " has no file");
+        }
+        ImportBatch.Item item = new ImportBatch.Item();
+        item.setFile(file);
+        item.setLanguage(blankToNull(values.get("language")));
+        item.setDialect(blankToNull(values.get("dialect")));
+        item.setTargetLanguage(blankToNull(values.get("targetlanguage")));
+        item.setRegion(blankToNull(values.get("region")));
+        item.setCity(blankToNull(values.get("city")));
+        String consent = blankToNull(values.get("consent"));
+        if (consent != null) {
+            item.setConsent(consent.equalsIgnoreCase("true") || consent.equalsIgnoreCase("yes") || consent.equals("1"));
+        }
+        item.setStatus(ImportBatch.Item.PENDING);
+        return item;
+    }
+
+    // "Target Language", "target_language" and "targetLanguage" are the same column
+    private static String normalizeKey(String key) {
+        String normalized = key.replaceAll("[\\s_-]", "").toLowerCase(Locale.ROOT);
+        return normalized.equals("filename") || normalized.equals("path") ? "file" : normalized;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,40 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.model.LanguageAsset;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.StringOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fills in LanguageAsset.languageKey for assets saved before the field
+ * existed, so the language search index covers them. Runs server-side in a
+ * single updateMany and is a no-op once every asset has the key.
+ */
+@Component
+@RequiredArgsConstructor
+public class LanguageKeyMigration implements ApplicationRunner {
+
+    private final MongoTemplate mongoTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            long updated = mongoTemplate.updateMulti(
+                    new Query(Criteria.where("languageKey").exists(false).and("languageName").ne(null)),
+                    AggregationUpdate.update().set("languageKey").toValue(StringOperators.valueOf("languageName").toLower()),
+                    LanguageAsset.class).getModifiedCount();
+            if (updated > 0) {
+                System.out.println("Backfilled languageKey on " + updated + " assets");
+            }
+        } catch (Exception e) {
+            // Not fatal: search still works for assets saved since the field was added
+            System.err.println("languageKey backfill failed: " + e.getMessage());
+        }
+    }
+}
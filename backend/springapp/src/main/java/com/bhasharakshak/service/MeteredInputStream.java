@@ -0,0 +1,62 @@
+package com.bhasharakshak.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the bytes read through it and, on close, records them and the time
+ * the stream was open (if meters are given).
+ */
+final class MeteredInputStream extends FilterInputStream {
+
+    private final DistributionSummary bytes;
+    private final Timer duration;
+    private final long openedAt = System.nanoTime();
+    private long count;
+    private boolean closed;
+
+    MeteredInputStream(InputStream in, DistributionSummary bytes, Timer duration) {
+        super(in);
+        this.bytes = bytes;
+        this.duration = duration;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int n = super.read(buffer, offset, length);
+        if (n > 0) {
+            count += n;
+        }
+        return n;
+    }
+
+    long getCount() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            if (bytes != null) {
+                bytes.record(count);
+                duration.record(System.nanoTime() - openedAt, TimeUnit.NANOSECONDS);
+            }
+        }
+        super.close();
+    }
+}
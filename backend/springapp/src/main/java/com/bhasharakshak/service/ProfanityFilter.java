@@ -1,88 +1,205 @@
 package com.bhasharakshak.service;
 
+import com.bhasharakshak.model.ProfanityLexicon;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.util.*;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Profanity checks across every supported language. All lexicons are
+ * compiled into one {@link ProfanityMatcher}, so each call scans the text
+ * once regardless of how many languages and words there are.
+ *
+ * Words come from the lists bundled under classpath:profanity/, an optional
+ * directory of {@code <language>.txt} files (app.profanity.dir) and the
+ * profanity_lexicons collection. Reloading builds a new matcher on the
+ * reloading thread and publishes it with a single reference swap; checks
+ * always read one immutable snapshot and never wait on a reload.
+ */
 @Service
 public class ProfanityFilter {
 
-    private final Map<String, Set<String>> profanityWords;
-    private final Map<String, Pattern> profanityPatterns;
+    private static final String BUNDLED_LEXICONS = "classpath:profanity/*.txt";
 
-    public ProfanityFilter() {
-        this.profanityWords = new HashMap<>();
-        this.profanityPatterns = new HashMap<>();
-        loadProfanityWords();
-        compileProfanityPatterns();
-    }
+    private final MongoTemplate mongoTemplate;
+    private final Path lexiconDir;
+    private final AtomicReference<Lexicons> current = new AtomicReference<>();
+    private final Object reloadLock = new Object();
 
-    private void loadProfanityWords() {
-        // English profanity
-        profanityWords.put("en", new HashSet<>(Arrays.asList(
-                "fuck", "shit", "damn", "bitch", "ass", "bastard", "crap", "piss",
-                "dick", "cock", "pussy", "whore", "slut", "fag", "nigger", "retard",
-                "motherfucker", "asshole", "bullshit", "goddamn", "hell", "cunt")));
+    public ProfanityFilter(MongoTemplate mongoTemplate, @Value("${app.profanity.dir:}") String lexiconDir) {
+        this.mongoTemplate = mongoTemplate;
+        this.lexiconDir = lexiconDir.isBlank() ? null : Paths.get(lexiconDir);
+        reload();
+    }
 
-        // Hindi profanity (Devanagari script)
-        profanityWords.put("hi", new HashSet<>(Arrays.asList(
-                "बकवास", "गधा", "कुत्ता", "साला", "हरामी", "चूतिया", "मादरचोद",
-                "भोसड़ी", "रंडी", "लौड़ा", "गांड", "चूत", "बहनचोद")));
+    /**
+     * One compiled set of lexicons. {@code version} increases with every
+     * reload on this node.
+     */
+    public record Lexicons(long version, Map<String, Set<String>> words, ProfanityMatcher matcher,
+            String fingerprint, LocalDateTime loadedAt) {
 
-        // Tamil profanity
-        profanityWords.put("ta", new HashSet<>(Arrays.asList(
-                "முட்டாள்", "நாய்", "பன்னி", "ஓழ்", "தேவிடியா", "கூதி", "சூத்து",
-                "லூசு", "போடா", "போடி", "ஓம்மல்")));
+        public Map<String, Integer> wordCounts() {
+            Map<String, Integer> counts = new TreeMap<>();
+            words.forEach((language, list) -> counts.put(language, list.size()));
+            return counts;
+        }
+    }
 
-        // Telugu profanity
-        profanityWords.put("te", new HashSet<>(Arrays.asList(
-                "దెంగు", "బూతు", "కుక్క", "గాడిద", "పిచ్చి", "లంజ", "బొంద",
-                "తల్లి", "పూకు", "సొల్లు")));
+    public Lexicons getLexicons() {
+        return current.get();
+    }
 
-        // Kannada profanity
-        profanityWords.put("kn", new HashSet<>(Arrays.asList(
-                "ಬೂತು", "ನಾಯಿ", "ಕತ್ತೆ", "ಹುಚ್ಚ", "ಲೂಸು", "ಗುಂಡ", "ತುಣ್ಣಿ",
-                "ಕಾಮುಕ", "ಬೇವರ್ಸಿ")));
+    /**
+     * Re-read every source and swap in a freshly compiled matcher.
+     */
+    public Lexicons reload() {
+        synchronized (reloadLock) {
+            String fingerprint = fingerprint();
+            Map<String, Set<String>> words = new HashMap<>();
+            loadBundled(words);
+            loadDirectory(words);
+            loadMongo(words);
+
+            Map<String, Set<String>> frozen = new HashMap<>();
+            words.forEach((language, list) -> frozen.put(language, Set.copyOf(list)));
+
+            Lexicons previous = current.get();
+            Lexicons next = new Lexicons(previous != null ? previous.version() + 1 : 1, Map.copyOf(frozen),
+                    ProfanityMatcher.build(frozen), fingerprint, LocalDateTime.now());
+            current.set(next);
+            return next;
+        }
+    }
 
-        // Malayalam profanity
-        profanityWords.put("ml", new HashSet<>(Arrays.asList(
-                "മൈര്", "പൂറ്", "കുണ്ണ", "തായോളി", "പട്ടി", "ചാണകം", "തേവിടിച്ചി",
-                "പൂര്", "മോന്ത", "ഊമ്പ്")));
+    /**
+     * Picks up lexicon changes made on other nodes or directly in the
+     * directory; cheap when nothing changed.
+     */
+    @Scheduled(fixedDelayString = "${app.profanity.refresh-ms:60000}")
+    public void refreshIfChanged() {
+        if (!fingerprint().equals(current.get().fingerprint())) {
+            Lexicons reloaded = reload();
+            System.out.println("Profanity lexicons reloaded (version " + reloaded.version() + ")");
+        }
+    }
 
-        // Bengali profanity
-        profanityWords.put("bn", new HashSet<>(Arrays.asList(
-                "শালা", "মাগি", "চোদা", "বাল", "গাধা", "হারামি", "কুত্তা",
-                "বেশ্যা", "ভোদা", "লাউড়া")));
+    /**
+     * Add words to a language's list in MongoDB and reload.
+     */
+    public Lexicons addWords(String language, Collection<String> words) {
+        List<String> cleaned = words.stream()
+                .filter(Objects::nonNull)
+                .map(String::trim)
+                .filter(word -> !word.isEmpty())
+                .toList();
+        mongoTemplate.upsert(new Query(Criteria.where("_id").is(language)),
+                new Update().addToSet("words").each(cleaned.toArray()).set("updatedAt", LocalDateTime.now()),
+                ProfanityLexicon.class);
+        return reload();
+    }
 
-        // Gujarati profanity
-        profanityWords.put("gu", new HashSet<>(Arrays.asList(
-                "ગધેડો", "કૂતરો", "ચૂતિયા", "હરામી", "રાંડ", "લોડો", "ગાંડ",
-                "બકવાસ", "પાગલ")));
+    private void loadBundled(Map<String, Set<String>> words) {
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(BUNDLED_LEXICONS)) {
+                try (BufferedReader reader = new BufferedReader(
+                        new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                    addLines(words, languageOf(resource.getFilename()), reader.lines().toList());
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read bundled profanity lexicons: " + e.getMessage());
+        }
+    }
 
-        // Marathi profanity
-        profanityWords.put("mr", new HashSet<>(Arrays.asList(
-                "झवाडा", "रांड", "गांड", "लवडा", "भोसडी", "चूत", "मादरचोद",
-                "कुत्रा", "गधव", "हरामी")));
+    private void loadDirectory(Map<String, Set<String>> words) {
+        if (lexiconDir == null || !Files.isDirectory(lexiconDir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(lexiconDir, "*.txt")) {
+            for (Path file : files) {
+                addLines(words, languageOf(file.getFileName().toString()), Files.readAllLines(file, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            System.err.println("Could not read profanity lexicons from " + lexiconDir + ": " + e.getMessage());
+        }
+    }
 
-        // Khasi profanity (basic - to be expanded)
-        profanityWords.put("kha", new HashSet<>(Arrays.asList(
-                "khlaw", "sniaw", "pyllait", "bnai")));
+    private void loadMongo(Map<String, Set<String>> words) {
+        if (mongoTemplate == null) {
+            return; // File lexicons only, e.g. in benchmarks
+        }
+        try {
+            for (ProfanityLexicon lexicon : mongoTemplate.findAll(ProfanityLexicon.class)) {
+                if (lexicon.getWords() != null) {
+                    addLines(words, lexicon.getLanguage(), lexicon.getWords());
+                }
+            }
+        } catch (Exception e) {
+            // Keep serving the file lexicons; the scheduled refresh retries
+            System.err.println("Could not load profanity lexicons from MongoDB: " + e.getMessage());
+        }
     }
 
-    private void compileProfanityPatterns() {
-        for (Map.Entry<String, Set<String>> entry : profanityWords.entrySet()) {
-            String language = entry.getKey();
-            Set<String> words = entry.getValue();
+    private static void addLines(Map<String, Set<String>> words, String language, Collection<String> lines) {
+        Set<String> list = words.computeIfAbsent(language, key -> new HashSet<>());
+        for (String line : lines) {
+            String word = line.trim();
+            if (!word.isEmpty() && !word.startsWith("#")) {
+                list.add(word);
+            }
+        }
+    }
 
-            // Create regex pattern for each language
-            String patternString = words.stream()
-                    .map(word -> "\\b" + Pattern.quote(word) + "\\b")
-                    .collect(Collectors.joining("|"));
+    private static String languageOf(String filename) {
+        return filename.substring(0, filename.lastIndexOf('.'));
+    }
 
-            profanityPatterns.put(language,
-                    Pattern.compile(patternString, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE));
+    // Changes whenever a reload would produce a different result
+    private String fingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        if (lexiconDir != null && Files.isDirectory(lexiconDir)) {
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(lexiconDir, "*.txt")) {
+                for (Path file : files) {
+                    fingerprint.append(file.getFileName()).append(':').append(Files.size(file)).append(':')
+                            .append(Files.getLastModifiedTime(file).toMillis()).append(';');
+                }
+            } catch (IOException e) {
+                fingerprint.append("dir-unreadable;");
+            }
+        }
+        if (mongoTemplate == null) {
+            return fingerprint.toString();
         }
+        try {
+            Query newest = new Query().with(Sort.by(Sort.Direction.DESC, "updatedAt")).limit(1);
+            newest.fields().include("updatedAt");
+            ProfanityLexicon latest = mongoTemplate.findOne(newest, ProfanityLexicon.class);
+            fingerprint.append("mongo:").append(mongoTemplate.count(new Query(), ProfanityLexicon.class))
+                    .append(':').append(latest != null ? latest.getUpdatedAt() : null);
+        } catch (Exception e) {
+            fingerprint.append("mongo-unavailable");
+        }
+        return fingerprint.toString();
     }
 
     /**
@@ -93,16 +210,12 @@ public class ProfanityFilter {
             return false;
         }
 
-        String normalizedText = text.toLowerCase().trim();
-
-        // Check against all language patterns
-        for (Pattern pattern : profanityPatterns.values()) {
-            if (pattern.matcher(normalizedText).find()) {
-                return true;
-            }
-        }
-
-        return false;
+        boolean[] found = { false };
+        current.get().matcher().scan(ProfanityMatcher.normalize(text), match -> {
+            found[0] = true;
+            return false; // First hit is enough
+        });
+        return found[0];
     }
 
     /**
@@ -113,38 +226,40 @@ public class ProfanityFilter {
             return false;
         }
 
-        Pattern pattern = profanityPatterns.get(languageCode);
-        if (pattern == null) {
+        Lexicons lexicons = current.get();
+        if (!lexicons.words().containsKey(languageCode)) {
             // If language not supported, check against all languages
             return containsProfanity(text);
         }
 
-        return pattern.matcher(text.toLowerCase().trim()).find();
+        boolean[] found = { false };
+        lexicons.matcher().scan(ProfanityMatcher.normalize(text), match -> {
+            found[0] = match.languages().contains(languageCode);
+            return !found[0];
+        });
+        return found[0];
     }
 
     /**
      * Find all profanity words in the text
      */
     public List<String> findProfanity(String text) {
-        List<String> foundWords = new ArrayList<>();
-
-        if (text == null || text.trim().isEmpty()) {
-            return foundWords;
+        Set<String> foundWords = new LinkedHashSet<>();
+        for (ProfanityMatcher.Match match : findMatches(text)) {
+            foundWords.add(match.word());
         }
+        return new ArrayList<>(foundWords);
+    }
 
-        String normalizedText = text.toLowerCase().trim();
-
-        for (Set<String> words : profanityWords.values()) {
-            for (String word : words) {
-                Pattern pattern = Pattern.compile("\\b" + Pattern.quote(word) + "\\b",
-                        Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-                if (pattern.matcher(normalizedText).find()) {
-                    foundWords.add(word);
-                }
-            }
+    /**
+     * Every match with its offsets and languages. Offsets refer to the NFC
+     * form of the text, which is the text itself unless it was decomposed.
+     */
+    public List<ProfanityMatcher.Match> findMatches(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            return new ArrayList<>();
         }
-
-        return foundWords;
+        return current.get().matcher().findAll(ProfanityMatcher.normalize(text));
     }
 
     /**
@@ -155,31 +270,34 @@ public class ProfanityFilter {
             return text;
         }
 
-        String result = text;
-
-        for (Pattern pattern : profanityPatterns.values()) {
-            result = pattern.matcher(result).replaceAll(match -> {
-                String word = match.group();
-                return word.charAt(0) + "*".repeat(word.length() - 1);
-            });
-        }
+        String normalized = ProfanityMatcher.normalize(text);
+        char[] result = normalized.toCharArray();
+        boolean[] changed = { false };
+        current.get().matcher().scan(normalized, match -> {
+            // Keep the first character so the word is still recognisable
+            for (int i = match.start() + 1; i < match.end(); i++) {
+                result[i] = '*';
+            }
+            changed[0] = true;
+            return true;
+        });
 
-        return result;
+        return changed[0] ? new String(result) : text;
     }
 
     /**
      * Get supported languages for profanity filtering
      */
     public Set<String> getSupportedLanguages() {
-        return profanityWords.keySet();
+        return current.get().words().keySet();
     }
 
     /**
      * Validate text and return validation result
      */
     public ValidationResult validate(String text) {
-        if (containsProfanity(text)) {
-            List<String> found = findProfanity(text);
+        List<String> found = findProfanity(text);
+        if (!found.isEmpty()) {
             return new ValidationResult(false,
                     "Content contains inappropriate language: " + String.join(", ", found),
                     found);
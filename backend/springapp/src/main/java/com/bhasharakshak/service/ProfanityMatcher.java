@@ -0,0 +1,242 @@
+package com.bhasharakshak.service;
+
+import java.text.Normalizer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Aho-Corasick automaton over the words of every lexicon, so a text is
+ * scanned once no matter how many languages or words there are.
+ *
+ * Matching is case-insensitive and ignores ZWJ/ZWNJ. A match only counts on
+ * whole-word boundaries, where a word is a run of letters, digits and
+ * combining marks: a hit followed by a matra or virama is part of a longer
+ * word and is skipped, which {@code \b} gets wrong for Indic scripts.
+ */
+public final class ProfanityMatcher {
+
+    private static final char ZWNJ = '\u200C';
+    private static final char ZWJ = '\u200D';
+
+    // Trie transitions per state, keys sorted for binary search
+    private final char[][] keys;
+    private final int[][] targets;
+    private final int[] fail;
+    // Nearest state on the fail chain (including itself) that ends a word, or -1
+    private final int[] output;
+    private final Entry[] entries; // word ending at each state, or null
+
+    private ProfanityMatcher(char[][] keys, int[][] targets, int[] fail, int[] output, Entry[] entries) {
+        this.keys = keys;
+        this.targets = targets;
+        this.fail = fail;
+        this.output = output;
+        this.entries = entries;
+    }
+
+    /**
+     * A lexicon word found in the text. Offsets index into the scanned text
+     * ({@code end} exclusive) and the word is listed once with every language
+     * whose lexicon contains it.
+     */
+    public record Match(int start, int end, String word, List<String> languages) {
+    }
+
+    @FunctionalInterface
+    public interface MatchSink {
+        /**
+         * @return false to stop scanning
+         */
+        boolean accept(Match match);
+    }
+
+    public static ProfanityMatcher build(Map<String, ? extends Set<String>> lexicons) {
+        Builder builder = new Builder();
+        lexicons.forEach((language, words) -> words.forEach(word -> builder.add(word, language)));
+        return builder.build();
+    }
+
+    /**
+     * The form scanning works on: NFC. Match offsets refer to this string;
+     * for text that is already NFC (the usual case) it is the text itself.
+     */
+    public static String normalize(String text) {
+        return Normalizer.isNormalized(text, Normalizer.Form.NFC) ? text : Normalizer.normalize(text, Normalizer.Form.NFC);
+    }
+
+    /**
+     * Reports every whole-word match in {@code text} (already normalized)
+     * in order of end offset.
+     */
+    public void scan(String text, MatchSink sink) {
+        int length = text.length();
+        // Index in text of each consumed (non-ignored) char, to recover match starts
+        int[] consumedAt = new int[length];
+        int consumed = 0;
+        int state = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == ZWJ || c == ZWNJ) {
+                continue;
+            }
+            consumedAt[consumed++] = i;
+            c = Character.toLowerCase(c);
+
+            int next = transition(state, c);
+            while (next < 0 && state != 0) {
+                state = fail[state];
+                next = transition(state, c);
+            }
+            state = Math.max(next, 0);
+
+            for (int s = output[state]; s >= 0; s = output[fail[s]]) {
+                Entry entry = entries[s];
+                int start = consumedAt[consumed - entry.length];
+                if (isBoundary(text, start - 1) && isBoundary(text, i + 1)
+                        && !sink.accept(new Match(start, i + 1, entry.word, entry.languages))) {
+                    return;
+                }
+            }
+        }
+    }
+
+    public List<Match> findAll(String text) {
+        List<Match> matches = new ArrayList<>();
+        scan(text, matches::add);
+        return matches;
+    }
+
+    private int transition(int state, char c) {
+        int i = Arrays.binarySearch(keys[state], c);
+        return i >= 0 ? targets[state][i] : -1;
+    }
+
+    // True when the char at index is not part of a word (or out of range)
+    private static boolean isBoundary(String text, int index) {
+        if (index < 0 || index >= text.length()) {
+            return true;
+        }
+        char c = text.charAt(index);
+        if (c == ZWJ || c == ZWNJ || Character.isLetterOrDigit(c)) {
+            return false;
+        }
+        int type = Character.getType(c);
+        return type != Character.NON_SPACING_MARK
+                && type != Character.COMBINING_SPACING_MARK
+                && type != Character.ENCLOSING_MARK;
+    }
+
+    private record Entry(String word, int length, List<String> languages) {
+    }
+
+    private static final class Builder {
+
+        private final List<Map<Character, Integer>> children = new ArrayList<>();
+        private final List<Entry> entries = new ArrayList<>();
+
+        Builder() {
+            newState();
+        }
+
+        void add(String word, String language) {
+            String normalized = normalizeWord(word);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            int state = 0;
+            for (int i = 0; i < normalized.length(); i++) {
+                char c = normalized.charAt(i);
+                Integer next = children.get(state).get(c);
+                if (next == null) {
+                    next = newState();
+                    children.get(state).put(c, next);
+                }
+                state = next;
+            }
+
+            Entry existing = entries.get(state);
+            List<String> languages = existing != null ? new ArrayList<>(existing.languages()) : new ArrayList<>();
+            if (!languages.contains(language)) {
+                languages.add(language);
+            }
+            entries.set(state, new Entry(normalized, normalized.length(), List.copyOf(languages)));
+        }
+
+        ProfanityMatcher build() {
+            int states = children.size();
+            char[][] keys = new char[states][];
+            int[][] targets = new int[states][];
+            for (int s = 0; s < states; s++) {
+                Map<Character, Integer> edges = new TreeMap<>(children.get(s));
+                keys[s] = new char[edges.size()];
+                targets[s] = new int[edges.size()];
+                int i = 0;
+                for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                    keys[s][i] = edge.getKey();
+                    targets[s][i] = edge.getValue();
+                    i++;
+                }
+            }
+
+            // Breadth-first so a state's fail target is always finished first
+            int[] fail = new int[states];
+            int[] output = new int[states];
+            Arrays.fill(output, -1);
+            Queue<Integer> queue = new ArrayDeque<>();
+            for (int child : targets[0]) {
+                fail[child] = 0;
+                queue.add(child);
+            }
+            while (!queue.isEmpty()) {
+                int state = queue.poll();
+                output[state] = entries.get(state) != null ? state : output[fail[state]];
+                for (int i = 0; i < keys[state].length; i++) {
+                    char c = keys[state][i];
+                    int child = targets[state][i];
+                    int f = fail[state];
+                    int next = -1;
+                    while (true) {
+                        int j = Arrays.binarySearch(keys[f], c);
+                        if (j >= 0) {
+                            next = targets[f][j];
+                            break;
+                        }
+                        if (f == 0) {
+                            break;
+                        }
+                        f = fail[f];
+                    }
+                    fail[child] = next >= 0 ? next : 0;
+                    queue.add(child);
+                }
+            }
+            return new ProfanityMatcher(keys, targets, fail, output, entries.toArray(new Entry[0]));
+        }
+
+        private int newState() {
+            children.add(new LinkedHashMap<>());
+            entries.add(null);
+            return children.size() - 1;
+        }
+
+        private static String normalizeWord(String word) {
+            String nfc = Normalizer.normalize(word.trim(), Normalizer.Form.NFC);
+            StringBuilder normalized = new StringBuilder(nfc.length());
+            for (int i = 0; i < nfc.length(); i++) {
+                char c = nfc.charAt(i);
+                if (c != ZWJ && c != ZWNJ) {
+                    normalized.append(Character.toLowerCase(c));
+                }
+            }
+            return normalized.toString();
+        }
+    }
+}
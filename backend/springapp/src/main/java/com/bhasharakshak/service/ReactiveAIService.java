@@ -0,0 +1,297 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.service.AiClientPool.Operation;
+import com.bhasharakshak.tracing.RequestTrace;
+import com.bhasharakshak.tracing.Tracing;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.MultipartBodyBuilder;
+import org.springframework.http.client.reactive.JdkClientHttpConnector;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Non-blocking counterpart of {@link AIService}: every call returns a
+ * {@link Mono} and holds no thread while the AI service works, so a node can
+ * keep hundreds of calls in flight. Calls share the circuit breakers and
+ * read timeouts of {@link AiClientPool}; in-flight calls per operation are
+ * capped separately by {@code app.ai-client.reactive.max-in-flight}.
+ */
+@Service
+public class ReactiveAIService {
+
+    private static final ParameterizedTypeReference<Map<String, Object>> JSON_MAP = new ParameterizedTypeReference<>() {
+    };
+
+    private final WebClient webClient;
+    private final AiClientPool clientPool;
+    private final AIService aiService;
+    private final TranslationCache translationCache;
+    private final Map<Operation, Semaphore> inFlight = new EnumMap<>(Operation.class);
+
+    public ReactiveAIService(
+            @Value("${ai-service.url}") String aiServiceUrl,
+            @Value("${app.ai-client.reactive.max-in-flight:256}") int maxInFlight,
+            AiClientPool clientPool,
+            AIService aiService,
+            TranslationCache translationCache) {
+        this.clientPool = clientPool;
+        this.aiService = aiService;
+        this.translationCache = translationCache;
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        this.webClient = WebClient.builder()
+                .baseUrl(aiServiceUrl)
+                .clientConnector(new JdkClientHttpConnector(httpClient))
+                // TTS audio comes back inline as base64
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(32 * 1024 * 1024))
+                .build();
+        for (Operation operation : Operation.values()) {
+            inFlight.put(operation, new Semaphore(maxInFlight));
+        }
+    }
+
+    public Mono<String> transcribe(Resource audio, String language) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        builder.part("file", audio);
+        builder.part("language", language != null ? language : "English");
+        return guarded(Operation.STT, postMultipart("/stt", builder))
+                .map(response -> field(response, "transcript", "STT"));
+    }
+
+    public Mono<String> translate(String text, String targetLang, String sourceLang) {
+        String cached = translationCache.get(text, sourceLang, targetLang);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        Mono<String> translation;
+        if (aiService.coalescing()) {
+            // Joins the blocking path's batches, so both kinds of caller share one window
+            translation = Mono.fromFuture(() -> aiService.translateCoalesced(text, targetLang, sourceLang))
+                    .switchIfEmpty(Mono.error(() -> new RuntimeException("Translation Service returned null response")));
+        } else {
+            Map<String, String> request = Map.of(
+                    "text", text,
+                    "target_lang", targetLang,
+                    "source_lang", sourceLang != null ? sourceLang : "");
+            translation = guarded(Operation.TRANSLATE, postJson("/translate", request))
+                    .map(response -> field(response, "translated_text", "Translation"));
+        }
+        return translation
+                .doOnNext(translated -> {
+                    if (AIService.isTranslation(translated)) {
+                        translationCache.put(text, sourceLang, targetLang, translated);
+                    }
+                });
+    }
+
+    /**
+     * As {@link AIService#translateBatch}: results in request order, null for
+     * an item the AI service could not translate.
+     */
+    public Mono<List<String>> translateBatch(List<AIService.TranslationItem> items) {
+        List<String> results = new ArrayList<>(items.size());
+        List<Integer> uncached = new ArrayList<>();
+        for (AIService.TranslationItem item : items) {
+            String cached = translationCache.get(item.text(), item.sourceLang(), item.targetLang());
+            if (cached == null) {
+                uncached.add(results.size());
+            }
+            results.add(cached);
+        }
+        if (uncached.isEmpty()) {
+            return Mono.just(results);
+        }
+
+        List<Map<String, String>> payload = uncached.stream()
+                .map(items::get)
+                .map(item -> Map.of(
+                        "text", item.text(),
+                        "target_lang", item.targetLang(),
+                        "source_lang", item.sourceLang() != null ? item.sourceLang() : ""))
+                .toList();
+
+        return guarded(Operation.TRANSLATE_BATCH, postJson("/translate/batch", Map.of("items", payload)))
+                .map(response -> {
+                    if (!(response.get("results") instanceof List<?> translated) || translated.size() != uncached.size()) {
+                        throw new RuntimeException("Batch Translation Service returned an invalid response");
+                    }
+                    for (int i = 0; i < uncached.size(); i++) {
+                        AIService.TranslationItem item = items.get(uncached.get(i));
+                        String text = translated.get(i) instanceof Map<?, ?> map ? (String) map.get("translated_text") : null;
+                        if (AIService.isTranslation(text)) {
+                            translationCache.put(item.text(), item.sourceLang(), item.targetLang(), text);
+                            results.set(uncached.get(i), text);
+                        }
+                    }
+                    return results;
+                });
+    }
+
+    public Mono<String> speech(String text, String lang) {
+        return guarded(Operation.TTS, postJson("/tts", Map.of("text", text, "lang", lang)))
+                .map(response -> field(response, "audio_data", "TTS"));
+    }
+
+    public Mono<String> describe(Resource image) {
+        MultipartBodyBuilder builder = new MultipartBodyBuilder();
+        builder.part("file", image);
+        return guarded(Operation.DESCRIBE_IMAGE, postMultipart("/describe-image", builder))
+                .map(response -> field(response, "description", "Image Description"));
+    }
+
+    /**
+     * Runs all calls with at most {@code concurrency} in flight, each bounded
+     * by {@code perCallTimeout}. A call that fails is reported in
+     * {@link FanOut#failed()} instead of failing the whole fan-out; results
+     * keep the order of {@code calls}.
+     */
+    public static <K, V> Mono<FanOut<K, V>> fanOut(Map<K, Mono<V>> calls, int concurrency, Duration perCallTimeout) {
+        return Flux.fromIterable(calls.entrySet())
+                .flatMap(call -> call.getValue()
+                        .timeout(perCallTimeout)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .onErrorResume(e -> {
+                            System.err.println("AI call for " + call.getKey() + " failed: " + e.getMessage());
+                            return Mono.just(Optional.empty());
+                        })
+                        .map(result -> Map.entry(call.getKey(), result)), concurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .map(outcomes -> {
+                    Map<K, V> results = new LinkedHashMap<>();
+                    List<K> failed = new ArrayList<>();
+                    for (K key : calls.keySet()) {
+                        Optional<V> result = outcomes.get(key);
+                        if (result.isPresent()) {
+                            results.put(key, result.get());
+                        } else {
+                            failed.add(key);
+                        }
+                    }
+                    return new FanOut<>(results, failed);
+                });
+    }
+
+    /**
+     * Retries {@code call} with exponential backoff and jitter on transient
+     * failures (I/O errors, timeouts, 5xx). Open circuits, full bulkheads and
+     * 4xx responses are not retried.
+     */
+    public static <T> Mono<T> withRetry(Mono<T> call, int maxRetries, Duration firstBackoff) {
+        return call.retryWhen(Retry.backoff(maxRetries, firstBackoff)
+                .filter(ReactiveAIService::isTransient)
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    public record FanOut<K, V>(Map<K, V> results, List<K> failed) {
+    }
+
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof CircuitBreaker.CircuitOpenException || e instanceof AiClientPool.BulkheadFullException) {
+            return false;
+        }
+        return !(e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError());
+    }
+
+    // Requests are built at subscription so the trace headers come from the subscriber's context
+    private Mono<Map<String, Object>> postJson(String uri, Object body) {
+        return Mono.deferContextual(context -> webClient.post()
+                .uri(uri)
+                .headers(Tracing.current(context)::inject)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body)
+                .retrieve()
+                .bodyToMono(JSON_MAP));
+    }
+
+    private Mono<Map<String, Object>> postMultipart(String uri, MultipartBodyBuilder builder) {
+        return Mono.deferContextual(context -> webClient.post()
+                .uri(uri)
+                .headers(Tracing.current(context)::inject)
+                .contentType(MediaType.MULTIPART_FORM_DATA)
+                .body(BodyInserters.fromMultipartData(builder.build()))
+                .retrieve()
+                .bodyToMono(JSON_MAP));
+    }
+
+    /**
+     * Applies the operation's circuit breaker, in-flight cap and read timeout
+     * to a call, at subscription time.
+     */
+    private <T> Mono<T> guarded(Operation operation, Mono<T> call) {
+        return Mono.deferContextual(context -> {
+            RequestTrace trace = Tracing.current(context);
+            long start = System.nanoTime();
+            return permitted(operation, call)
+                    .doOnSuccess(result -> clientPool.record(operation, "reactive", trace, start, null))
+                    .doOnError(e -> clientPool.record(operation, "reactive", trace, start, e));
+        });
+    }
+
+    private <T> Mono<T> permitted(Operation operation, Mono<T> call) {
+        return Mono.defer(() -> {
+            CircuitBreaker breaker = clientPool.breaker(operation);
+            long permit = breaker.acquirePermission();
+            Semaphore permits = inFlight.get(operation);
+            if (!permits.tryAcquire()) {
+                breaker.onIgnored(permit);
+                return Mono.error(new AiClientPool.BulkheadFullException(operation));
+            }
+
+            // Exactly one outcome per permitted call, whichever signal comes first
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call
+                    .timeout(clientPool.readTimeout(operation))
+                    .doOnSuccess(result -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            breaker.onSuccess(permit);
+                        }
+                    })
+                    .doOnError(e -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            if (e instanceof WebClientResponseException response && response.getStatusCode().is4xxClientError()) {
+                                breaker.onIgnored(permit);
+                            } else {
+                                breaker.onFailure(permit);
+                            }
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            breaker.onIgnored(permit);
+                        }
+                    })
+                    .doFinally(signal -> permits.release());
+        });
+    }
+
+    private static String field(Map<String, Object> response, String name, String service) {
+        Object value = response.get(name);
+        if (value == null) {
+            throw new RuntimeException(service + " Service returned null response");
+        }
+        return (String) value;
+    }
+}
@@ -1,37 +1,383 @@
 package com.bhasharakshak.service;
 
-import lombok.RequiredArgsConstructor;
+import com.bhasharakshak.model.ContentBlob;
+import com.bhasharakshak.model.DerivedFile;
+import com.mongodb.client.gridfs.GridFSBucket;
+import com.mongodb.client.gridfs.GridFSBuckets;
+import com.mongodb.client.gridfs.GridFSUploadStream;
+import com.mongodb.client.gridfs.model.GridFSFile;
+import com.mongodb.client.gridfs.model.GridFSUploadOptions;
+import com.mongodb.client.result.DeleteResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
 import org.bson.types.ObjectId;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.MongoDatabaseFactory;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Criteria;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.data.mongodb.gridfs.GridFsResource;
 import org.springframework.data.mongodb.gridfs.GridFsTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
+/**
+ * GridFS access, metered: {@code gridfs.store}/{@code gridfs.read} time
+ * whole transfers and {@code gridfs.*.bytes} their sizes.
+ *
+ * Stored content is deduplicated by SHA-256 through the {@code blobs}
+ * collection ({@link ContentBlob}): storing bytes that are already there
+ * returns the existing file and takes a reference to it. Uploads that are
+ * on local disk already (multipart files) are hashed before storing, so a
+ * duplicate writes no chunks; streams are hashed as they are stored, and a
+ * duplicate's new file is dropped again. {@link #release} gives a reference
+ * back, and the last one deletes the files.
+ */
 @Service
-@RequiredArgsConstructor
 public class StorageService {
 
     private final GridFsTemplate gridFsTemplate;
+    private final GridFSBucket bucket;
+    private final MongoTemplate mongoTemplate;
+    private final Counter dedupHits;
+    private final Timer storeTimer;
+    private final DistributionSummary storeBytes;
+    private final Timer lookupTimer;
+    private final Timer readTimer;
+    private final DistributionSummary readBytes;
+
+    public StorageService(GridFsTemplate gridFsTemplate, MongoDatabaseFactory databaseFactory,
+            MongoTemplate mongoTemplate, MeterRegistry meterRegistry) {
+        this.gridFsTemplate = gridFsTemplate;
+        // The same default "fs" bucket, for writers that produce their content as they go
+        this.bucket = GridFSBuckets.create(databaseFactory.getMongoDatabase());
+        this.mongoTemplate = mongoTemplate;
+        this.dedupHits = Counter.builder("gridfs.dedup")
+                .description("Stores that found their content already in GridFS")
+                .register(meterRegistry);
+        this.storeTimer = Timer.builder("gridfs.store")
+                .description("Time to store a file in GridFS, including reading the upload")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.storeBytes = DistributionSummary.builder("gridfs.store.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.lookupTimer = Timer.builder("gridfs.lookup")
+                .description("Time to find a file's metadata and open it")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.readTimer = Timer.builder("gridfs.read")
+                .description("Time a GridFS download stream was open")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.readBytes = DistributionSummary.builder("gridfs.read.bytes")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
 
     public String storeFile(MultipartFile file) {
-        try {
-            ObjectId objectId = gridFsTemplate.store(
-                    file.getInputStream(),
-                    file.getOriginalFilename(),
-                    file.getContentType());
-            return objectId.toString();
+        ContentBlob existing = reference(hash(file));
+        if (existing != null) {
+            return existing.getFileId();
+        }
+        try (InputStream content = file.getInputStream()) {
+            return storeStream(content, file.getOriginalFilename(), file.getContentType());
         } catch (IOException ex) {
             throw new RuntimeException("Could not store file in GridFS", ex);
         }
     }
 
+    /**
+     * Store a stream in GridFS chunk by chunk, or reference the same content
+     * if it is stored already. The stream is not closed.
+     */
+    public String storeStream(InputStream content, String filename, String contentType) {
+        return storeBlob(content, filename, contentType).getFileId();
+    }
+
+    /** {@link #storeStream}, returning the blob the content ended up in. */
+    public ContentBlob storeBlob(InputStream content, String filename, String contentType) {
+        long start = System.nanoTime();
+        MeteredInputStream metered = new MeteredInputStream(content, null, null);
+        DigestInputStream digest = new DigestInputStream(metered, sha256());
+        ObjectId objectId = gridFsTemplate.store(digest, filename, contentType);
+        storeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        storeBytes.record(metered.getCount());
+
+        ContentBlob blob = new ContentBlob();
+        blob.setId(HexFormat.of().formatHex(digest.getMessageDigest().digest()));
+        blob.setFileId(objectId.toString());
+        blob.setSize(metered.getCount());
+        blob.setContentType(contentType);
+        return register(blob);
+    }
+
+    /** SHA-256 of an upload, the key of its {@link ContentBlob}. */
+    public String hash(MultipartFile file) {
+        try (InputStream content = new DigestInputStream(file.getInputStream(), sha256())) {
+            content.transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(((DigestInputStream) content).getMessageDigest().digest());
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read uploaded file", ex);
+        }
+    }
+
+    public Optional<ContentBlob> findBlob(String hash) {
+        return Optional.ofNullable(mongoTemplate.findById(hash, ContentBlob.class));
+    }
+
+    /**
+     * Takes a reference to the stored content with this hash.
+     *
+     * @return the blob, or null if the content is not stored
+     */
+    public ContentBlob reference(String hash) {
+        // refCount > 0: a blob whose last reference is being released cannot be revived
+        ContentBlob blob = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(hash).and("refCount").gt(0)),
+                new Update().inc("refCount", 1).set("updatedAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true), ContentBlob.class);
+        if (blob != null) {
+            dedupHits.increment();
+        }
+        return blob;
+    }
+
+    /**
+     * Records files just stored for content with the blob's hash, holding one
+     * reference. If another store of the same content got there first, the
+     * new files are deleted and a reference to the existing blob is returned.
+     */
+    public ContentBlob register(ContentBlob blob) {
+        Instant now = Instant.now();
+        blob.setRefCount(1);
+        blob.setCreatedAt(now);
+        blob.setUpdatedAt(now);
+        for (int attempt = 0; attempt < 2; attempt++) {
+            try {
+                return mongoTemplate.insert(blob);
+            } catch (DuplicateKeyException e) {
+                ContentBlob existing = reference(blob.getId());
+                if (existing != null) {
+                    deleteFiles(blob);
+                    return existing;
+                }
+                // Its last reference is being released; insert once it is gone
+            }
+        }
+        System.err.println("Could not register blob " + blob.getId() + "; its files are kept unshared");
+        return blob;
+    }
+
+    /**
+     * Gives back a reference taken by a store; the last one deletes the
+     * files. Files stored before deduplication have no blob and are kept.
+     */
+    public void release(String fileId) {
+        if (fileId == null) {
+            return;
+        }
+        ContentBlob blob = mongoTemplate.findAndModify(
+                new Query(Criteria.where("fileId").is(fileId)),
+                new Update().inc("refCount", -1).set("updatedAt", Instant.now()),
+                FindAndModifyOptions.options().returnNew(true), ContentBlob.class);
+        if (blob == null || blob.getRefCount() > 0) {
+            return;
+        }
+        DeleteResult removed = mongoTemplate.remove(
+                new Query(Criteria.where("_id").is(blob.getId()).and("refCount").lte(0)), ContentBlob.class);
+        if (removed.getDeletedCount() == 1) {
+            deleteFiles(blob);
+        }
+    }
+
+    /** The GridFS id at the end of a {@code /files/<id>} URL, or null. */
+    public static String fileIdOf(String fileUrl) {
+        return fileUrl == null || fileUrl.isEmpty() ? null : fileUrl.substring(fileUrl.lastIndexOf('/') + 1);
+    }
+
+    /** A transcript made earlier from the same stored bytes, if any. */
+    public Optional<String> findTranscript(String fileId, String language) {
+        return findBlobByFileId(fileId)
+                .map(ContentBlob::getTranscripts)
+                .map(transcripts -> transcripts.get(languageKey(language)));
+    }
+
+    public void saveTranscript(String fileId, String language, String transcript) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("fileId").is(fileId)),
+                new Update().set("transcripts." + languageKey(language), transcript), ContentBlob.class);
+    }
+
+    public void saveDescription(String fileId, String description) {
+        mongoTemplate.updateFirst(new Query(Criteria.where("fileId").is(fileId)),
+                new Update().set("description", description), ContentBlob.class);
+    }
+
+    private Optional<ContentBlob> findBlobByFileId(String fileId) {
+        return Optional.ofNullable(mongoTemplate.findOne(
+                new Query(Criteria.where("fileId").is(fileId)), ContentBlob.class));
+    }
+
+    private void deleteFiles(ContentBlob blob) {
+        Stream.of(blob.getFileId(), blob.getArchiveFileId(), blob.getOriginalFileId())
+                .filter(java.util.Objects::nonNull)
+                .distinct()
+                .forEach(this::deleteFile);
+    }
+
+    // A usable map key: field names may not contain '.' or start with '$'
+    private static String languageKey(String language) {
+        String key = language == null ? "" : language.strip().toLowerCase(Locale.ROOT).replace('.', '_').replace('$', '_');
+        return key.isEmpty() ? "_" : key;
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Open a GridFS file to write into, for content that is produced rather
+     * than read. Several may be open at once. {@link Upload#close()} commits
+     * the file; {@link Upload#abort()} discards it, committed or not.
+     */
+    public Upload openUpload(String filename, String contentType) {
+        GridFSUploadOptions options = new GridFSUploadOptions()
+                .metadata(new Document("_contentType", contentType));
+        return new Upload(bucket.openUploadStream(filename, options));
+    }
+
     public GridFsResource getFile(String id) {
-        return java.util.Optional.ofNullable(gridFsTemplate.findOne(new Query(Criteria.where("_id").is(id))))
+        GridFsResource resource = lookupTimer.record(() -> java.util.Optional
+                .ofNullable(gridFsTemplate.findOne(new Query(Criteria.where("_id").is(id))))
                 .map(gridFsTemplate::getResource)
-                .orElseThrow(() -> new RuntimeException("File not found with id " + id));
+                .orElse(null));
+        if (resource == null) {
+            throw new RuntimeException("File not found with id " + id);
+        }
+        return new MeteredResource(resource, readBytes, readTimer);
+    }
+
+    /** Deletes a file and any renditions derived from it. */
+    public void deleteFile(String id) {
+        gridFsTemplate.delete(new Query(Criteria.where("_id").is(id)));
+        for (DerivedFile derived : mongoTemplate.findAllAndRemove(
+                new Query(Criteria.where("sourceFileId").is(id)), DerivedFile.class)) {
+            if (!id.equals(derived.getFileId())) {
+                gridFsTemplate.delete(new Query(Criteria.where("_id").is(derived.getFileId())));
+            }
+        }
+    }
+
+    public Optional<DerivedFile> findDerived(String sourceFileId, String variant) {
+        return Optional.ofNullable(mongoTemplate.findById(DerivedFile.idOf(sourceFileId, variant), DerivedFile.class));
+    }
+
+    /**
+     * Records a rendition just stored. If another one for the same variant
+     * was recorded first, the new file is deleted and that one is returned.
+     */
+    public DerivedFile saveDerived(DerivedFile derived) {
+        derived.setId(DerivedFile.idOf(derived.getSourceFileId(), derived.getVariant()));
+        derived.setCreatedAt(Instant.now());
+        try {
+            return mongoTemplate.insert(derived);
+        } catch (DuplicateKeyException e) {
+            if (!derived.getFileId().equals(derived.getSourceFileId())) {
+                gridFsTemplate.delete(new Query(Criteria.where("_id").is(derived.getFileId())));
+            }
+            return findDerived(derived.getSourceFileId(), derived.getVariant()).orElse(derived);
+        }
+    }
+
+    public final class Upload extends OutputStream {
+        private final GridFSUploadStream stream;
+        private final long start = System.nanoTime();
+        private long count;
+        private boolean done;
+
+        private Upload(GridFSUploadStream stream) {
+            this.stream = stream;
+        }
+
+        public String getId() {
+            return stream.getObjectId().toString();
+        }
+
+        @Override
+        public void write(int b) {
+            stream.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            stream.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            if (!done) {
+                done = true;
+                stream.close();
+                storeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                storeBytes.record(count);
+            }
+        }
+
+        public void abort() {
+            if (!done) {
+                done = true;
+                stream.abort();
+            } else {
+                bucket.delete(stream.getObjectId());
+            }
+        }
+    }
+
+    // Same file, but reads through it are counted
+    private static final class MeteredResource extends GridFsResource {
+        private final GridFsResource delegate;
+        private final DistributionSummary bytes;
+        private final Timer duration;
+
+        MeteredResource(GridFsResource delegate, DistributionSummary bytes, Timer duration) {
+            super(delegate.getGridFSFile());
+            this.delegate = delegate;
+            this.bytes = bytes;
+            this.duration = duration;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new MeteredInputStream(delegate.getInputStream(), bytes, duration);
+        }
+
+        @Override
+        public GridFSFile getGridFSFile() {
+            return delegate.getGridFSFile();
+        }
     }
 }
@@ -0,0 +1,152 @@
+package com.bhasharakshak.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits one source stream into several branch streams without buffering the
+ * whole payload. The source is read once, chunk by chunk, and every chunk is
+ * handed to each branch through a bounded queue, so a slow consumer applies
+ * back-pressure instead of growing the heap.
+ *
+ * A branch whose consumer gives up (closes early or fails) is dropped and no
+ * longer holds back the others.
+ */
+public class StreamTee {
+
+    private static final byte[] EOF = new byte[0];
+
+    private final InputStream source;
+    private final int chunkSize;
+    private final Branch[] branches;
+
+    public StreamTee(InputStream source, int branchCount, int chunkSize, int bufferedChunks) {
+        this.source = source;
+        this.chunkSize = chunkSize;
+        this.branches = new Branch[branchCount];
+        for (int i = 0; i < branchCount; i++) {
+            branches[i] = new Branch(bufferedChunks);
+        }
+    }
+
+    public InputStream branch(int index) {
+        return branches[index];
+    }
+
+    /**
+     * Reads the source to the end, feeding every open branch. Runs on the
+     * calling thread and blocks while all open branches have full buffers.
+     */
+    public void pump() throws IOException {
+        try {
+            while (true) {
+                byte[] chunk = source.readNBytes(chunkSize);
+                if (chunk.length == 0) {
+                    break;
+                }
+                if (!offerToAll(chunk)) {
+                    return; // every consumer has gone away
+                }
+            }
+            offerToAll(EOF);
+        } catch (IOException | RuntimeException e) {
+            for (Branch branch : branches) {
+                branch.fail(e);
+            }
+            throw e;
+        }
+    }
+
+    private boolean offerToAll(byte[] chunk) throws IOException {
+        boolean anyOpen = false;
+        for (Branch branch : branches) {
+            anyOpen |= branch.offer(chunk);
+        }
+        return anyOpen;
+    }
+
+    private static final class Branch extends InputStream {
+
+        private final BlockingQueue<byte[]> queue;
+        private volatile boolean closed;
+        private volatile IOException failure;
+        private byte[] current;
+        private int position;
+
+        Branch(int bufferedChunks) {
+            this.queue = new ArrayBlockingQueue<>(bufferedChunks);
+        }
+
+        boolean offer(byte[] chunk) throws IOException {
+            try {
+                while (!closed) {
+                    if (queue.offer(chunk, 50, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                }
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while feeding stream branch");
+            }
+        }
+
+        void fail(Exception cause) {
+            failure = cause instanceof IOException io ? io : new IOException(cause);
+            queue.clear();
+            queue.offer(EOF);
+        }
+
+        private boolean fill() throws IOException {
+            if (current == EOF) {
+                return false;
+            }
+            if (current != null && position < current.length) {
+                return true;
+            }
+            try {
+                current = queue.take();
+                position = 0;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while reading stream branch");
+            }
+            if (failure != null) {
+                throw failure;
+            }
+            return current != EOF;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (closed || !fill()) {
+                return -1;
+            }
+            return current[position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            if (closed || !fill()) {
+                return -1;
+            }
+            int n = Math.min(len, current.length - position);
+            System.arraycopy(current, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+            queue.clear();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.model.ContentBlob;
+import com.bhasharakshak.tracing.Tracing;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Reads an uploaded file once and feeds GridFS and an optional AI call at the
+ * same time, so the upload costs max(store, AI) instead of store + AI. Only a
+ * few chunks per branch are ever held in memory. Content that is stored
+ * already is only referenced, and its earlier analysis reused if it has one.
+ */
+@Service
+public class StreamingIngestService {
+
+    private final StorageService storageService;
+    private final ThreadPoolTaskExecutor executor;
+    private final int chunkSize;
+    private final int bufferedChunks;
+
+    public StreamingIngestService(
+            StorageService storageService,
+            @Qualifier("ingestExecutor") ThreadPoolTaskExecutor executor,
+            @Value("${app.ingest.chunk-size:261120}") int chunkSize,
+            @Value("${app.ingest.buffered-chunks:4}") int bufferedChunks) {
+        this.storageService = storageService;
+        this.executor = executor;
+        this.chunkSize = chunkSize;
+        this.bufferedChunks = bufferedChunks;
+    }
+
+    /**
+     * Store the file in GridFS and, if {@code analysis} is given, run it over
+     * the same bytes concurrently. A storage failure fails the ingest; an
+     * analysis failure is reported on the result.
+     *
+     * @param earlier the analysis kept for these bytes by an earlier upload, or
+     *                null; asked only if the content is stored already
+     */
+    public <T> IngestResult<T> ingest(MultipartFile file, Function<Resource, T> analysis,
+            Function<ContentBlob, T> earlier) {
+        ContentBlob existing = Tracing.timed("dedup", () -> storageService.reference(storageService.hash(file)));
+        if (existing != null) {
+            String fileId = existing.getFileId();
+            if (analysis == null) {
+                return new IngestResult<>(fileId, null, null, false);
+            }
+            T kept = earlier != null ? earlier.apply(existing) : null;
+            if (kept != null) {
+                return new IngestResult<>(fileId, kept, null, true);
+            }
+            try {
+                return new IngestResult<>(fileId, analysis.apply(file.getResource()), null, false);
+            } catch (RuntimeException e) {
+                return new IngestResult<>(fileId, null, e, false);
+            }
+        }
+
+        int branches = analysis != null ? 2 : 1;
+
+        try (InputStream source = file.getInputStream()) {
+            StreamTee tee = new StreamTee(source, branches, chunkSize, bufferedChunks);
+
+            // Branches only ever start on an idle thread (the executor has no
+            // queue); one left waiting would block the pump and its sibling
+            CompletableFuture<String> stored;
+            try {
+                stored = executor.submitCompletable(() -> {
+                    try (InputStream branch = tee.branch(0)) {
+                        return Tracing.timed("store", () ->
+                                storageService.storeStream(branch, file.getOriginalFilename(), file.getContentType()));
+                    }
+                });
+            } catch (TaskRejectedException busy) {
+                return ingestSequentially(file, analysis);
+            }
+
+            CompletableFuture<T> analysed = null;
+            if (analysis != null) {
+                try {
+                    analysed = executor.submitCompletable(() -> {
+                        try (InputStream branch = tee.branch(1)) {
+                            return analysis.apply(
+                                    new BranchResource(branch, file.getOriginalFilename(), file.getSize()));
+                        }
+                    });
+                } catch (TaskRejectedException busy) {
+                    tee.branch(1).close(); // Analysed from the stored upload below
+                }
+            }
+
+            tee.pump();
+
+            String fileId = stored.join();
+            if (analysis == null) {
+                return new IngestResult<>(fileId, null, null, false);
+            }
+            try {
+                T result = analysed != null ? analysed.join() : analysis.apply(file.getResource());
+                return new IngestResult<>(fileId, result, null, false);
+            } catch (CompletionException e) {
+                return new IngestResult<>(fileId, null, e.getCause(), false);
+            } catch (RuntimeException e) {
+                return new IngestResult<>(fileId, null, e, false);
+            }
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read uploaded file", ex);
+        } catch (CompletionException ex) {
+            throw new RuntimeException("Could not store file in GridFS", ex.getCause());
+        }
+    }
+
+    // Every ingest thread is busy: store, then analyse, on the request thread
+    private <T> IngestResult<T> ingestSequentially(MultipartFile file, Function<Resource, T> analysis) {
+        String fileId;
+        try (InputStream source = file.getInputStream()) {
+            fileId = Tracing.timed("store", () ->
+                    storageService.storeStream(source, file.getOriginalFilename(), file.getContentType()));
+        } catch (IOException ex) {
+            throw new RuntimeException("Could not read uploaded file", ex);
+        }
+        if (analysis == null) {
+            return new IngestResult<>(fileId, null, null, false);
+        }
+        try {
+            return new IngestResult<>(fileId, analysis.apply(file.getResource()), null, false);
+        } catch (RuntimeException e) {
+            return new IngestResult<>(fileId, null, e, false);
+        }
+    }
+
+    @Getter
+    public static class IngestResult<T> {
+        private final String fileId;
+        private final T analysis;
+        private final Throwable analysisError;
+        private final boolean reused; // analysis taken from an earlier upload of the same bytes
+
+        IngestResult(String fileId, T analysis, Throwable analysisError, boolean reused) {
+            this.fileId = fileId;
+            this.analysis = analysis;
+            this.analysisError = analysisError;
+            this.reused = reused;
+        }
+
+        public boolean isAnalysed() {
+            return analysisError == null;
+        }
+    }
+
+    /**
+     * One-shot resource over a tee branch. Keeps the original filename so the
+     * AI service sees a normal file part, and reports the known size instead
+     * of letting {@link InputStreamResource} consume the stream to count it.
+     */
+    private static class BranchResource extends InputStreamResource {
+        private final String filename;
+        private final long size;
+
+        BranchResource(InputStream stream, String filename, long size) {
+            super(stream);
+            this.filename = filename;
+            this.size = size;
+        }
+
+        @Override
+        public String getFilename() {
+            return filename;
+        }
+
+        @Override
+        public long contentLength() {
+            return size;
+        }
+    }
+}
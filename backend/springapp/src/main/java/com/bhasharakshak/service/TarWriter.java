@@ -0,0 +1,97 @@
+package com.bhasharakshak.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a ustar archive to a stream, entry by entry. An entry's size must be
+ * known before its content is written; nothing is buffered beyond one header.
+ */
+final class TarWriter {
+
+    private static final int BLOCK = 512;
+
+    private final OutputStream out;
+
+    TarWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    void putEntry(String name, byte[] content, long modifiedEpochSeconds) throws IOException {
+        writeHeader(name, content.length, modifiedEpochSeconds);
+        out.write(content);
+        pad(content.length);
+    }
+
+    /**
+     * Copies exactly {@code size} bytes of {@code content} as one entry.
+     */
+    void putEntry(String name, long size, InputStream content, long modifiedEpochSeconds) throws IOException {
+        writeHeader(name, size, modifiedEpochSeconds);
+        byte[] buffer = new byte[64 * 1024];
+        long remaining = size;
+        while (remaining > 0) {
+            int n = content.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+            if (n < 0) {
+                throw new IOException("Entry " + name + " ended " + remaining + " bytes early");
+            }
+            out.write(buffer, 0, n);
+            remaining -= n;
+        }
+        pad(size);
+    }
+
+    /** Writes the end-of-archive marker; the stream is left open. */
+    void finish() throws IOException {
+        out.write(new byte[BLOCK * 2]);
+        out.flush();
+    }
+
+    private void writeHeader(String name, long size, long modifiedEpochSeconds) throws IOException {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        if (nameBytes.length > 100) {
+            throw new IOException("Entry name too long for ustar: " + name);
+        }
+        byte[] header = new byte[BLOCK];
+        System.arraycopy(nameBytes, 0, header, 0, nameBytes.length);
+        octal(header, 100, 8, 0644);
+        octal(header, 108, 8, 0);
+        octal(header, 116, 8, 0);
+        octal(header, 124, 12, size);
+        octal(header, 136, 12, modifiedEpochSeconds);
+        header[156] = '0';
+        System.arraycopy("ustar\u000000".getBytes(StandardCharsets.US_ASCII), 0, header, 257, 8);
+
+        // Checksum is computed with its own field as spaces
+        for (int i = 148; i < 156; i++) {
+            header[i] = ' ';
+        }
+        long sum = 0;
+        for (byte b : header) {
+            sum += b & 0xff;
+        }
+        octal(header, 148, 7, sum);
+        header[155] = ' ';
+        out.write(header);
+    }
+
+    private void pad(long size) throws IOException {
+        int padding = (int) ((BLOCK - size % BLOCK) % BLOCK);
+        if (padding > 0) {
+            out.write(new byte[padding]);
+        }
+    }
+
+    // Zero-padded octal digits followed by a NUL, filling the field
+    private static void octal(byte[] header, int offset, int length, long value) throws IOException {
+        String digits = Long.toOctalString(value);
+        if (digits.length() > length - 1) {
+            throw new IOException("Value too large for tar header: " + value);
+        }
+        String padded = "0".repeat(length - 1 - digits.length()) + digits;
+        System.arraycopy(padded.getBytes(StandardCharsets.US_ASCII), 0, header, offset, length - 1);
+        header[offset + length - 1] = 0;
+    }
+}
@@ -0,0 +1,246 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.model.TranscriptionJob;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Durable queue of STT work stored in the transcription_jobs collection.
+ * Any number of backend nodes can pull from it: a job is claimed atomically
+ * with findAndModify and held under a lease that the owner keeps extending.
+ * If a node dies, its lease runs out and another node picks the job up.
+ */
+@Service
+public class TranscriptionQueue {
+
+    private final MongoTemplate mongoTemplate;
+    private final String nodeId;
+    private final Duration lease;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    private static final long DEPTH_SAMPLE_MS = 10_000;
+    private long depthSampledAt = -DEPTH_SAMPLE_MS;
+    private long sampledDepth;
+
+    public TranscriptionQueue(
+            MongoTemplate mongoTemplate,
+            @Value("${app.transcription.lease-seconds:60}") long leaseSeconds,
+            @Value("${app.transcription.max-attempts:6}") int maxAttempts,
+            @Value("${app.transcription.backoff-initial-seconds:15}") long initialBackoffSeconds,
+            @Value("${app.transcription.backoff-max-seconds:900}") long maxBackoffSeconds,
+            MeterRegistry meterRegistry) {
+        this.mongoTemplate = mongoTemplate;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName() + "-" + UUID.randomUUID().toString().substring(0, 8);
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = Duration.ofSeconds(initialBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+
+        Gauge.builder("transcription.queue.depth", this, TranscriptionQueue::sampledDepth)
+                .description("Queued STT jobs across all nodes")
+                .register(meterRegistry);
+    }
+
+    public TranscriptionJob enqueue(String assetId, String fileId, String language) {
+        return mongoTemplate.insert(newJob(assetId, fileId, language, Instant.now()));
+    }
+
+    /**
+     * Queue many recordings with one insertMany.
+     */
+    public void enqueueAll(Collection<Request> requests) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        mongoTemplate.insert(requests.stream()
+                .map(request -> newJob(request.assetId(), request.fileId(), request.language(), now))
+                .toList(), TranscriptionJob.class);
+    }
+
+    public record Request(String assetId, String fileId, String language) {
+    }
+
+    private static TranscriptionJob newJob(String assetId, String fileId, String language, Instant now) {
+        TranscriptionJob job = new TranscriptionJob();
+        job.setAssetId(assetId);
+        job.setFileId(fileId);
+        job.setLanguage(language);
+        job.setStatus(TranscriptionJob.QUEUED);
+        job.setNextAttemptAt(now);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        return job;
+    }
+
+    /**
+     * Claim the oldest runnable job: one that is due, or one whose owner let
+     * its lease expire with attempts to spare.
+     */
+    public Optional<TranscriptionJob> claim() {
+        Instant now = Instant.now();
+        Query query = new Query(new Criteria().orOperator(
+                Criteria.where("status").is(TranscriptionJob.QUEUED).and("nextAttemptAt").lte(now),
+                Criteria.where("status").is(TranscriptionJob.RUNNING).and("leaseExpiresAt").lt(now)
+                        .and("attempts").lt(maxAttempts)))
+                .with(Sort.by("nextAttemptAt"));
+
+        Update update = new Update()
+                .set("status", TranscriptionJob.RUNNING)
+                .set("leaseOwner", nodeId)
+                .set("leaseExpiresAt", now.plus(lease))
+                .set("updatedAt", now)
+                .inc("attempts", 1);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().returnNew(true), TranscriptionJob.class));
+    }
+
+    /**
+     * Mark failed one job whose owner let its lease expire on its last
+     * attempt, so a recording that keeps crashing its worker is not claimed
+     * forever.
+     *
+     * @return the job as it was before, if there was one
+     */
+    public Optional<TranscriptionJob> failAbandoned() {
+        Instant now = Instant.now();
+        Query query = new Query(Criteria.where("status").is(TranscriptionJob.RUNNING)
+                .and("leaseExpiresAt").lt(now)
+                .and("attempts").gte(maxAttempts));
+
+        Update update = new Update()
+                .set("status", TranscriptionJob.FAILED)
+                .set("lastError", "Lease expired on the last attempt")
+                .set("updatedAt", now)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query, update, TranscriptionJob.class));
+    }
+
+    /**
+     * Heartbeat: push out the lease of every job this node is still working on.
+     */
+    public void extendLeases(Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        mongoTemplate.updateMulti(
+                new Query(Criteria.where("_id").in(jobIds).and("leaseOwner").is(nodeId)
+                        .and("status").is(TranscriptionJob.RUNNING)),
+                new Update().set("leaseExpiresAt", now.plus(lease)).set("updatedAt", now),
+                TranscriptionJob.class);
+    }
+
+    /**
+     * @return false if this node no longer holds the job, so its result must
+     *         not be applied
+     */
+    public boolean complete(TranscriptionJob job) {
+        return mongoTemplate.remove(ownedBy(job), TranscriptionJob.class).getDeletedCount() > 0;
+    }
+
+    /**
+     * Put the job back with exponential backoff, or mark it failed once it has
+     * used up its attempts. Does nothing if this node no longer holds the job.
+     */
+    public Outcome retryOrFail(TranscriptionJob job, Exception error) {
+        Instant now = Instant.now();
+        boolean retry = job.getAttempts() < maxAttempts;
+
+        Update update = new Update()
+                .set("status", retry ? TranscriptionJob.QUEUED : TranscriptionJob.FAILED)
+                .set("nextAttemptAt", now.plus(backoff(job.getAttempts())))
+                .set("lastError", String.valueOf(error.getMessage()))
+                .set("updatedAt", now)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+
+        if (mongoTemplate.updateFirst(ownedBy(job), update, TranscriptionJob.class).getModifiedCount() == 0) {
+            return Outcome.NOT_OWNED;
+        }
+        return retry ? Outcome.RETRYING : Outcome.FAILED;
+    }
+
+    public enum Outcome {
+        RETRYING,
+        FAILED,
+        NOT_OWNED // Re-claimed by another node after this one's lease ran out
+    }
+
+    /**
+     * Put the job back untouched, to run again after {@code delay}. Used when
+     * it could not be attempted at all (AI service circuit open), so it does
+     * not use up one of the job's attempts.
+     */
+    public void postpone(TranscriptionJob job, Duration delay, String reason) {
+        Instant now = Instant.now();
+        Update update = new Update()
+                .set("status", TranscriptionJob.QUEUED)
+                .set("nextAttemptAt", now.plus(delay))
+                .set("lastError", reason)
+                .set("updatedAt", now)
+                .inc("attempts", -1)
+                .unset("leaseOwner")
+                .unset("leaseExpiresAt");
+
+        mongoTemplate.updateFirst(ownedBy(job), update, TranscriptionJob.class);
+    }
+
+    public long depth() {
+        return mongoTemplate.count(new Query(Criteria.where("status").is(TranscriptionJob.QUEUED)),
+                TranscriptionJob.class);
+    }
+
+    // depth() is a count over the whole collection; scrapes share one count per interval
+    private synchronized double sampledDepth() {
+        long now = System.currentTimeMillis();
+        if (now - depthSampledAt >= DEPTH_SAMPLE_MS) {
+            depthSampledAt = now;
+            try {
+                sampledDepth = depth();
+            } catch (RuntimeException e) {
+                System.err.println("Could not count transcription queue: " + e.getMessage());
+            }
+        }
+        return sampledDepth;
+    }
+
+    private Duration backoff(int attempts) {
+        long millis = initialBackoff.toMillis() << Math.min(attempts - 1, 20);
+        millis = Math.min(millis, maxBackoff.toMillis());
+        // Jitter so jobs that failed together don't all come back together
+        return Duration.ofMillis(millis / 2 + ThreadLocalRandom.current().nextLong(millis / 2 + 1));
+    }
+
+    /**
+     * Matches the job only while this node still holds the claim it made; the
+     * attempt counter fences off a stale worker after the job was re-claimed.
+     */
+    private Query ownedBy(TranscriptionJob job) {
+        return new Query(Criteria.where("_id").is(job.getId())
+                .and("leaseOwner").is(nodeId)
+                .and("attempts").is(job.getAttempts())
+                .and("status").is(TranscriptionJob.RUNNING));
+    }
+}
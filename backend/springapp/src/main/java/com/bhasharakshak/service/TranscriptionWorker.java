@@ -0,0 +1,170 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.event.AssetChangedEvent;
+import com.bhasharakshak.event.AssetSnapshot;
+import com.bhasharakshak.model.LanguageAsset;
+import com.bhasharakshak.model.TranscriptionJob;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationUpdate;
+import org.springframework.data.mongodb.core.aggregation.ConditionalOperators;
+import org.springframework.data.mongodb.core.aggregation.LiteralOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Pulls jobs from the {@link TranscriptionQueue}, runs STT on the stored
+ * recording and fills in the asset's transcript. Every backend node runs one
+ * of these; throughput scales with the number of workers across the cluster.
+ */
+@Service
+public class TranscriptionWorker {
+
+    static final String TRANSCRIPT_UNAVAILABLE = "Transcription unavailable (AI Service down)";
+    private static final long MIN_POSTPONE_MS = 5000;
+
+    private final TranscriptionQueue queue;
+    private final StorageService storageService;
+    private final AIService aiService;
+    private final ProfanityFilter profanityFilter;
+    private final MongoTemplate mongoTemplate;
+    private final ApplicationEventPublisher events;
+    private final ThreadPoolTaskExecutor executor;
+    private final Semaphore slots;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public TranscriptionWorker(
+            TranscriptionQueue queue,
+            StorageService storageService,
+            AIService aiService,
+            ProfanityFilter profanityFilter,
+            MongoTemplate mongoTemplate,
+            ApplicationEventPublisher events,
+            @Qualifier("transcriptionExecutor") ThreadPoolTaskExecutor executor,
+            @Value("${app.transcription.workers:4}") int workers) {
+        this.queue = queue;
+        this.storageService = storageService;
+        this.aiService = aiService;
+        this.profanityFilter = profanityFilter;
+        this.mongoTemplate = mongoTemplate;
+        this.events = events;
+        this.executor = executor;
+        this.slots = new Semaphore(workers);
+    }
+
+    @Scheduled(fixedDelayString = "${app.transcription.poll-interval-ms:1000}")
+    public void poll() {
+        Optional<TranscriptionJob> abandoned;
+        while ((abandoned = queue.failAbandoned()).isPresent()) {
+            TranscriptionJob job = abandoned.get();
+            System.err.println("Transcription of asset " + job.getAssetId() + " abandoned after "
+                    + job.getAttempts() + " attempts");
+            fillTranscript(job.getAssetId(), TRANSCRIPT_UNAVAILABLE, false);
+        }
+
+        // While STT is known to be down, leave jobs queued (and their attempts unspent)
+        while (aiService.isAvailable(AiClientPool.Operation.STT) && slots.tryAcquire()) {
+            Optional<TranscriptionJob> claimed;
+            try {
+                claimed = queue.claim();
+            } catch (RuntimeException e) {
+                slots.release();
+                throw e;
+            }
+            if (claimed.isEmpty()) {
+                slots.release();
+                return;
+            }
+
+            TranscriptionJob job = claimed.get();
+            inFlight.add(job.getId());
+            executor.execute(() -> {
+                try {
+                    process(job);
+                } finally {
+                    inFlight.remove(job.getId());
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.transcription.heartbeat-ms:15000}")
+    public void heartbeat() {
+        queue.extendLeases(Set.copyOf(inFlight));
+    }
+
+    private void process(TranscriptionJob job) {
+        try {
+            // The same recording uploaded again keeps the transcript it got the first time
+            String transcript = storageService.findTranscript(job.getFileId(), job.getLanguage())
+                    .filter(AIService::isTranscript)
+                    .orElse(null);
+            if (transcript == null) {
+                transcript = aiService.transcribeAudio(storageService.getFile(job.getFileId()), job.getLanguage());
+                if (AIService.isTranscript(transcript)) {
+                    storageService.saveTranscript(job.getFileId(), job.getLanguage(), transcript);
+                }
+            }
+            // Stored as spoken (it is the preservation copy); lexicon hits are flagged for the reviewer
+            boolean flagged = profanityFilter.containsProfanity(transcript);
+            if (queue.complete(job)) {
+                fillTranscript(job.getAssetId(), transcript, flagged);
+            }
+        } catch (CircuitBreaker.CircuitOpenException e) {
+            queue.postpone(job, Duration.ofMillis(Math.max(e.getRetryAfterMillis(), MIN_POSTPONE_MS)), e.getMessage());
+        } catch (AiClientPool.BulkheadFullException e) {
+            queue.postpone(job, Duration.ofMillis(MIN_POSTPONE_MS), e.getMessage());
+        } catch (Exception e) {
+            System.err.println("Transcription of asset " + job.getAssetId() + " failed (attempt "
+                    + job.getAttempts() + "): " + e.getMessage());
+            if (queue.retryOrFail(job, e) == TranscriptionQueue.Outcome.FAILED) {
+                // Out of attempts: release the asset for review without a transcript
+                fillTranscript(job.getAssetId(), TRANSCRIPT_UNAVAILABLE, false);
+            }
+        }
+    }
+
+    /**
+     * Fill in the transcript and leave "transcribing" for the status the upload
+     * would have had, in one atomic update, so the published change is exactly
+     * the one that was made.
+     */
+    private void fillTranscript(String assetId, String transcript, boolean flagged) {
+        LocalDateTime now = LocalDateTime.now();
+        AggregationUpdate update = AggregationUpdate.update()
+                // $literal: a transcript starting with "$" would otherwise read as a field path
+                .set("transcript").toValue(LiteralOperators.valueOf(transcript).asLiteral())
+                .set("transcriptFlagged").toValue(flagged)
+                .set("status").toValue(ConditionalOperators.when(Criteria.where("isPrivate").is(true))
+                        .then("private").otherwise("pending"))
+                .set("updatedAt").toValue(now);
+
+        LanguageAsset asset = mongoTemplate.findAndModify(
+                new Query(Criteria.where("_id").is(assetId).and("status").is("transcribing")),
+                update, FindAndModifyOptions.options().returnNew(false), LanguageAsset.class);
+        if (asset == null) {
+            return; // Deleted, or no longer waiting for a transcript
+        }
+
+        AssetSnapshot before = AssetSnapshot.of(asset);
+        asset.setTranscript(transcript);
+        asset.setTranscriptFlagged(flagged);
+        asset.setStatus(asset.isPrivate() ? "private" : "pending");
+        asset.setUpdatedAt(now);
+        events.publishEvent(AssetChangedEvent.updated(before, asset));
+    }
+}
@@ -0,0 +1,166 @@
+package com.bhasharakshak.service;
+
+import com.bhasharakshak.model.CachedTranslation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded LRU cache of translations keyed by normalized text plus language
+ * pair, with a TTL on every entry. When persistence is on, entries are also
+ * written to the translation_cache collection so they survive restarts and
+ * are shared by all backend nodes.
+ */
+@Component
+public class TranslationCache {
+
+    private final MongoTemplate mongoTemplate;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final boolean persistent;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong persistentHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+
+    private final LinkedHashMap<String, Entry> entries;
+
+    public TranslationCache(
+            MongoTemplate mongoTemplate,
+            @Value("${app.translation-cache.max-entries:10000}") int maxEntries,
+            @Value("${app.translation-cache.ttl-hours:168}") long ttlHours,
+            @Value("${app.translation-cache.persistent:false}") boolean persistent) {
+        this.mongoTemplate = mongoTemplate;
+        this.maxEntries = maxEntries;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.persistent = persistent;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > TranslationCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public String get(String text, String sourceLang, String targetLang) {
+        String key = key(text, sourceLang, targetLang);
+        long now = System.currentTimeMillis();
+
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expiresAt > now) {
+                    hits.incrementAndGet();
+                    return entry.translation;
+                }
+                entries.remove(key);
+                expirations.incrementAndGet();
+            }
+        }
+
+        if (persistent) {
+            CachedTranslation stored;
+            try {
+                stored = mongoTemplate.findById(digest(key), CachedTranslation.class);
+            } catch (Exception e) {
+                // A cache that cannot be read is a miss, not a failed translation
+                System.err.println("Could not read cached translation: " + e.getMessage());
+                stored = null;
+            }
+            if (stored != null && stored.getExpiresAt().isAfter(Instant.ofEpochMilli(now))) {
+                persistentHits.incrementAndGet();
+                remember(key, stored.getTranslation(), stored.getExpiresAt().toEpochMilli());
+                return stored.getTranslation();
+            }
+        }
+
+        misses.incrementAndGet();
+        return null;
+    }
+
+    public void put(String text, String sourceLang, String targetLang, String translation) {
+        String key = key(text, sourceLang, targetLang);
+        Instant expiresAt = Instant.now().plus(ttl);
+        remember(key, translation, expiresAt.toEpochMilli());
+
+        if (persistent) {
+            CachedTranslation stored = new CachedTranslation();
+            stored.setId(digest(key));
+            stored.setSourceLang(normalizeLang(sourceLang));
+            stored.setTargetLang(normalizeLang(targetLang));
+            stored.setTranslation(translation);
+            stored.setExpiresAt(expiresAt);
+            try {
+                mongoTemplate.save(stored);
+            } catch (Exception e) {
+                // The in-memory entry is enough to serve this node
+                System.err.println("Could not persist cached translation: " + e.getMessage());
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return Map.of(
+                "size", size,
+                "maxEntries", maxEntries,
+                "hits", hits.get(),
+                "persistentHits", persistentHits.get(),
+                "misses", misses.get(),
+                "evictions", evictions.get(),
+                "expirations", expirations.get(),
+                "persistent", persistent);
+    }
+
+    private void remember(String key, String translation, long expiresAt) {
+        synchronized (entries) {
+            entries.put(key, new Entry(translation, expiresAt));
+        }
+    }
+
+    /**
+     * Unicode-normalized, whitespace-collapsed text plus language pair, so that
+     * trivially different spellings of the same request share an entry.
+     */
+    static String key(String text, String sourceLang, String targetLang) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).strip().replaceAll("\\s+", " ");
+        return normalizeLang(sourceLang) + '\u0000' + normalizeLang(targetLang) + '\u0000' + normalized;
+    }
+
+    private static String normalizeLang(String lang) {
+        return lang == null ? "" : lang.strip().toLowerCase(Locale.ROOT);
+    }
+
+    private static String digest(String key) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entry(String translation, long expiresAt) {
+    }
+}
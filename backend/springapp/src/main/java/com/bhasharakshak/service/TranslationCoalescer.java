@@ -0,0 +1,144 @@
+package com.bhasharakshak.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Micro-batcher for single translations. Requests for the same language pair
+ * that arrive close together are collected for up to {@code maxWait} or
+ * {@code maxItems} distinct texts, whichever comes first, and sent as one
+ * batch; each caller gets a future for its own text. The same text asked for
+ * twice in one window is only sent once.
+ */
+final class TranslationCoalescer {
+
+    private record Pair(String sourceLang, String targetLang) {
+    }
+
+    private static final class Batch {
+        final Pair pair;
+        final Map<String, CompletableFuture<String>> waiters = new LinkedHashMap<>();
+
+        Batch(Pair pair) {
+            this.pair = pair;
+        }
+    }
+
+    private final int maxItems;
+    private final long maxWaitMs;
+    private final Function<List<AIService.TranslationItem>, List<String>> sender;
+    private final ScheduledExecutorService timer;
+    private final Executor senders;
+
+    private final Map<Pair, Batch> open = new HashMap<>(); // guarded by this
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong deduplicated = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong items = new AtomicLong();
+
+    /**
+     * @param sender  sends one batch (all items share a language pair) and
+     *                returns results in item order, null for an item that
+     *                could not be translated
+     * @param timer   fires the max-wait flush
+     * @param senders runs {@code sender}; its size bounds concurrent batches
+     */
+    TranslationCoalescer(int maxItems, long maxWaitMs,
+            Function<List<AIService.TranslationItem>, List<String>> sender,
+            ScheduledExecutorService timer, Executor senders) {
+        this.maxItems = maxItems;
+        this.maxWaitMs = maxWaitMs;
+        this.sender = sender;
+        this.timer = timer;
+        this.senders = senders;
+    }
+
+    CompletableFuture<String> submit(String text, String sourceLang, String targetLang) {
+        requests.incrementAndGet();
+        Pair pair = new Pair(sourceLang != null ? sourceLang : "", targetLang);
+        CompletableFuture<String> result;
+        Batch full = null;
+        synchronized (this) {
+            Batch batch = open.get(pair);
+            if (batch == null) {
+                batch = new Batch(pair);
+                open.put(pair, batch);
+                Batch scheduled = batch;
+                timer.schedule(() -> flushIfOpen(scheduled), maxWaitMs, TimeUnit.MILLISECONDS);
+            }
+            result = batch.waiters.get(text);
+            if (result != null) {
+                deduplicated.incrementAndGet();
+                return result;
+            }
+            result = new CompletableFuture<>();
+            batch.waiters.put(text, result);
+            if (batch.waiters.size() >= maxItems) {
+                open.remove(pair);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return result;
+    }
+
+    Map<String, Object> stats() {
+        long sent = batches.get();
+        return Map.of(
+                "requests", requests.get(),
+                "deduplicated", deduplicated.get(),
+                "batches", sent,
+                "items", items.get(),
+                "averageBatchSize", sent > 0 ? (double) items.get() / sent : 0.0);
+    }
+
+    private void flushIfOpen(Batch batch) {
+        synchronized (this) {
+            // Already sent because it filled up
+            if (open.get(batch.pair) != batch) {
+                return;
+            }
+            open.remove(batch.pair);
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch batch) {
+        batches.incrementAndGet();
+        items.addAndGet(batch.waiters.size());
+        try {
+            senders.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            batch.waiters.values().forEach(waiter -> waiter.completeExceptionally(e));
+        }
+    }
+
+    private void send(Batch batch) {
+        List<String> texts = new ArrayList<>(batch.waiters.keySet());
+        List<AIService.TranslationItem> request = texts.stream()
+                .map(text -> new AIService.TranslationItem(text, batch.pair.targetLang(),
+                        batch.pair.sourceLang().isEmpty() ? null : batch.pair.sourceLang()))
+                .toList();
+        try {
+            List<String> results = sender.apply(request);
+            for (int i = 0; i < texts.size(); i++) {
+                batch.waiters.get(texts.get(i)).complete(results.get(i));
+            }
+        } catch (RuntimeException e) {
+            batch.waiters.values().forEach(waiter -> waiter.completeExceptionally(e));
+        }
+    }
+}
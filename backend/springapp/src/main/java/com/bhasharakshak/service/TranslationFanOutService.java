@@ -0,0 +1,116 @@
+package com.bhasharakshak.service;
+
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Translates one text into many languages at once. Uses the AI service's
+ * batch endpoint when it has one, otherwise runs the per-language calls
+ * concurrently through {@link ReactiveAIService}, at most {@code concurrency}
+ * at a time and without a thread per call. Languages that fail or time out
+ * are reported as missing so the caller can save what it has and fill the
+ * rest in later. A batch call that fails as a whole falls back to the
+ * per-language calls.
+ */
+@Service
+public class TranslationFanOutService {
+
+    private final ReactiveAIService reactiveAIService;
+    private final int concurrency;
+    private final Duration callTimeout;
+    private final Duration batchRetryAfter;
+
+    // Set when the AI service has no batch endpoint; checked again after batchRetryAfter
+    private volatile long batchUnsupportedUntil;
+
+    public TranslationFanOutService(
+            ReactiveAIService reactiveAIService,
+            @Value("${app.translation.fanout.concurrency:4}") int concurrency,
+            @Value("${app.translation.fanout.call-timeout-ms:10000}") long callTimeoutMs,
+            @Value("${app.translation.fanout.batch-retry-minutes:10}") long batchRetryMinutes) {
+        this.reactiveAIService = reactiveAIService;
+        this.concurrency = concurrency;
+        this.callTimeout = Duration.ofMillis(callTimeoutMs);
+        this.batchRetryAfter = Duration.ofMinutes(batchRetryMinutes);
+    }
+
+    /**
+     * Blocking form of {@link #translateAllAsync}, for scheduled jobs.
+     */
+    public FanOutResult translateAll(String text, String sourceLang, Collection<String> targetLangs) {
+        return translateAllAsync(text, sourceLang, targetLangs).block();
+    }
+
+    public Mono<FanOutResult> translateAllAsync(String text, String sourceLang, Collection<String> targetLangs) {
+        List<String> targets = new ArrayList<>(targetLangs);
+        if (targets.isEmpty()) {
+            return Mono.just(new FanOutResult(Map.of(), List.of()));
+        }
+        if (System.currentTimeMillis() < batchUnsupportedUntil) {
+            return viaFanOut(text, sourceLang, targets);
+        }
+
+        return viaBatch(text, sourceLang, targets)
+                .onErrorResume(e -> {
+                    if (e instanceof WebClientResponseException.NotFound
+                            || e instanceof WebClientResponseException.MethodNotAllowed) {
+                        batchUnsupportedUntil = System.currentTimeMillis() + batchRetryAfter.toMillis();
+                    } else {
+                        // 5xx, timeout, open TRANSLATE_BATCH circuit: per-language calls may still get through
+                        System.err.println("Batch translation failed, translating per language: " + e.getMessage());
+                    }
+                    return viaFanOut(text, sourceLang, targets);
+                });
+    }
+
+    private Mono<FanOutResult> viaBatch(String text, String sourceLang, List<String> targets) {
+        List<AIService.TranslationItem> items = targets.stream()
+                .map(target -> new AIService.TranslationItem(text, target, sourceLang))
+                .toList();
+
+        return reactiveAIService.translateBatch(items)
+                .timeout(callTimeout)
+                .map(translated -> {
+                    Map<String, String> translations = new LinkedHashMap<>();
+                    List<String> missing = new ArrayList<>();
+                    for (int i = 0; i < targets.size(); i++) {
+                        if (translated.get(i) != null) {
+                            translations.put(targets.get(i), translated.get(i));
+                        } else {
+                            missing.add(targets.get(i));
+                        }
+                    }
+                    return new FanOutResult(translations, missing);
+                });
+    }
+
+    private Mono<FanOutResult> viaFanOut(String text, String sourceLang, List<String> targets) {
+        Map<String, Mono<String>> calls = new LinkedHashMap<>();
+        for (String target : targets) {
+            calls.put(target, reactiveAIService.translate(text, target, sourceLang));
+        }
+        return ReactiveAIService.fanOut(calls, concurrency, callTimeout)
+                .map(fanOut -> new FanOutResult(fanOut.results(), fanOut.failed()));
+    }
+
+    @Getter
+    public static class FanOutResult {
+        private final Map<String, String> translations;
+        private final List<String> missing;
+
+        FanOutResult(Map<String, String> translations, List<String> missing) {
+            this.translations = translations;
+            this.missing = missing;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.bhasharakshak.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of synthesized speech on local disk. Files are
+ * named by hash(lang, text) and evicted least-recently-used once the
+ * directory grows past its size budget. Concurrent misses for the same key
+ * share a single call to the AI service.
+ */
+@Service
+public class TtsCache {
+
+    private static final String EXTENSION = ".mp3"; // The AI service synthesizes MP3
+
+    private final AIService aiService;
+    private final Path directory;
+    private final long maxBytes;
+
+    // Access-ordered: iteration starts at the least recently used file
+    private final LinkedHashMap<String, Long> sizes = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    private final Map<String, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public TtsCache(
+            AIService aiService,
+            @Value("${app.tts-cache.dir:tts-cache}") String directory,
+            @Value("${app.tts-cache.max-size-mb:512}") long maxSizeMb) {
+        this.aiService = aiService;
+        this.directory = Paths.get(directory);
+        this.maxBytes = maxSizeMb * 1024 * 1024;
+    }
+
+    /**
+     * Rebuild the index from what is already on disk, oldest access first.
+     */
+    @PostConstruct
+    void loadIndex() throws IOException {
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> cached = files
+                    .filter(path -> path.getFileName().toString().endsWith(EXTENSION))
+                    .sorted(Comparator.comparing(TtsCache::lastModified))
+                    .toList();
+            synchronized (sizes) {
+                for (Path path : cached) {
+                    long size = Files.size(path);
+                    sizes.put(keyOf(path), size);
+                    totalBytes += size;
+                }
+            }
+        }
+        evict();
+    }
+
+    /**
+     * Path of the cached audio for this text, synthesizing it on a miss.
+     */
+    public Path get(String text, String lang) {
+        String key = key(text, lang);
+        Path path = directory.resolve(key + EXTENSION);
+
+        boolean hit;
+        synchronized (sizes) {
+            hit = sizes.get(key) != null;
+        }
+        if (hit && Files.exists(path)) {
+            touch(path);
+            return path;
+        }
+
+        CompletableFuture<Path> pending = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(key, pending);
+        if (existing != null) {
+            return join(existing);
+        }
+
+        try {
+            pending.complete(synthesize(key, path, text, lang));
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key);
+        }
+        return join(pending);
+    }
+
+    /**
+     * Cached audio as base64, the shape the JSON TTS endpoints return.
+     */
+    public String getBase64(String text, String lang) {
+        try {
+            return Base64.getEncoder().encodeToString(Files.readAllBytes(get(text, lang)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path synthesize(String key, Path path, String text, String lang) {
+        String audioData = aiService.generateSpeech(text, lang);
+        if (audioData == null || audioData.isEmpty()) {
+            throw new RuntimeException("TTS Service returned no audio");
+        }
+        byte[] audio = Base64.getDecoder().decode(audioData);
+
+        try {
+            // Write beside the target and move into place so readers never see a partial file
+            Path temp = Files.createTempFile(directory, key, ".part");
+            Files.write(temp, audio);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write TTS cache entry", e);
+        }
+
+        synchronized (sizes) {
+            Long previous = sizes.put(key, (long) audio.length);
+            totalBytes += audio.length - (previous != null ? previous : 0);
+        }
+        evict();
+        return path;
+    }
+
+    private void evict() {
+        synchronized (sizes) {
+            Iterator<Map.Entry<String, Long>> eldest = sizes.entrySet().iterator();
+            while (totalBytes > maxBytes && eldest.hasNext()) {
+                Map.Entry<String, Long> entry = eldest.next();
+                try {
+                    Files.deleteIfExists(directory.resolve(entry.getKey() + EXTENSION));
+                } catch (IOException e) {
+                    System.err.println("Could not evict TTS cache entry: " + e.getMessage());
+                }
+                totalBytes -= entry.getValue();
+                eldest.remove();
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        synchronized (sizes) {
+            return Map.of("entries", sizes.size(), "bytes", totalBytes, "maxBytes", maxBytes);
+        }
+    }
+
+    private static Path join(CompletableFuture<Path> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Last-modified time doubles as last-access time so LRU order survives a restart
+    private static void touch(Path path) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException ignored) {
+            // Only affects eviction order after a restart
+        }
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static String keyOf(Path path) {
+        String name = path.getFileName().toString();
+        return name.substring(0, name.length() - EXTENSION.length());
+    }
+
+    static String key(String text, String lang) {
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC).strip();
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update((lang == null ? "" : lang).getBytes(StandardCharsets.UTF_8));
+            sha256.update((byte) 0);
+            sha256.update(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(sha256.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
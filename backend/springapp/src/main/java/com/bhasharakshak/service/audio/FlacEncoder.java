@@ -0,0 +1,390 @@
+package com.bhasharakshak.service.audio;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Streaming FLAC encoder in plain Java. Blocks of 4096 samples are coded
+ * with the best fixed predictor (orders 0-4) per channel and partitioned
+ * Rice residuals; stereo blocks use left/side coding when it is smaller.
+ * That gets most of what the reference encoder's default level gets on
+ * speech, without LPC.
+ *
+ * The output is never rewritten, so STREAMINFO carries the total sample
+ * count only if it is given up front, and no MD5 (zero, meaning unknown),
+ * as the format allows for streamed encodes.
+ */
+public final class FlacEncoder {
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final int MAX_PARTITION_ORDER = 8;
+
+    private final OutputStream out;
+    private final int channels;
+    private final int bitsPerSample;
+    private final int[][] block;
+    private int buffered;
+    private long frameNumber;
+
+    /**
+     * @param totalSamples samples per channel in the whole stream, or 0 if not known
+     */
+    public FlacEncoder(OutputStream out, int sampleRate, int channels, int bitsPerSample, long totalSamples)
+            throws IOException {
+        if (channels < 1 || channels > 8 || bitsPerSample < 4 || bitsPerSample > 24) {
+            throw new IllegalArgumentException("Unsupported FLAC stream: " + channels + " channels, " + bitsPerSample + " bits");
+        }
+        this.out = out;
+        this.channels = channels;
+        this.bitsPerSample = bitsPerSample;
+        this.block = new int[channels][BLOCK_SIZE];
+
+        BitWriter header = new BitWriter(64);
+        header.writeBits(0x664C6143L, 32); // "fLaC"
+        header.writeBits(1, 1); // last metadata block
+        header.writeBits(0, 7); // STREAMINFO
+        header.writeBits(34, 24);
+        header.writeBits(BLOCK_SIZE, 16);
+        header.writeBits(BLOCK_SIZE, 16);
+        header.writeBits(0, 24); // min frame size unknown
+        header.writeBits(0, 24); // max frame size unknown
+        header.writeBits(sampleRate, 20);
+        header.writeBits(channels - 1, 3);
+        header.writeBits(bitsPerSample - 1, 5);
+        header.writeBits(totalSamples >>> 32, 4);
+        header.writeBits(totalSamples & 0xFFFFFFFFL, 32);
+        for (int i = 0; i < 4; i++) {
+            header.writeBits(0, 32); // MD5 unknown
+        }
+        header.writeTo(out);
+    }
+
+    /**
+     * Adds {@code frames} samples per channel; {@code samples[channel][i]}
+     * must fit in the stream's bits per sample.
+     */
+    public void write(int[][] samples, int frames) throws IOException {
+        int offset = 0;
+        while (offset < frames) {
+            int n = Math.min(frames - offset, BLOCK_SIZE - buffered);
+            for (int c = 0; c < channels; c++) {
+                System.arraycopy(samples[c], offset, block[c], buffered, n);
+            }
+            buffered += n;
+            offset += n;
+            if (buffered == BLOCK_SIZE) {
+                encodeFrame(BLOCK_SIZE);
+            }
+        }
+    }
+
+    /** Encodes the last, possibly short, block. The stream is left open. */
+    public void finish() throws IOException {
+        if (buffered > 0) {
+            encodeFrame(buffered);
+        }
+        out.flush();
+    }
+
+    private void encodeFrame(int blockSize) throws IOException {
+        int channelAssignment = channels - 1; // independent
+        BitWriter[] subframes = new BitWriter[channels];
+        for (int c = 0; c < channels; c++) {
+            subframes[c] = encodeSubframe(block[c], blockSize, bitsPerSample);
+        }
+        if (channels == 2) {
+            int[] side = new int[blockSize];
+            for (int i = 0; i < blockSize; i++) {
+                side[i] = block[0][i] - block[1][i];
+            }
+            BitWriter sideFrame = encodeSubframe(side, blockSize, bitsPerSample + 1);
+            if (sideFrame.bitLength() < subframes[1].bitLength()) {
+                subframes[1] = sideFrame;
+                channelAssignment = 8; // left/side
+            }
+        }
+
+        BitWriter frame = new BitWriter(blockSize * channels * 3 + 64);
+        frame.writeBits(0x3FFE, 14); // sync
+        frame.writeBits(0, 1);
+        frame.writeBits(0, 1); // fixed block size
+        frame.writeBits(blockSize == BLOCK_SIZE ? 12 : 7, 4); // 4096, or 16-bit size at the end of the header
+        frame.writeBits(0, 4); // sample rate from STREAMINFO
+        frame.writeBits(channelAssignment, 4);
+        frame.writeBits(0, 3); // sample size from STREAMINFO
+        frame.writeBits(0, 1);
+        writeUtf8(frame, frameNumber++);
+        if (blockSize != BLOCK_SIZE) {
+            frame.writeBits(blockSize - 1, 16);
+        }
+        frame.writeBits(crc8(frame.bytes(), frame.byteLength()), 8);
+
+        for (BitWriter subframe : subframes) {
+            frame.append(subframe);
+        }
+        frame.alignToByte();
+        frame.writeBits(crc16(frame.bytes(), frame.byteLength()), 16);
+        frame.writeTo(out);
+        buffered = 0;
+    }
+
+    private static BitWriter encodeSubframe(int[] x, int n, int bits) {
+        BitWriter writer = new BitWriter(n * 3 + 64);
+
+        boolean constant = true;
+        for (int i = 1; i < n && constant; i++) {
+            constant = x[i] == x[0];
+        }
+        if (constant) {
+            writer.writeBits(0, 1);
+            writer.writeBits(0, 6); // CONSTANT
+            writer.writeBits(0, 1);
+            writer.writeSigned(x[0], bits);
+            return writer;
+        }
+
+        // Pick the fixed predictor with the smallest residual
+        int maxOrder = Math.min(4, n - 1);
+        int bestOrder = 0;
+        long bestSum = Long.MAX_VALUE;
+        long[][] residuals = new long[maxOrder + 1][];
+        for (int order = 0; order <= maxOrder; order++) {
+            long[] residual = residual(x, n, order);
+            residuals[order] = residual;
+            long sum = 0;
+            for (long r : residual) {
+                sum += Math.abs(r);
+            }
+            if (sum < bestSum) {
+                bestSum = sum;
+                bestOrder = order;
+            }
+        }
+
+        BitWriter fixed = new BitWriter(n * 3 + 64);
+        fixed.writeBits(0, 1);
+        fixed.writeBits(8 | bestOrder, 6); // FIXED, order
+        fixed.writeBits(0, 1);
+        for (int i = 0; i < bestOrder; i++) {
+            fixed.writeSigned(x[i], bits);
+        }
+        writeResidual(fixed, residuals[bestOrder], n, bestOrder);
+
+        long verbatimBits = 8L + (long) n * bits;
+        if (fixed.bitLength() < verbatimBits) {
+            return fixed;
+        }
+        writer.writeBits(0, 1);
+        writer.writeBits(1, 6); // VERBATIM
+        writer.writeBits(0, 1);
+        for (int i = 0; i < n; i++) {
+            writer.writeSigned(x[i], bits);
+        }
+        return writer;
+    }
+
+    // Residual of samples order..n-1 under the fixed predictor of that order
+    private static long[] residual(int[] x, int n, int order) {
+        long[] r = new long[n - order];
+        for (int i = order; i < n; i++) {
+            long e = switch (order) {
+                case 0 -> x[i];
+                case 1 -> (long) x[i] - x[i - 1];
+                case 2 -> (long) x[i] - 2L * x[i - 1] + x[i - 2];
+                case 3 -> (long) x[i] - 3L * x[i - 1] + 3L * x[i - 2] - x[i - 3];
+                default -> (long) x[i] - 4L * x[i - 1] + 6L * x[i - 2] - 4L * x[i - 3] + x[i - 4];
+            };
+            r[i - order] = e;
+        }
+        return r;
+    }
+
+    private static void writeResidual(BitWriter writer, long[] residual, int blockSize, int order) {
+        long[] folded = new long[residual.length];
+        for (int i = 0; i < residual.length; i++) {
+            folded[i] = residual[i] >= 0 ? residual[i] << 1 : ((-residual[i]) << 1) - 1;
+        }
+
+        // Try each partition order the block size allows; keep the cheapest
+        int bestPartitionOrder = 0;
+        int[] bestParameters = null;
+        long bestBits = Long.MAX_VALUE;
+        for (int po = 0; po <= MAX_PARTITION_ORDER; po++) {
+            int partitions = 1 << po;
+            if (blockSize % partitions != 0 || (blockSize >> po) <= order) {
+                break;
+            }
+            int[] parameters = new int[partitions];
+            long bits = 0;
+            int start = 0;
+            for (int p = 0; p < partitions; p++) {
+                int end = (p + 1) * (blockSize >> po) - order;
+                parameters[p] = bestRiceParameter(folded, start, end);
+                bits += 5 + riceBits(folded, start, end, parameters[p]);
+                start = end;
+            }
+            if (bits < bestBits) {
+                bestBits = bits;
+                bestPartitionOrder = po;
+                bestParameters = parameters;
+            }
+        }
+
+        boolean rice2 = Arrays.stream(bestParameters).anyMatch(k -> k > 14);
+        writer.writeBits(rice2 ? 1 : 0, 2);
+        writer.writeBits(bestPartitionOrder, 4);
+        int start = 0;
+        for (int p = 0; p < bestParameters.length; p++) {
+            int end = (p + 1) * (blockSize >> bestPartitionOrder) - order;
+            int k = bestParameters[p];
+            writer.writeBits(k, rice2 ? 5 : 4);
+            for (int i = start; i < end; i++) {
+                writer.writeUnary(folded[i] >>> k);
+                if (k > 0) {
+                    writer.writeBits(folded[i] & ((1L << k) - 1), k);
+                }
+            }
+            start = end;
+        }
+    }
+
+    private static int bestRiceParameter(long[] folded, int start, int end) {
+        int n = end - start;
+        if (n == 0) {
+            return 0;
+        }
+        long sum = 0;
+        for (int i = start; i < end; i++) {
+            sum += folded[i];
+        }
+        long mean = sum / n;
+        int estimate = mean > 0 ? 63 - Long.numberOfLeadingZeros(mean) : 0;
+        int best = 0;
+        long bestBits = Long.MAX_VALUE;
+        for (int k = Math.max(0, estimate - 1); k <= Math.min(30, estimate + 1); k++) {
+            long bits = riceBits(folded, start, end, k);
+            if (bits < bestBits) {
+                bestBits = bits;
+                best = k;
+            }
+        }
+        return best;
+    }
+
+    private static long riceBits(long[] folded, int start, int end, int k) {
+        long bits = (long) (end - start) * (k + 1);
+        for (int i = start; i < end; i++) {
+            bits += folded[i] >>> k;
+        }
+        return bits;
+    }
+
+    // Frame number in the UTF-8-like variable-length code
+    private static void writeUtf8(BitWriter writer, long value) {
+        if (value < 0x80) {
+            writer.writeBits(value, 8);
+            return;
+        }
+        int bytes = value < 0x800 ? 2 : value < 0x10000 ? 3 : value < 0x200000 ? 4
+                : value < 0x4000000 ? 5 : value < 0x80000000L ? 6 : 7;
+        int lead = (0xFF00 >> bytes) & 0xFF;
+        writer.writeBits(lead | (value >>> (6 * (bytes - 1))), 8);
+        for (int i = bytes - 2; i >= 0; i--) {
+            writer.writeBits(0x80 | ((value >>> (6 * i)) & 0x3F), 8);
+        }
+    }
+
+    private static int crc8(byte[] data, int length) {
+        int crc = 0;
+        for (int i = 0; i < length; i++) {
+            crc ^= data[i] & 0xFF;
+            for (int b = 0; b < 8; b++) {
+                crc = (crc & 0x80) != 0 ? ((crc << 1) ^ 0x07) & 0xFF : (crc << 1) & 0xFF;
+            }
+        }
+        return crc;
+    }
+
+    private static int crc16(byte[] data, int length) {
+        int crc = 0;
+        for (int i = 0; i < length; i++) {
+            crc ^= (data[i] & 0xFF) << 8;
+            for (int b = 0; b < 8; b++) {
+                crc = (crc & 0x8000) != 0 ? ((crc << 1) ^ 0x8005) & 0xFFFF : (crc << 1) & 0xFFFF;
+            }
+        }
+        return crc;
+    }
+
+    /** MSB-first bit buffer for one frame. */
+    private static final class BitWriter {
+        private byte[] bytes;
+        private int byteCount;
+        private long cache; // the last cacheBits (< 8 between calls) bits written
+        private int cacheBits;
+
+        BitWriter(int initialBytes) {
+            bytes = new byte[Math.max(16, initialBytes)];
+        }
+
+        void writeBits(long value, int count) {
+            if (count > 32) {
+                writeBits(value >>> 32, count - 32);
+                count = 32;
+            }
+            cache = (cache << count) | (value & ((1L << count) - 1));
+            cacheBits += count;
+            while (cacheBits >= 8) {
+                if (byteCount == bytes.length) {
+                    bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                }
+                cacheBits -= 8;
+                bytes[byteCount++] = (byte) (cache >>> cacheBits);
+            }
+            cache &= (1L << cacheBits) - 1;
+        }
+
+        void writeSigned(long value, int count) {
+            writeBits(value, count);
+        }
+
+        void writeUnary(long zeros) {
+            while (zeros > 32) {
+                writeBits(0, 32);
+                zeros -= 32;
+            }
+            writeBits(1, (int) zeros + 1);
+        }
+
+        void append(BitWriter other) {
+            for (int i = 0; i < other.byteCount; i++) {
+                writeBits(other.bytes[i], 8);
+            }
+            writeBits(other.cache, other.cacheBits);
+        }
+
+        void alignToByte() {
+            if (cacheBits > 0) {
+                writeBits(0, 8 - cacheBits);
+            }
+        }
+
+        long bitLength() {
+            return byteCount * 8L + cacheBits;
+        }
+
+        // Only called when byte-aligned
+        int byteLength() {
+            return byteCount;
+        }
+
+        byte[] bytes() {
+            return bytes;
+        }
+
+        void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, byteCount);
+        }
+    }
+}
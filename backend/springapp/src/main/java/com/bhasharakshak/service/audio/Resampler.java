@@ -0,0 +1,164 @@
+package com.bhasharakshak.service.audio;
+
+/**
+ * Streaming sample-rate converter for one channel: a polyphase windowed-sinc
+ * filter (Blackman window, 16 zero crossings each side), cut off just below
+ * the lower of the two Nyquist frequencies so downsampling does not alias.
+ * Input before the first sample is taken as silence, and {@link #flush}
+ * pads the end the same way, so a stream of N samples comes out as exactly
+ * ceil(N * outRate / inRate) samples.
+ */
+public final class Resampler {
+
+    private static final int ZERO_CROSSINGS = 16;
+    private static final int MAX_PHASES = 4096;
+
+    private final long up;   // output rate / gcd
+    private final long down; // input rate / gcd
+    private final int phases;
+    private final int halfTaps;
+    private final double[][] filters;
+
+    private double[] history; // history[i] is input sample historyStart + i
+    private long historyStart;
+    private int historyLength;
+    private long consumed;
+    private long produced;
+
+    public Resampler(int inRate, int outRate) {
+        long gcd = gcd(inRate, outRate);
+        this.up = outRate / gcd;
+        this.down = inRate / gcd;
+        if (up == down) {
+            phases = 0;
+            halfTaps = 0;
+            filters = null;
+            return;
+        }
+
+        // Cutoff in cycles per input sample
+        double cutoff = 0.5 * 0.95 * Math.min(1.0, (double) outRate / inRate);
+        double halfWidth = ZERO_CROSSINGS / (2 * cutoff);
+        this.halfTaps = (int) Math.ceil(halfWidth);
+        this.phases = (int) Math.min(up, MAX_PHASES);
+        this.filters = new double[phases][2 * halfTaps];
+        for (int p = 0; p < phases; p++) {
+            double fraction = (double) p / phases;
+            double sum = 0;
+            for (int j = 0; j < 2 * halfTaps; j++) {
+                // Tap j weighs input sample base - halfTaps + 1 + j for an output at base + fraction
+                double x = j - halfTaps + 1 - fraction;
+                double h = Math.abs(x) >= halfWidth ? 0 : sinc(2 * cutoff * x) * blackman(x / halfWidth);
+                filters[p][j] = h;
+                sum += h;
+            }
+            for (int j = 0; j < 2 * halfTaps; j++) {
+                filters[p][j] /= sum; // unity gain at DC in every phase
+            }
+        }
+
+        this.history = new double[4 * halfTaps + 4096];
+        this.historyStart = -halfTaps;
+        this.historyLength = halfTaps; // leading silence
+    }
+
+    /** Most samples one call to {@link #process} with {@code n} inputs, or {@link #flush}, can return. */
+    public int maxOutput(int n) {
+        return (int) ((long) (Math.max(n, halfTaps) + 1) * up / down) + 2;
+    }
+
+    /**
+     * Feeds {@code n} samples and writes the outputs they complete to {@code out}.
+     *
+     * @return outputs written
+     */
+    public int process(double[] in, int n, double[] out) {
+        if (filters == null) {
+            System.arraycopy(in, 0, out, 0, n);
+            consumed += n;
+            produced += n;
+            return n;
+        }
+        append(in, n);
+        consumed += n;
+        return drain(out, consumed, Long.MAX_VALUE);
+    }
+
+    /** Writes the remaining outputs, up to ceil(N * outRate / inRate) in all. */
+    public int flush(double[] out) {
+        if (filters == null) {
+            return 0;
+        }
+        long total = (consumed * up + down - 1) / down;
+        long available = consumed;
+        append(new double[halfTaps], halfTaps); // trailing silence
+        available += halfTaps;
+        return drain(out, available, total);
+    }
+
+    // Computes outputs while all their taps are in, up to limit outputs in all
+    private int drain(double[] out, long available, long limit) {
+        int written = 0;
+        while (produced < limit) {
+            long position = produced * down; // in units of 1/up input samples
+            long base = position / up;
+            if (base + halfTaps >= available) {
+                break; // the last tap is not here yet
+            }
+            int phase = (int) ((position % up) * phases / up);
+            double[] filter = filters[phase];
+            int start = (int) (base - halfTaps + 1 - historyStart);
+            double y = 0;
+            for (int j = 0; j < filter.length; j++) {
+                y += filter[j] * history[start + j];
+            }
+            out[written++] = y;
+            produced++;
+        }
+        discardBefore((produced * down) / up - halfTaps + 1);
+        return written;
+    }
+
+    private void append(double[] in, int n) {
+        if (historyLength + n > history.length) {
+            double[] grown = new double[Math.max(history.length * 2, historyLength + n)];
+            System.arraycopy(history, 0, grown, 0, historyLength);
+            history = grown;
+        }
+        System.arraycopy(in, 0, history, historyLength, n);
+        historyLength += n;
+    }
+
+    // Drops input samples no later output needs
+    private void discardBefore(long sample) {
+        int drop = (int) Math.min(historyLength, Math.max(0, sample - historyStart));
+        if (drop > 0) {
+            System.arraycopy(history, drop, history, 0, historyLength - drop);
+            historyLength -= drop;
+            historyStart += drop;
+        }
+    }
+
+    private static double sinc(double x) {
+        if (x == 0) {
+            return 1;
+        }
+        double px = Math.PI * x;
+        return Math.sin(px) / px;
+    }
+
+    // Blackman window over t in [-1, 1]
+    private static double blackman(double t) {
+        double a = Math.PI * (t + 1);
+        return 0.42 - 0.5 * Math.cos(a) + 0.08 * Math.cos(2 * a);
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a;
+    }
+}
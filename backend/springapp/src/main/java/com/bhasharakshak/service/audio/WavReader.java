@@ -0,0 +1,186 @@
+package com.bhasharakshak.service.audio;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads PCM samples from a RIFF/WAVE stream as it arrives: 8/16/24/32-bit
+ * integer and 32/64-bit float, plain or WAVE_FORMAT_EXTENSIBLE. Samples come
+ * out as ints of {@link #bitsPerSample()} bits; 32-bit and float input is
+ * reduced to 24 bits, which {@link #isExact()} reports.
+ */
+public final class WavReader {
+
+    private static final int PCM = 1;
+    private static final int IEEE_FLOAT = 3;
+    private static final int EXTENSIBLE = 0xFFFE;
+
+    private final InputStream in;
+    private final int format;
+    private final int channels;
+    private final int sampleRate;
+    private final int containerBits;
+    private final int blockAlign;
+    private final long frames; // -1 if the data size was not filled in
+    private long framesLeft;
+    private byte[] buffer = new byte[0];
+
+    private WavReader(InputStream in, int format, int channels, int sampleRate, int containerBits, long frames) {
+        this.in = in;
+        this.format = format;
+        this.channels = channels;
+        this.sampleRate = sampleRate;
+        this.containerBits = containerBits;
+        this.blockAlign = channels * containerBits / 8;
+        this.frames = frames;
+        this.framesLeft = frames >= 0 ? frames : Long.MAX_VALUE;
+    }
+
+    /** True if {@code head} starts like a WAV file. */
+    public static boolean isWav(byte[] head, int length) {
+        return length >= 12
+                && head[0] == 'R' && head[1] == 'I' && head[2] == 'F' && head[3] == 'F'
+                && head[8] == 'W' && head[9] == 'A' && head[10] == 'V' && head[11] == 'E';
+    }
+
+    /**
+     * Reads the header up to the start of the sample data.
+     *
+     * @throws UnsupportedFormatException for WAV encodings that are not plain PCM or float
+     */
+    public static WavReader open(InputStream in) throws IOException {
+        byte[] riff = in.readNBytes(12);
+        if (!isWav(riff, riff.length)) {
+            throw new UnsupportedFormatException("Not a WAV file");
+        }
+
+        int format = -1;
+        int channels = 0;
+        int sampleRate = 0;
+        int bits = 0;
+        while (true) {
+            byte[] chunk = in.readNBytes(8);
+            if (chunk.length < 8) {
+                throw new UnsupportedFormatException("WAV file has no data chunk");
+            }
+            String id = new String(chunk, 0, 4, java.nio.charset.StandardCharsets.US_ASCII);
+            long size = le32(chunk, 4);
+
+            if (id.equals("fmt ")) {
+                byte[] fmt = in.readNBytes((int) Math.min(size, 1024));
+                if (fmt.length < 16) {
+                    throw new UnsupportedFormatException("Truncated fmt chunk");
+                }
+                format = le16(fmt, 0);
+                channels = le16(fmt, 2);
+                sampleRate = (int) le32(fmt, 4);
+                bits = le16(fmt, 14);
+                if (format == EXTENSIBLE && fmt.length >= 26) {
+                    format = le16(fmt, 24); // first two bytes of the sub-format GUID
+                }
+                in.skipNBytes(size - fmt.length + (size & 1));
+            } else if (id.equals("data")) {
+                if (format < 0) {
+                    throw new UnsupportedFormatException("WAV data before fmt chunk");
+                }
+                boolean supported = (format == PCM && (bits == 8 || bits == 16 || bits == 24 || bits == 32))
+                        || (format == IEEE_FLOAT && (bits == 32 || bits == 64));
+                if (!supported || channels < 1 || channels > 8 || sampleRate < 1000 || sampleRate > 384_000) {
+                    throw new UnsupportedFormatException("Unsupported WAV encoding: format " + format
+                            + ", " + bits + " bits, " + channels + " channels, " + sampleRate + " Hz");
+                }
+                int blockAlign = channels * bits / 8;
+                // Streaming writers leave the size at 0 or 0xFFFFFFFF
+                long frames = size == 0 || size == 0xFFFFFFFFL ? -1 : size / blockAlign;
+                return new WavReader(in, format, channels, sampleRate, bits, frames);
+            } else {
+                in.skipNBytes(size + (size & 1));
+            }
+        }
+    }
+
+    public int channels() {
+        return channels;
+    }
+
+    public int sampleRate() {
+        return sampleRate;
+    }
+
+    /** Bits per sample of what {@link #read} returns: 8, 16 or 24. */
+    public int bitsPerSample() {
+        return Math.min(containerBits, 24);
+    }
+
+    /** False if samples lose precision on the way out (32-bit or float input). */
+    public boolean isExact() {
+        return format == PCM && containerBits <= 24;
+    }
+
+    /** Frames in the file, or -1 if the header does not say. */
+    public long frames() {
+        return frames;
+    }
+
+    /**
+     * Reads up to {@code maxFrames} frames into {@code samples[channel][i]}.
+     *
+     * @return frames read, or -1 at the end of the data
+     */
+    public int read(int[][] samples, int maxFrames) throws IOException {
+        int wanted = (int) Math.min(maxFrames, framesLeft);
+        if (wanted <= 0) {
+            return -1;
+        }
+        int bytes = wanted * blockAlign;
+        if (buffer.length < bytes) {
+            buffer = new byte[bytes];
+        }
+        int read = in.readNBytes(buffer, 0, bytes);
+        int count = read / blockAlign; // a partial frame at the end is dropped
+        if (count == 0) {
+            framesLeft = 0;
+            return -1;
+        }
+        framesLeft -= count;
+
+        int sampleBytes = containerBits / 8;
+        for (int i = 0; i < count; i++) {
+            int base = i * blockAlign;
+            for (int c = 0; c < channels; c++) {
+                samples[c][i] = sample(buffer, base + c * sampleBytes);
+            }
+        }
+        return count;
+    }
+
+    private int sample(byte[] b, int offset) {
+        if (format == IEEE_FLOAT) {
+            double value = containerBits == 32
+                    ? Float.intBitsToFloat((int) le32(b, offset))
+                    : Double.longBitsToDouble(le32(b, offset) | (le32(b, offset + 4) << 32));
+            long scaled = Math.round(value * 8_388_607.0);
+            return (int) Math.max(-8_388_608, Math.min(8_388_607, scaled));
+        }
+        return switch (containerBits) {
+            case 8 -> (b[offset] & 0xFF) - 128; // 8-bit WAV is unsigned
+            case 16 -> (short) le16(b, offset);
+            case 24 -> ((b[offset] & 0xFF) | (b[offset + 1] & 0xFF) << 8 | b[offset + 2] << 16);
+            default -> (int) le32(b, offset) >> 8;
+        };
+    }
+
+    private static int le16(byte[] b, int offset) {
+        return (b[offset] & 0xFF) | (b[offset + 1] & 0xFF) << 8;
+    }
+
+    private static long le32(byte[] b, int offset) {
+        return (b[offset] & 0xFFL) | (b[offset + 1] & 0xFFL) << 8 | (b[offset + 2] & 0xFFL) << 16 | (b[offset + 3] & 0xFFL) << 24;
+    }
+
+    public static class UnsupportedFormatException extends IOException {
+        public UnsupportedFormatException(String message) {
+            super(message);
+        }
+    }
+}
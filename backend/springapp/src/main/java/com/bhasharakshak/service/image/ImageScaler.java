@@ -0,0 +1,225 @@
+package com.bhasharakshak.service.image;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import javax.imageio.stream.MemoryCacheImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+
+/**
+ * Downscaling with the JDK's ImageIO and Java2D only. Large images are
+ * decoded subsampled, close to the largest size wanted, so a phone photo
+ * never sits in memory at full resolution; the rest is done by repeated
+ * halving, which keeps fine detail from aliasing the way a single bilinear
+ * step would. EXIF orientation is applied, as browsers do for the original.
+ */
+public final class ImageScaler {
+
+    // Refuse decoding anything larger (a decompression bomb, or not a photo)
+    private static final long MAX_PIXELS = 100_000_000L;
+    private static final int EXIF_SCAN_BYTES = 64 * 1024;
+
+    private ImageScaler() {
+    }
+
+    /**
+     * A decoded image as stored, the EXIF orientation to turn it upright
+     * with, and its upright size before any subsampling.
+     */
+    public record Decoded(BufferedImage image, int orientation, int width, int height) {
+    }
+
+    /**
+     * Decodes an image, subsampled so its long edge stays at least twice
+     * {@code maxEdge} where the source allows.
+     *
+     * @return the image, or null if ImageIO cannot read this format
+     */
+    public static Decoded read(InputStream content, int maxEdge) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(content, EXIF_SCAN_BYTES);
+        in.mark(EXIF_SCAN_BYTES);
+        byte[] head = in.readNBytes(EXIF_SCAN_BYTES);
+        in.reset();
+        int orientation = exifOrientation(head);
+
+        try (ImageInputStream stream = new MemoryCacheImageInputStream(in)) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(stream);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > MAX_PIXELS) {
+                    throw new IOException("Image too large: " + width + "x" + height);
+                }
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, Math.max(width, height) / (2 * maxEdge));
+                if (step > 1) {
+                    param.setSourceSubsampling(step, step, 0, 0);
+                }
+                BufferedImage image = reader.read(0, param);
+                boolean sideways = orientation >= 5;
+                return new Decoded(image, orientation, sideways ? height : width, sideways ? width : height);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * An RGB copy whose long edge is {@code maxEdge} (never upscaled), turned
+     * upright; rotating the small result is cheaper than the decoded one.
+     * Transparent areas become white, as JPEG has no alpha.
+     */
+    public static BufferedImage scale(BufferedImage source, int maxEdge, int orientation) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double factor = Math.min(1.0, (double) maxEdge / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * factor));
+        int targetHeight = Math.max(1, (int) Math.round(height * factor));
+
+        BufferedImage current = source;
+        while (current.getWidth() / 2 >= targetWidth && current.getHeight() / 2 >= targetHeight) {
+            current = draw(current, current.getWidth() / 2, current.getHeight() / 2,
+                    RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        }
+        if (current.getWidth() != targetWidth || current.getHeight() != targetHeight || current == source) {
+            current = draw(current, targetWidth, targetHeight, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+        }
+        return orientation > 1 ? orient(current, orientation) : current;
+    }
+
+    /** Writes a baseline JPEG at {@code quality} (0-1). */
+    public static void writeJpeg(BufferedImage image, float quality, OutputStream out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        // In memory: ImageIO's default for plain streams caches through a temp file
+        try (ImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(quality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height, Object interpolation) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, interpolation);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, width, height);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    // EXIF orientations 2-8: mirrored and/or rotated
+    private static BufferedImage orient(BufferedImage image, int orientation) {
+        int w = image.getWidth();
+        int h = image.getHeight();
+        boolean swap = orientation >= 5;
+        // Maps stored (x, y) to upright coordinates: (m00, m10, m01, m11, m02, m12)
+        AffineTransform t = switch (orientation) {
+            case 2 -> new AffineTransform(-1, 0, 0, 1, w, 0);
+            case 3 -> new AffineTransform(-1, 0, 0, -1, w, h);
+            case 4 -> new AffineTransform(1, 0, 0, -1, 0, h);
+            case 5 -> new AffineTransform(0, 1, 1, 0, 0, 0);
+            case 6 -> new AffineTransform(0, 1, -1, 0, h, 0);
+            case 7 -> new AffineTransform(0, -1, -1, 0, h, w);
+            case 8 -> new AffineTransform(0, -1, 1, 0, 0, w);
+            default -> null;
+        };
+        if (t == null) {
+            return image;
+        }
+        BufferedImage target = new BufferedImage(swap ? h : w, swap ? w : h, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = target.createGraphics();
+        try {
+            g.drawImage(image, t, null);
+        } finally {
+            g.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * The EXIF orientation tag (1-8) of a JPEG, from its first bytes; 1
+     * (upright) if there is none.
+     */
+    public static int exifOrientation(byte[] jpeg) {
+        if (jpeg.length < 4 || (jpeg[0] & 0xFF) != 0xFF || (jpeg[1] & 0xFF) != 0xD8) {
+            return 1;
+        }
+        int pos = 2;
+        while (pos + 4 <= jpeg.length && (jpeg[pos] & 0xFF) == 0xFF) {
+            int marker = jpeg[pos + 1] & 0xFF;
+            int length = ((jpeg[pos + 2] & 0xFF) << 8) | (jpeg[pos + 3] & 0xFF);
+            if (marker == 0xDA || length < 2) {
+                break; // image data starts; no EXIF before it
+            }
+            int start = pos + 4;
+            if (marker == 0xE1 && start + 14 <= jpeg.length
+                    && jpeg[start] == 'E' && jpeg[start + 1] == 'x' && jpeg[start + 2] == 'i' && jpeg[start + 3] == 'f') {
+                return tiffOrientation(jpeg, start + 6, Math.min(jpeg.length, pos + 2 + length));
+            }
+            pos += 2 + length;
+        }
+        return 1;
+    }
+
+    private static int tiffOrientation(byte[] b, int tiff, int end) {
+        if (tiff + 8 > end) {
+            return 1;
+        }
+        boolean little = b[tiff] == 'I';
+        long ifd = tiff + read(b, tiff + 4, 4, little);
+        if (ifd < tiff + 8 || ifd + 2 > end) {
+            return 1;
+        }
+        int entries = (int) read(b, (int) ifd, 2, little);
+        for (int i = 0; i < entries; i++) {
+            int entry = (int) ifd + 2 + i * 12;
+            if (entry + 12 > end) {
+                break;
+            }
+            if (read(b, entry, 2, little) == 0x0112) {
+                int value = (int) read(b, entry + 8, 2, little);
+                return value >= 1 && value <= 8 ? value : 1;
+            }
+        }
+        return 1;
+    }
+
+    private static long read(byte[] b, int offset, int length, boolean little) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            int v = b[offset + i] & 0xFF;
+            value = little ? value | ((long) v << (8 * i)) : (value << 8) | v;
+        }
+        return value;
+    }
+}
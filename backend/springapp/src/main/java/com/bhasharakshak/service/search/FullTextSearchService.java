@@ -0,0 +1,215 @@
+package com.bhasharakshak.service.search;
+
+import com.bhasharakshak.event.AssetChangedEvent;
+import com.bhasharakshak.event.AssetSnapshot;
+import com.bhasharakshak.model.LanguageAsset;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Full-text search over the transcript and English translation of verified
+ * public assets, ranked with BM25.
+ *
+ * The index lives in memory on every node. It is updated straight away for
+ * changes made on this node ({@link AssetChangedEvent}) and catches up on
+ * other nodes' changes by polling for recently updated assets. A snapshot
+ * on disk lets a restarted node serve queries without rebuilding from
+ * MongoDB.
+ */
+@Service
+public class FullTextSearchService {
+
+    private static final int SNAPSHOT_MAGIC = 0x42524654; // "BRFT"
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final long CATCH_UP_OVERLAP_SECONDS = 5;
+
+    private final MongoTemplate mongoTemplate;
+    private final Path snapshotPath;
+    private final InvertedIndex index = new InvertedIndex();
+
+    // Assets updated at or after this time may not be reflected in the index yet
+    private volatile LocalDateTime watermark;
+    private volatile boolean ready;
+
+    public FullTextSearchService(
+            MongoTemplate mongoTemplate,
+            @Value("${app.search.fts.snapshot-path:search-index.bin}") String snapshotPath) {
+        this.mongoTemplate = mongoTemplate;
+        this.snapshotPath = Paths.get(snapshotPath);
+    }
+
+    /**
+     * Warm start off the startup path: load the snapshot if there is one,
+     * otherwise build from MongoDB, then let catch-up take over.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        Thread loader = new Thread(() -> {
+            try {
+                if (!loadSnapshot()) {
+                    rebuild();
+                }
+                ready = true;
+                catchUp();
+            } catch (Exception e) {
+                System.err.println("Full-text index warm-up failed: " + e.getMessage());
+            }
+        }, "fts-warmup");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    @EventListener
+    public void onAssetChanged(AssetChangedEvent event) {
+        apply(event.assetId(), event.after());
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.fts.catch-up-ms:30000}")
+    public void catchUp() {
+        if (!ready) {
+            return;
+        }
+        LocalDateTime since = watermark.minusSeconds(CATCH_UP_OVERLAP_SECONDS);
+        LocalDateTime newest = watermark;
+
+        Query query = new Query(Criteria.where("updatedAt").gte(since));
+        includeIndexedFields(query);
+        try (Stream<LanguageAsset> changed = mongoTemplate.stream(query, LanguageAsset.class)) {
+            for (LanguageAsset asset : (Iterable<LanguageAsset>) changed::iterator) {
+                apply(asset.getAssetId(), AssetSnapshot.of(asset));
+                if (asset.getUpdatedAt() != null && asset.getUpdatedAt().isAfter(newest)) {
+                    newest = asset.getUpdatedAt();
+                }
+            }
+        }
+        watermark = newest;
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.fts.snapshot-ms:600000}", initialDelayString = "${app.search.fts.snapshot-ms:600000}")
+    @PreDestroy
+    public void snapshot() {
+        if (!ready) {
+            return;
+        }
+        try {
+            Path temp = Files.createTempFile(snapshotPath.toAbsolutePath().getParent(), "search-index", ".part");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeInt(SNAPSHOT_VERSION);
+                out.writeUTF(watermark.toString());
+                index.writeTo(out);
+            }
+            Files.move(temp, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write full-text index snapshot: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Verified public assets matching the query, best match first.
+     */
+    public List<LanguageAsset> search(String text, int limit) {
+        List<InvertedIndex.Hit> hits = index.search(IndicTokenizer.tokenize(text), limit);
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        List<String> ids = hits.stream().map(InvertedIndex.Hit::docId).toList();
+        Map<String, LanguageAsset> found = mongoTemplate.find(
+                        new Query(Criteria.where("_id").in(ids).and("status").is("verified").and("isPrivate").is(false)),
+                        LanguageAsset.class).stream()
+                .collect(Collectors.toMap(LanguageAsset::getAssetId, Function.identity()));
+
+        List<LanguageAsset> results = new ArrayList<>(found.size());
+        for (String id : ids) {
+            LanguageAsset asset = found.get(id);
+            if (asset != null) {
+                results.add(asset);
+            } else {
+                // Deleted or unpublished on another node since the last catch-up
+                index.remove(id);
+            }
+        }
+        return results;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("documents", index.size());
+        stats.put("terms", index.termCount());
+        stats.put("watermark", String.valueOf(watermark));
+        return stats;
+    }
+
+    private void apply(String assetId, AssetSnapshot asset) {
+        if (asset != null && asset.isPublicVerified()) {
+            index.put(assetId, terms(asset));
+        } else {
+            index.remove(assetId);
+        }
+    }
+
+    private static List<String> terms(AssetSnapshot asset) {
+        List<String> terms = new ArrayList<>(IndicTokenizer.tokenize(asset.transcript()));
+        terms.addAll(IndicTokenizer.tokenize(asset.englishTranslation()));
+        return terms;
+    }
+
+    private void rebuild() {
+        LocalDateTime started = LocalDateTime.now();
+        Query query = new Query(Criteria.where("status").is("verified").and("isPrivate").is(false));
+        includeIndexedFields(query);
+        try (Stream<LanguageAsset> assets = mongoTemplate.stream(query, LanguageAsset.class)) {
+            assets.forEach(asset -> apply(asset.getAssetId(), AssetSnapshot.of(asset)));
+        }
+        watermark = started;
+    }
+
+    private boolean loadSnapshot() {
+        if (!Files.exists(snapshotPath)) {
+            return false;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || in.readInt() != SNAPSHOT_VERSION) {
+                return false;
+            }
+            LocalDateTime snapshotWatermark = LocalDateTime.parse(in.readUTF());
+            index.readFrom(in);
+            watermark = snapshotWatermark;
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring unreadable full-text index snapshot: " + e.getMessage());
+            return false;
+        }
+    }
+
+    private static void includeIndexedFields(Query query) {
+        query.fields().include("status", "isPrivate", "transcript", "englishTranslation", "updatedAt");
+    }
+}
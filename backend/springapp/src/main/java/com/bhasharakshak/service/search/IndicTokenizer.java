@@ -0,0 +1,92 @@
+package com.bhasharakshak.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into search terms for Latin and the Indic scripts we collect
+ * (Devanagari, Bengali, Gujarati, Tamil, Telugu, Kannada, Malayalam, ...).
+ *
+ * A term is a run of letters, digits and combining marks, so matras,
+ * viramas, anusvara and nukta always stay with the consonant they modify and
+ * a grapheme cluster is never split. Terms also break where the script
+ * changes, so "Tamilதமிழ்" yields two terms. Normalization makes different
+ * keyboard encodings of the same word match: NFC, lower case, ZWJ/ZWNJ
+ * removed, and native digits folded to ASCII.
+ */
+public final class IndicTokenizer {
+
+    private static final int ZWNJ = 0x200C;
+    private static final int ZWJ = 0x200D;
+
+    private IndicTokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFC);
+        StringBuilder term = new StringBuilder();
+        Character.UnicodeScript termScript = null;
+
+        for (int i = 0; i < normalized.length(); ) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+
+            if (cp == ZWJ || cp == ZWNJ) {
+                continue; // Rendering hints only; never part of the term
+            }
+
+            if (isMark(cp)) {
+                // Attaches to the preceding base character
+                if (term.length() > 0) {
+                    term.appendCodePoint(cp);
+                }
+                continue;
+            }
+
+            if (!Character.isLetterOrDigit(cp)) {
+                termScript = flush(term, terms);
+                continue;
+            }
+
+            Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+            boolean scriptNeutral = script == Character.UnicodeScript.COMMON
+                    || script == Character.UnicodeScript.INHERITED;
+            if (!scriptNeutral) {
+                if (termScript != null && script != termScript) {
+                    flush(term, terms);
+                }
+                termScript = script;
+            }
+
+            if (Character.getType(cp) == Character.DECIMAL_DIGIT_NUMBER) {
+                term.append((char) ('0' + Character.digit(cp, 10)));
+            } else {
+                term.appendCodePoint(Character.toLowerCase(cp));
+            }
+        }
+        flush(term, terms);
+        return terms;
+    }
+
+    private static Character.UnicodeScript flush(StringBuilder term, List<String> terms) {
+        if (term.length() > 0) {
+            terms.add(term.toString().toLowerCase(Locale.ROOT));
+            term.setLength(0);
+        }
+        return null;
+    }
+
+    private static boolean isMark(int cp) {
+        int type = Character.getType(cp);
+        return type == Character.NON_SPACING_MARK
+                || type == Character.COMBINING_SPACING_MARK
+                || type == Character.ENCLOSING_MARK;
+    }
+}
@@ -0,0 +1,309 @@
+package com.bhasharakshak.service.search;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with BM25 ranking.
+ *
+ * Documents get a dense ordinal; each term keeps parallel arrays of
+ * (ordinal, term frequency). Re-indexing a document tombstones its old
+ * ordinal and appends a new one, so updates never rewrite posting lists;
+ * once dead postings make up a large share of the index it is compacted.
+ * Readers share a read lock and never block each other.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double COMPACT_RATIO = 0.3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private final List<Postings> postings = new ArrayList<>();
+
+    private final Map<String, Integer> ordinalsById = new HashMap<>();
+    private String[] docIds = new String[1024];
+    private int[] docLengths = new int[1024];
+    private int[][] docTerms = new int[1024][]; // term ids per ordinal; null once dead
+    private int nextOrdinal;
+
+    private int liveDocs;
+    private long liveLength;
+    private long deadPostings;
+    private long totalPostings;
+
+    /**
+     * Add or replace a document. An empty term list removes it.
+     */
+    public void put(String docId, List<String> terms) {
+        Map<String, Integer> frequencies = new LinkedHashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            if (frequencies.isEmpty()) {
+                return;
+            }
+
+            int ordinal = nextOrdinal++;
+            ensureCapacity(ordinal);
+            int[] termsOfDoc = new int[frequencies.size()];
+            int t = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                int termId = termIds.computeIfAbsent(entry.getKey(), key -> {
+                    postings.add(new Postings());
+                    return postings.size() - 1;
+                });
+                postings.get(termId).add(ordinal, entry.getValue());
+                termsOfDoc[t++] = termId;
+            }
+
+            docIds[ordinal] = docId;
+            docLengths[ordinal] = terms.size();
+            docTerms[ordinal] = termsOfDoc;
+            ordinalsById.put(docId, ordinal);
+            liveDocs++;
+            liveLength += terms.size();
+            totalPostings += termsOfDoc.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(String docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return termIds.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Top {@code limit} documents for the query terms, best first.
+     */
+    public List<Hit> search(List<String> queryTerms, int limit) {
+        lock.readLock().lock();
+        try {
+            if (liveDocs == 0 || limit <= 0) {
+                return List.of();
+            }
+            double avgLength = (double) liveLength / liveDocs;
+            Map<Integer, Double> scores = new HashMap<>();
+
+            for (String term : new LinkedHashSet<>(queryTerms)) {
+                Integer termId = termIds.get(term);
+                if (termId == null) {
+                    continue;
+                }
+                Postings list = postings.get(termId);
+                double idf = Math.log(1 + (liveDocs - list.live + 0.5) / (list.live + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int ordinal = list.docs[i];
+                    if (docTerms[ordinal] == null) {
+                        continue; // tombstoned
+                    }
+                    double tf = list.tfs[i];
+                    double norm = K1 * (1 - B + B * docLengths[ordinal] / avgLength);
+                    scores.merge(ordinal, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+
+            PriorityQueue<Map.Entry<Integer, Double>> top = new PriorityQueue<>(Map.Entry.comparingByValue());
+            for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                top.offer(entry);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Map.Entry<Integer, Double> entry = top.poll();
+                hits.add(new Hit(docIds[entry.getKey()], entry.getValue()));
+            }
+            Collections.reverse(hits);
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Write every live document as (id, term, frequency) lists. Loading
+     * replays them through {@link #put}, which also compacts the index.
+     */
+    public void writeTo(DataOutputStream out) throws IOException {
+        lock.readLock().lock();
+        try {
+            String[] terms = new String[termIds.size()];
+            termIds.forEach((term, id) -> terms[id] = term);
+
+            out.writeInt(liveDocs);
+            for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+                int[] termsOfDoc = docTerms[ordinal];
+                if (termsOfDoc == null) {
+                    continue;
+                }
+                out.writeUTF(docIds[ordinal]);
+                out.writeInt(termsOfDoc.length);
+                for (int termId : termsOfDoc) {
+                    out.writeUTF(terms[termId]);
+                    out.writeInt(postings.get(termId).frequencyOf(ordinal));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void readFrom(DataInputStream in) throws IOException {
+        int docs = in.readInt();
+        for (int d = 0; d < docs; d++) {
+            String docId = in.readUTF();
+            int distinct = in.readInt();
+            List<String> terms = new ArrayList<>();
+            for (int t = 0; t < distinct; t++) {
+                String term = in.readUTF();
+                int frequency = in.readInt();
+                for (int f = 0; f < frequency; f++) {
+                    terms.add(term);
+                }
+            }
+            put(docId, terms);
+        }
+    }
+
+    private void removeLocked(String docId) {
+        Integer ordinal = ordinalsById.remove(docId);
+        if (ordinal == null) {
+            return;
+        }
+        for (int termId : docTerms[ordinal]) {
+            postings.get(termId).live--;
+        }
+        deadPostings += docTerms[ordinal].length;
+        liveDocs--;
+        liveLength -= docLengths[ordinal];
+        docTerms[ordinal] = null;
+        docIds[ordinal] = null;
+
+        if (deadPostings > COMPACT_RATIO * totalPostings && totalPostings > 10_000) {
+            compactLocked();
+        }
+    }
+
+    /**
+     * Drop tombstoned postings and renumber live documents densely.
+     */
+    private void compactLocked() {
+        int[] remap = new int[nextOrdinal];
+        int live = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (docTerms[ordinal] != null) {
+                remap[ordinal] = live;
+                docIds[live] = docIds[ordinal];
+                docLengths[live] = docLengths[ordinal];
+                docTerms[live] = docTerms[ordinal];
+                ordinalsById.put(docIds[live], live);
+                live++;
+            } else {
+                remap[ordinal] = -1;
+            }
+        }
+        for (int ordinal = live; ordinal < nextOrdinal; ordinal++) {
+            docIds[ordinal] = null;
+            docTerms[ordinal] = null;
+        }
+        for (Postings list : postings) {
+            list.compact(remap);
+        }
+        nextOrdinal = live;
+        totalPostings -= deadPostings;
+        deadPostings = 0;
+    }
+
+    private void ensureCapacity(int ordinal) {
+        if (ordinal < docIds.length) {
+            return;
+        }
+        int capacity = Math.max(ordinal + 1, docIds.length * 2);
+        docIds = Arrays.copyOf(docIds, capacity);
+        docLengths = Arrays.copyOf(docLengths, capacity);
+        docTerms = Arrays.copyOf(docTerms, capacity);
+    }
+
+    public record Hit(String docId, double score) {
+    }
+
+    private static final class Postings {
+        int[] docs = new int[4];
+        int[] tfs = new int[4];
+        int size;
+        int live;
+
+        void add(int ordinal, int tf) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                tfs = Arrays.copyOf(tfs, size * 2);
+            }
+            docs[size] = ordinal;
+            tfs[size] = tf;
+            size++;
+            live++;
+        }
+
+        int frequencyOf(int ordinal) {
+            // Ordinals are appended in increasing order
+            int i = Arrays.binarySearch(docs, 0, size, ordinal);
+            return i >= 0 ? tfs[i] : 0;
+        }
+
+        void compact(int[] remap) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int mapped = remap[docs[i]];
+                if (mapped >= 0) {
+                    docs[kept] = mapped;
+                    tfs[kept] = tfs[i];
+                    kept++;
+                }
+            }
+            size = kept;
+        }
+    }
+}
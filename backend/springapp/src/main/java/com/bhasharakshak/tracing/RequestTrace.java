@@ -0,0 +1,175 @@
+package com.bhasharakshak.tracing;
+
+import org.springframework.http.HttpHeaders;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One traced request: its W3C trace id and the timed stages recorded while
+ * it ran. Stages may be recorded from any thread; a request that was not
+ * sampled keeps its trace id (so AI service logs can still be matched up)
+ * but records nothing.
+ */
+public final class RequestTrace {
+
+    public static final String TRACEPARENT = "traceparent";
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    /** Stand-in used outside of any request; records and propagates nothing. */
+    static final RequestTrace NONE = new RequestTrace(null, null, null, false);
+
+    private static final Span NOOP_SPAN = () -> {
+    };
+
+    private final String traceId;
+    private final String spanId;
+    private final String method;
+    private final String path;
+    private final boolean sampled;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final List<Stage> stages;
+    private volatile long durationNanos = -1;
+    private volatile int status;
+
+    RequestTrace(String traceId, String method, String path, boolean sampled) {
+        this.traceId = traceId;
+        this.spanId = traceId != null ? hex(ThreadLocalRandom.current().nextLong()) : null;
+        this.method = method;
+        this.path = path;
+        this.sampled = sampled;
+        this.stages = sampled ? new ArrayList<>(8) : List.of();
+    }
+
+    /**
+     * A stage timed from now until the returned span is closed.
+     */
+    public Span stage(String name) {
+        if (!sampled) {
+            return NOOP_SPAN;
+        }
+        long start = System.nanoTime();
+        return () -> record(name, start, null);
+    }
+
+    /** Runs {@code body} as the stage {@code name} and returns its result. */
+    public <T, E extends Exception> T timed(String name, Body<T, E> body) throws E {
+        Span span = stage(name);
+        try {
+            return body.run();
+        } finally {
+            span.close();
+        }
+    }
+
+    /** Runs {@code body} as the stage {@code name}. */
+    public void timed(String name, Runnable body) {
+        Span span = stage(name);
+        try {
+            body.run();
+        } finally {
+            span.close();
+        }
+    }
+
+    /**
+     * Records a stage that started at {@code startNanos} and ends now;
+     * {@code error} is a short failure reason or null.
+     */
+    public void record(String name, long startNanos, String error) {
+        if (!sampled) {
+            return;
+        }
+        long end = System.nanoTime();
+        Stage stage = new Stage(name, (startNanos - this.startNanos) / 1000, (end - startNanos) / 1000,
+                Thread.currentThread().getName(), error);
+        synchronized (stages) {
+            stages.add(stage);
+        }
+    }
+
+    /** Adds {@code traceparent} and {@code X-Trace-Id} to an outgoing request. */
+    public void inject(HttpHeaders headers) {
+        if (traceId != null) {
+            headers.set(TRACEPARENT, "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00"));
+            headers.set(TRACE_ID_HEADER, traceId);
+        }
+    }
+
+    void finish(int status) {
+        this.status = status;
+        this.durationNanos = System.nanoTime() - startNanos;
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    /** Whole request time, or -1 while it is still running. */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /** Stages in the order they ended. */
+    public List<Stage> getStages() {
+        synchronized (stages) {
+            return List.copyOf(stages);
+        }
+    }
+
+    /**
+     * Offsets and durations are in microseconds, offsets from the start of
+     * the request.
+     */
+    public record Stage(String name, long startMicros, long durationMicros, String thread, String error) {
+    }
+
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /** The work timed by {@link #timed(String, Body)}; may throw a checked exception. */
+    @FunctionalInterface
+    public interface Body<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long high;
+        do {
+            high = random.nextLong();
+        } while (high == 0);
+        return hex(high) + hex(random.nextLong());
+    }
+
+    private static String hex(long value) {
+        String digits = Long.toHexString(value);
+        return "0".repeat(16 - digits.length()) + digits;
+    }
+}
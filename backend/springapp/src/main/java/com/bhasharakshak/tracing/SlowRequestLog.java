@@ -0,0 +1,146 @@
+package com.bhasharakshak.tracing;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Finished traces that took longer than the slow threshold: a ring buffer of
+ * the most recent ones and the slowest ones seen within the window. Faster
+ * requests are dropped after one comparison, and the lock is only taken by a
+ * request that makes it into the slowest set.
+ */
+@Component
+public class SlowRequestLog {
+
+    private static final Comparator<RequestTrace> BY_DURATION = Comparator.comparingLong(RequestTrace::getDurationNanos);
+
+    private final long thresholdNanos;
+    private final int size;
+    private final Duration window;
+    private final boolean logSlow;
+
+    private final AtomicReferenceArray<RequestTrace> recent;
+    private final AtomicLong written = new AtomicLong();
+    private final PriorityQueue<RequestTrace> slowest; // fastest of the kept ones at the head
+    private volatile long floorNanos;
+
+    private final AtomicLong finished = new AtomicLong();
+    private final AtomicLong slow = new AtomicLong();
+
+    public SlowRequestLog(
+            @Value("${app.tracing.slow-threshold-ms:1000}") long thresholdMs,
+            @Value("${app.tracing.slow-log.size:50}") int size,
+            @Value("${app.tracing.slow-log.window-minutes:60}") long windowMinutes,
+            @Value("${app.tracing.slow-log.print:true}") boolean logSlow) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMs);
+        this.size = size;
+        this.window = Duration.ofMinutes(windowMinutes);
+        this.logSlow = logSlow;
+        this.recent = new AtomicReferenceArray<>(size);
+        this.slowest = new PriorityQueue<>(size + 1, BY_DURATION);
+        this.floorNanos = thresholdNanos;
+    }
+
+    public void offer(RequestTrace trace) {
+        finished.incrementAndGet();
+        long duration = trace.getDurationNanos();
+        if (!trace.isSampled() || duration < thresholdNanos) {
+            return;
+        }
+        slow.incrementAndGet();
+        recent.set((int) (written.getAndIncrement() % size), trace);
+        if (logSlow) {
+            System.out.println(describe(trace));
+        }
+
+        if (duration >= floorNanos) {
+            synchronized (slowest) {
+                evictExpired();
+                slowest.add(trace);
+                if (slowest.size() > size) {
+                    slowest.poll();
+                }
+                updateFloor();
+            }
+        }
+    }
+
+    /** Slowest requests within the window, slowest first. */
+    public List<RequestTrace> slowest(int limit) {
+        List<RequestTrace> traces;
+        synchronized (slowest) {
+            evictExpired();
+            updateFloor();
+            traces = new ArrayList<>(slowest);
+        }
+        traces.sort(BY_DURATION.reversed());
+        return traces.subList(0, Math.min(limit, traces.size()));
+    }
+
+    /** Most recent slow requests, newest first. */
+    public List<RequestTrace> recent(int limit) {
+        List<RequestTrace> traces = new ArrayList<>();
+        long end = written.get();
+        for (long i = end - 1; i >= Math.max(0, end - size) && traces.size() < limit; i--) {
+            RequestTrace trace = recent.get((int) (i % size));
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        return traces;
+    }
+
+    public void clear() {
+        synchronized (slowest) {
+            slowest.clear();
+            updateFloor();
+        }
+        for (int i = 0; i < size; i++) {
+            recent.set(i, null);
+        }
+    }
+
+    public Stats stats() {
+        return new Stats(TimeUnit.NANOSECONDS.toMillis(thresholdNanos), size, window.toMinutes(),
+                finished.get(), slow.get());
+    }
+
+    public record Stats(long thresholdMs, int size, long windowMinutes, long finished, long slow) {
+    }
+
+    // Caller holds the lock on slowest
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(window);
+        slowest.removeIf(trace -> trace.getStartedAt().isBefore(cutoff));
+    }
+
+    // Caller holds the lock on slowest
+    private void updateFloor() {
+        floorNanos = slowest.size() < size ? thresholdNanos : slowest.peek().getDurationNanos();
+    }
+
+    private static String describe(RequestTrace trace) {
+        StringBuilder line = new StringBuilder("Slow request ")
+                .append(TimeUnit.NANOSECONDS.toMillis(trace.getDurationNanos())).append("ms ")
+                .append(trace.getMethod()).append(' ').append(trace.getPath())
+                .append(" status=").append(trace.getStatus())
+                .append(" trace=").append(trace.getTraceId());
+        for (RequestTrace.Stage stage : trace.getStages()) {
+            line.append(' ').append(stage.name()).append('=').append(stage.durationMicros() / 1000).append("ms");
+            if (stage.error() != null) {
+                line.append('(').append(stage.error()).append(')');
+            }
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,73 @@
+package com.bhasharakshak.tracing;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Access to the trace of the request being served. The trace follows the
+ * request thread, tasks submitted through {@link #wrap} and Reactor
+ * pipelines that carry it in their context ({@link #context}).
+ */
+public final class Tracing {
+
+    private static final ThreadLocal<RequestTrace> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    /** The current trace; never null, but outside a request it records nothing. */
+    public static RequestTrace current() {
+        RequestTrace trace = CURRENT.get();
+        return trace != null ? trace : RequestTrace.NONE;
+    }
+
+    /** The trace carried in a Reactor context, else the current thread's. */
+    public static RequestTrace current(ContextView context) {
+        return context.getOrDefault(RequestTrace.class, current());
+    }
+
+    public static Context context(RequestTrace trace) {
+        return Context.of(RequestTrace.class, trace);
+    }
+
+    public static RequestTrace.Span stage(String name) {
+        return current().stage(name);
+    }
+
+    public static <T, E extends Exception> T timed(String name, RequestTrace.Body<T, E> body) throws E {
+        return current().timed(name, body);
+    }
+
+    public static void timed(String name, Runnable body) {
+        current().timed(name, body);
+    }
+
+    /** Runs {@code task} with the submitting thread's trace; usable as a TaskDecorator. */
+    public static Runnable wrap(Runnable task) {
+        RequestTrace trace = CURRENT.get();
+        if (trace == null) {
+            return task;
+        }
+        return () -> {
+            RequestTrace previous = CURRENT.get();
+            CURRENT.set(trace);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    static void attach(RequestTrace trace) {
+        CURRENT.set(trace);
+    }
+
+    static void restore(RequestTrace previous) {
+        if (previous != null) {
+            CURRENT.set(previous);
+        } else {
+            CURRENT.remove();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.bhasharakshak.tracing;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Starts a {@link RequestTrace} for each API request. An incoming W3C
+ * {@code traceparent} is continued, otherwise a new trace id is made; either
+ * way it is returned in {@code X-Trace-Id}. Only a sampled share of requests
+ * records stages. Async requests (Mono results) finish when the async
+ * dispatch completes, not when the first dispatch returns.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-[0-9a-f]{16}-[0-9a-f]{2}");
+
+    private final SlowRequestLog slowRequestLog;
+    private final boolean enabled;
+    private final double sampleRate;
+
+    public TracingFilter(
+            SlowRequestLog slowRequestLog,
+            @Value("${app.tracing.enabled:true}") boolean enabled,
+            @Value("${app.tracing.sample-rate:1.0}") double sampleRate) {
+        this.slowRequestLog = slowRequestLog;
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull FilterChain chain) throws ServletException, IOException {
+        boolean sampled = sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate;
+        RequestTrace trace = new RequestTrace(traceId(request), request.getMethod(), request.getRequestURI(), sampled);
+        response.setHeader(RequestTrace.TRACE_ID_HEADER, trace.getTraceId());
+
+        Tracing.attach(trace);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Tracing.restore(null);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        finish(trace, response);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                finish(trace, response);
+            }
+        }
+    }
+
+    private void finish(RequestTrace trace, HttpServletResponse response) {
+        trace.finish(response.getStatus());
+        slowRequestLog.offer(trace);
+    }
+
+    private static String traceId(HttpServletRequest request) {
+        String traceparent = request.getHeader(RequestTrace.TRACEPARENT);
+        if (traceparent != null) {
+            var matcher = TRACEPARENT.matcher(traceparent.trim());
+            if (matcher.matches() && !matcher.group(1).equals("0".repeat(32))) {
+                return matcher.group(1);
+            }
+        }
+        return RequestTrace.newTraceId();
+    }
+}
@@ -1,7 +1,6 @@
 import React, { useState, useEffect } from 'react';
-import { validateLanguageScript } from '../utils/languageUtils';
 import { getNativeLanguageName } from '../utils/languageNames';
-import axios from 'axios';
+import { getLanguageTotals } from '../services/SearchService';
 import { Search, Globe, Sparkles, BookOpen, ArrowRight } from 'lucide-react';
 import { useTranslation } from 'react-i18next';
 import { Link } from 'react-router-dom';
@@ -9,7 +8,7 @@ import { Link } from 'react-router-dom';
 export const LanguageGallery = () => {
     const { t } = useTranslation();
     const [query, setQuery] = useState('');
-    const [groupedAssets, setGroupedAssets] = useState({});
+    const [languages, setLanguages] = useState([]);
     const [loading, setLoading] = useState(false);
 
     useEffect(() => {
@@ -20,28 +19,12 @@ export const LanguageGallery = () => {
         if (e) e.preventDefault();
         setLoading(true);
         try {
-            const url = query
-                ? `http://localhost:8080/api/v1/search?query=${query}`
-                : `http://localhost:8080/api/v1/search?query=`;
-
-            const res = await axios.get(url);
-            const verified = res.data.filter(a => a.status === 'verified');
-
-            // Group by language
-            const grouped = verified.reduce((acc, asset) => {
-                const lang = asset.languageName || t('unknown_language');
-
-                // Strict script validation
-                if (!validateLanguageScript(asset.transcript, lang)) {
-                    return acc;
-                }
-
-                if (!acc[lang]) acc[lang] = [];
-                acc[lang].push(asset);
-                return acc;
-            }, {});
-
-            setGroupedAssets(grouped);
+            // Counts per language come from the stats rollup; the assets themselves load on each language's page
+            const prefix = query.trim().toLowerCase();
+            const totals = await getLanguageTotals();
+            setLanguages(totals
+                .filter(({ name, published }) => published > 0 && name.toLowerCase().startsWith(prefix))
+                .map(({ name, published }) => ({ language: name || t('unknown_language'), count: published })));
         } catch (err) {
             console.error(err);
         } finally {
@@ -81,7 +64,7 @@ export const LanguageGallery = () => {
                         <div key={i} className="h-64 bg-gray-200 dark:bg-gray-800 rounded-3xl animate-pulse"></div>
                     ))}
                 </div>
-            ) : Object.keys(groupedAssets).length === 0 ? (
+            ) : languages.length === 0 ? (
                 <div className="text-center py-24 glass-card border-dashed bg-white/50 dark:bg-gray-800/50">
                     <div className="w-24 h-24 bg-gray-100 dark:bg-gray-700 rounded-full flex items-center justify-center mx-auto mb-6">
                         <Globe size={48} className="text-gray-300 dark:text-gray-500" />
@@ -94,7 +77,7 @@ export const LanguageGallery = () => {
                 </div>
             ) : (
                 <div className="grid md:grid-cols-2 lg:grid-cols-3 gap-8 pb-20">
-                    {Object.entries(groupedAssets).map(([language, assets]) => {
+                    {languages.map(({ language, count }) => {
                         const nativeName = getNativeLanguageName(language);
                         const displayName = nativeName === language ? language : nativeName;
 
@@ -130,7 +113,7 @@ export const LanguageGallery = () => {
                                         )}
                                         <div className="flex items-center gap-3 text-gray-500 dark:text-gray-400 font-medium">
                                             <BookOpen size={18} />
-                                            <span>{assets.length} {assets.length === 1 ? t('entry') : t('entries')}</span>
+                                            <span>{count} {count === 1 ? t('entry') : t('entries')}</span>
                                         </div>
                                     </div>
                                 </div>
@@ -1,9 +1,10 @@
-import React, { useState } from 'react';
-import { MapContainer, TileLayer, Marker, Popup, ZoomControl } from 'react-leaflet';
+import React, { useState, useEffect, useCallback } from 'react';
+import { MapContainer, TileLayer, Marker, Popup, ZoomControl, useMap, useMapEvents } from 'react-leaflet';
 import { motion } from 'framer-motion';
 import { useTranslation } from 'react-i18next';
 import L from 'leaflet';
 import 'leaflet/dist/leaflet.css';
+import { fetchMapClusters } from '../services/MapService';
 
 // Fix for default marker icons in React-Leaflet
 delete L.Icon.Default.prototype._getIconUrl;
@@ -49,8 +50,8 @@ const createPulsingIcon = (color = '#F43F5E') => {
     });
 };
 
-// Language contribution locations (same as before)
-const markers = [
+// Shown until contributions with coordinates exist
+const DEFAULT_MARKERS = [
     { id: 1, name: "New Delhi", language: "Hindi", coordinates: [28.7041, 77.1025], contributions: 1247 },
     { id: 2, name: "Dispur", language: "Assamese", coordinates: [26.1158, 91.7898], contributions: 432 },
     { id: 3, name: "Chennai", language: "Tamil", coordinates: [13.0827, 80.2707], contributions: 891 },
@@ -58,9 +59,38 @@ const markers = [
     { id: 5, name: "Kohima", language: "Naga", coordinates: [25.6751, 94.1168], contributions: 234 }
 ];
 
+// Loads clusters for the visible area whenever the map is panned or zoomed
+const ViewportClusters = ({ onClusters }) => {
+    const map = useMap();
+
+    const load = useCallback(async () => {
+        try {
+            const clusters = await fetchMapClusters(map.getBounds(), map.getZoom());
+            onClusters(clusters.map(cluster => ({
+                id: cluster.tile,
+                name: `${cluster.count} contribution${cluster.count === 1 ? '' : 's'}`,
+                language: cluster.primaryLanguage,
+                coordinates: [cluster.latitude, cluster.longitude],
+                contributions: cluster.count
+            })));
+        } catch (error) {
+            console.error('Error fetching map clusters:', error);
+        }
+    }, [map, onClusters]);
+
+    useMapEvents({ moveend: load });
+    useEffect(() => {
+        load();
+    }, [load]);
+
+    return null;
+};
+
 export const LeafletMap = () => {
     const { t } = useTranslation();
     const [activeMarker, setActiveMarker] = useState(null);
+    const [clusters, setClusters] = useState(null);
+    const markers = clusters && clusters.length > 0 ? clusters : DEFAULT_MARKERS;
 
     return (
         <>
@@ -94,6 +124,7 @@ export const LeafletMap = () => {
                             />
 
                             <ZoomControl position="topright" />
+                            <ViewportClusters onClusters={setClusters} />
 
                             {markers.map((marker) => (
                                 <Marker
@@ -196,7 +196,12 @@ export const TranslationPanel = () => {
                                 `}>
                                     {asset.languageName}
                                 </span>
-                                <span className="text-[10px] text-gray-400">{new Date(asset.createdAt).toLocaleDateString()}</span>
+                                <span className="text-[10px] text-gray-400">
+                                    {asset.transcriptFlagged && (
+                                        <span className="mr-2 font-bold text-red-500" title="Transcript contains words from the profanity list">Flagged</span>
+                                    )}
+                                    {new Date(asset.createdAt).toLocaleDateString()}
+                                </span>
                             </div>
                             <div className="text-gray-800 dark:text-gray-200 font-medium truncate mb-1">{asset.transcript || "No transcript"}</div>
                             <div className="text-xs text-gray-400 flex items-center gap-1">
@@ -1,7 +1,7 @@
 import React, { useState, useEffect } from 'react';
 import { validateLanguageScript } from '../utils/languageUtils';
-import axios from 'axios';
 import { useParams, Link } from 'react-router-dom';
+import { searchAssets } from '../services/SearchService';
 import { Search, Play, Volume2, Globe, ArrowLeft, BookOpen, Trash2 } from 'lucide-react';
 import { useTranslation } from 'react-i18next';
 import { motion } from 'framer-motion';
@@ -11,27 +11,32 @@ export const LanguageAssets = () => {
     const { t } = useTranslation();
     const [assets, setAssets] = useState([]);
     const [loading, setLoading] = useState(true);
+    const [loadingMore, setLoadingMore] = useState(false);
+    const [nextCursor, setNextCursor] = useState(null);
     const [query, setQuery] = useState('');
 
     useEffect(() => {
-        fetchAssets();
+        setAssets([]);
+        setNextCursor(null);
+        fetchAssets(null);
     }, [language]);
 
-    const fetchAssets = async () => {
-        setLoading(true);
+    // One page at a time; "Load more" follows the cursor
+    const fetchAssets = async (cursor) => {
+        cursor ? setLoadingMore(true) : setLoading(true);
         try {
-            // Fetching all and filtering client side for now as per plan
-            const res = await axios.get(`http://localhost:8080/api/v1/search?query=`);
-            const verified = res.data.filter(a =>
-                a.status === 'verified' &&
+            // Server filters to verified assets by language name prefix; exact match and script checks stay client side
+            const page = await searchAssets(language, cursor);
+            const verified = page.assets.filter(a =>
                 a.languageName.toLowerCase() === language.toLowerCase() &&
                 validateLanguageScript(a.transcript, language)
             );
-            setAssets(verified);
+            setAssets(prev => cursor ? [...prev, ...verified] : verified);
+            setNextCursor(page.nextCursor);
         } catch (err) {
             console.error(err);
         } finally {
-            setLoading(false);
+            cursor ? setLoadingMore(false) : setLoading(false);
         }
     };
 
@@ -72,7 +77,7 @@ export const LanguageAssets = () => {
                             {language} <span className="text-orange-500">Collection</span>
                         </h1>
                         <p className="text-gray-500 dark:text-gray-400">
-                            {assets.length} {assets.length === 1 ? t('entry') : t('entries')} available
+                            {assets.length}{nextCursor ? '+' : ''} {assets.length === 1 && !nextCursor ? t('entry') : t('entries')} available
                         </p>
                     </div>
 
@@ -173,6 +178,18 @@ export const LanguageAssets = () => {
                     ))}
                 </div>
             )}
+
+            {!loading && nextCursor && (
+                <div className="text-center mt-12">
+                    <button
+                        onClick={() => fetchAssets(nextCursor)}
+                        disabled={loadingMore}
+                        className="px-8 py-3 rounded-full bg-gray-900 dark:bg-white text-white dark:text-gray-900 font-bold hover:scale-105 transition-all shadow-lg disabled:opacity-50"
+                    >
+                        {loadingMore ? 'Loading...' : 'Load more'}
+                    </button>
+                </div>
+            )}
         </div>
     );
 };
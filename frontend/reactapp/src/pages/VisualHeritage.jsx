@@ -407,7 +407,9 @@ export const VisualHeritage = () => {
                             >
                                 <div className="aspect-[4/3] overflow-hidden bg-gray-100 dark:bg-gray-800 relative">
                                     <img
-                                        src={item.imageUrl}
+                                        src={item.thumbnailUrl || item.imageUrl}
+                                        srcSet={item.thumbnailUrl ? `${item.thumbnailUrl} 320w, ${item.mediumUrl} 1024w` : undefined}
+                                        sizes="(min-width: 1024px) 33vw, (min-width: 640px) 50vw, 100vw"
                                         alt={item.title}
                                         className="w-full h-full object-cover transform group-hover:scale-105 transition-transform duration-500"
                                         loading="lazy"
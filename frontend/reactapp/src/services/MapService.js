@@ -35,3 +35,17 @@ export const clearMapStatsCache = () => {
     mapStatsCache = null;
     lastFetchTime = 0;
 };
+
+// Pre-clustered contribution points for the visible map area
+export const fetchMapClusters = async (bounds, zoom) => {
+    const response = await axios.get(`${API_BASE_URL}/map-clusters`, {
+        params: {
+            south: bounds.getSouth(),
+            west: bounds.getWest(),
+            north: bounds.getNorth(),
+            east: bounds.getEast(),
+            zoom
+        }
+    });
+    return response.data.clusters;
+};
@@ -0,0 +1,25 @@
+import axios from 'axios';
+
+const API_BASE_URL = 'http://localhost:8080/api/v1';
+const PAGE_SIZE = 48;
+
+/**
+ * One page of verified public assets whose language name starts with
+ * `query` (all of them for an empty query). Pass the returned `nextCursor`
+ * to get the following page; it is null after the last one.
+ */
+export const searchAssets = async (query = '', cursor = null) => {
+    const response = await axios.get(`${API_BASE_URL}/search`, {
+        params: { query, limit: PAGE_SIZE, ...(cursor ? { cursor } : {}) }
+    });
+    return { assets: response.data, nextCursor: response.headers['x-next-cursor'] || null };
+};
+
+/**
+ * Per-language asset counts from the stats rollup: `{ name, count, published }`,
+ * where `published` is the number search can return.
+ */
+export const getLanguageTotals = async () => {
+    const response = await axios.get(`${API_BASE_URL}/stats`);
+    return response.data.languages || [];
+};
@@ -61,7 +61,7 @@ if %errorlevel% neq 0 (
     exit /b
 )
 echo [INFO] Starting Backend Server...
-start "BhashaRakshak Backend" /min cmd /k "echo Backend Running... & java -jar target\bhasharakshak-0.0.1-SNAPSHOT.jar"
+start "BhashaRakshak Backend" /min cmd /k "echo Backend Running... & java -jar target\bhasharakshak-0.0.1-SNAPSHOT-exec.jar"
 cd ..\..
 echo [SUCCESS] Backend Server started in background.
 echo.